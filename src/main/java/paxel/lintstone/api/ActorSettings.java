@@ -3,6 +3,9 @@ package paxel.lintstone.api;
 
 import paxel.lintstone.impl.ActorSettingsBuilder;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * The actor settings for the creation of configured actors.
  */
@@ -32,6 +35,37 @@ public interface ActorSettings {
         return 0;
     }
 
+    /**
+     * The duration an actor may stay idle before its instance and processor are released.
+     * The next message recreates the actor with its {@link LintStoneActorFactory}.
+     * Actors implementing {@link LintStonePassivatableActor} can carry their state over.
+     * {@link Duration#ZERO} means never.
+     *
+     * @return the passivation timeout.
+     */
+    default Duration passivationTimeout() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * If enabled, the actor records the queue wait time and the service time of all messages and replies.
+     * See {@link LintStoneActorAccessor#getQueueWaitLatency()} and {@link LintStoneSystem#snapshot()}.
+     *
+     * @return {@code true} if the latencies are recorded.
+     */
+    default boolean latencyTracking() {
+        return false;
+    }
+
+    /**
+     * The interceptors of this actor. They are called after the interceptors of the system.
+     *
+     * @return the interceptors.
+     */
+    default List<MessageInterceptor> interceptors() {
+        return List.of();
+    }
+
     /**
      * Create a builder to build an implementation of the Settings.
      *
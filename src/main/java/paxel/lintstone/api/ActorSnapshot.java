@@ -0,0 +1,77 @@
+package paxel.lintstone.api;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The statistics of one actor at the time of a {@link LintStoneSystem#snapshot()}.
+ */
+public interface ActorSnapshot {
+
+    /**
+     * Retrieve the name of the actor.
+     *
+     * @return the name.
+     */
+    String name();
+
+    /**
+     * Retrieve the number of queued messages and replies.
+     *
+     * @return the queue depth.
+     */
+    int queued();
+
+    /**
+     * Retrieve the number of processed messages.
+     *
+     * @return the processed messages.
+     */
+    long processedMessages();
+
+    /**
+     * Retrieve the number of processed replies.
+     *
+     * @return the processed replies.
+     */
+    long processedReplies();
+
+    /**
+     * Retrieve the number of messages and replies whose processing failed.
+     *
+     * @return the errors.
+     */
+    long errors();
+
+    /**
+     * Retrieve the time the actor was created for its registration.
+     *
+     * @return the registration time.
+     */
+    Instant registrationTime();
+
+    /**
+     * Retrieve the time the actor was last seen processing a message or reply. The activity is not recorded per
+     * message, but observed when a snapshot is taken, so this is the time of the first snapshot that saw the latest
+     * processing. This is the registration time if it never processed anything.
+     *
+     * @return the last activity time.
+     */
+    Instant lastActivity();
+
+    /**
+     * Retrieve the time messages and replies waited in the queue, if {@link ActorSettings#latencyTracking()} is enabled.
+     * The distribution is copied when the snapshot is taken.
+     *
+     * @return the queue wait distribution.
+     */
+    Optional<LatencySnapshot> queueWait();
+
+    /**
+     * Retrieve the time the actor spent processing messages and replies, if {@link ActorSettings#latencyTracking()} is enabled.
+     * The distribution is copied when the snapshot is taken.
+     *
+     * @return the service time distribution.
+     */
+    Optional<LatencySnapshot> serviceTime();
+}
@@ -0,0 +1,19 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+/**
+ * Receives the {@link LintStoneBuffer} leases that were garbage collected without being released. It is called in a
+ * cleaner thread, so the implementations must be thread safe.
+ */
+@FunctionalInterface
+public interface BufferLeakHandler {
+
+    /**
+     * Handles a leaked lease.
+     *
+     * @param capacity the requested capacity of the lease.
+     * @param leasedAt carries the stack trace of the {@link LintStoneSystem#leaseBuffer(int)} call.
+     */
+    void leaked(int capacity, @NonNull Throwable leasedAt);
+}
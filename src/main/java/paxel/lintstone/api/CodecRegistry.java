@@ -0,0 +1,57 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@link MessageCodec}s of a system, keyed by the message class.
+ * <p>
+ * Without a registered codec, a default binary codec is created on first use for records, enums, Strings,
+ * {@code byte[]} and the boxed primitives. Record components may be of any of these types, primitives or
+ * registered types. The default record codec accesses the components with method handles, that are created
+ * once per class, and doesn't allocate while encoding.
+ */
+public interface CodecRegistry {
+
+    /**
+     * Registers a codec for exactly the given type. It replaces a previously registered or created codec.
+     *
+     * @param type  the message type.
+     * @param codec the codec.
+     * @param <T>   the message type.
+     */
+    <T> void register(@NonNull Class<T> type, @NonNull MessageCodec<T> codec);
+
+    /**
+     * Retrieves the codec for the type. If none is registered, the default codec is created and registered.
+     *
+     * @param type the message type.
+     * @param <T>  the message type.
+     * @return the codec.
+     * @throws IllegalArgumentException if there is no default codec for the type.
+     */
+    <T> @NonNull MessageCodec<T> codecFor(@NonNull Class<T> type);
+
+    /**
+     * Writes the class name and the message, so that it can be read by {@link #decode(ByteBuffer)} without knowing
+     * the type.
+     *
+     * @param message the message.
+     * @param target  the buffer.
+     * @throws IllegalArgumentException         if there is no codec for the type of the message.
+     * @throws java.nio.BufferOverflowException if the buffer is too small.
+     */
+    void encode(@NonNull Object message, @NonNull ByteBuffer target);
+
+    /**
+     * Reads a message written by {@link #encode(Object, ByteBuffer)}. Only classes, that are known to this registry
+     * by {@link #register(Class, MessageCodec)} or {@link #codecFor(Class)}, are decoded. Bytes from other systems
+     * can therefore not instantiate arbitrary classes.
+     *
+     * @param source the buffer.
+     * @return the message.
+     * @throws IllegalArgumentException if the class of the message is unknown.
+     */
+    @NonNull Object decode(@NonNull ByteBuffer source);
+}
@@ -0,0 +1,31 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+/**
+ * Receives the messages that could not be delivered. The handler is called in the thread that noticed the failed
+ * delivery, which can be a sender, an actor or the shutting down thread, so the implementations must be thread safe
+ * and should be fast. Dead letters caused by the handler itself are only counted.
+ */
+@FunctionalInterface
+public interface DeadLetterHandler {
+
+    /**
+     * Handles an undelivered message.
+     *
+     * @param deadLetter the message and the reason.
+     */
+    void handle(@NonNull LintStoneDeadLetter deadLetter);
+
+    /**
+     * Creates a handler that forwards the dead letters to an actor of the system, which receives them as
+     * {@link LintStoneDeadLetter} messages.
+     *
+     * @param system    the system.
+     * @param actorName the name of the dead letter actor.
+     * @return the handler.
+     */
+    static @NonNull DeadLetterHandler forwardTo(@NonNull LintStoneSystem system, @NonNull String actorName) {
+        return deadLetter -> system.getActor(actorName).tryTell(deadLetter);
+    }
+}
@@ -0,0 +1,27 @@
+package paxel.lintstone.api;
+
+/**
+ * The reasons why a message could not be delivered.
+ */
+public enum DeadLetterReason {
+    /**
+     * There is no registered actor with the name of the recipient.
+     */
+    UNREGISTERED_RECIPIENT,
+    /**
+     * The recipient was unregistered while the message was sent.
+     */
+    REJECTED,
+    /**
+     * The system was shut down before the message was processed.
+     */
+    DISCARDED_ON_SHUTDOWN,
+    /**
+     * The {@link ErrorHandler} of the recipient gave up, before the message was processed.
+     */
+    ABORTED,
+    /**
+     * The recipient of a delayed message was unregistered before the delay ended.
+     */
+    DELAYED_RECIPIENT_GONE
+}
@@ -0,0 +1,98 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+import paxel.lintstone.impl.MappedFileChunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A part of a file, that contains whole lines. The chunks of a file are created by {@link #split(Path, int)} from
+ * the file size only, without reading it. Each chunk aligns itself to the lines when it is first read, by skipping
+ * the line that started in the previous chunk and completing its last line from the next chunk. So the chunks can
+ * be sent to worker actors, e.g. as source of {@link LintStoneSystem#from(String, Iterable)}, which read them
+ * memory mapped and in parallel.
+ * A chunk is meant to be read by one actor at a time.
+ */
+public interface FileChunk {
+
+    /**
+     * The default maximum length of a line, that a chunk can complete from the next chunk.
+     */
+    int DEFAULT_MAX_LINE_LENGTH = 1 << 20;
+
+    /**
+     * Retrieve the file.
+     *
+     * @return the file.
+     */
+    Path file();
+
+    /**
+     * Retrieve the offset of the first byte of this chunk before the alignment.
+     *
+     * @return the start.
+     */
+    long start();
+
+    /**
+     * Retrieve the offset after the last byte of this chunk before the alignment.
+     *
+     * @return the end.
+     */
+    long end();
+
+    /**
+     * Maps the aligned lines of this chunk into memory. The buffer is a read only view, that doesn't copy the file.
+     *
+     * @return the bytes of the lines including their line breaks.
+     * @throws java.io.UncheckedIOException if the file can not be mapped.
+     * @throws IllegalStateException        if the last line is longer than the maximum line length.
+     */
+    ByteBuffer bytes();
+
+    /**
+     * Passes each line without its line break to the consumer. The buffer is a view into the file, that is reused
+     * for the next line, so it is only valid during the call.
+     *
+     * @param consumer the consumer of the lines.
+     */
+    void forEachLineBytes(@NonNull Consumer<? super ByteBuffer> consumer);
+
+    /**
+     * Passes each line without its line break to the consumer, decoded as UTF-8. The sequence is reused for the next
+     * line, so it is only valid during the call. Call {@code toString()} to keep it.
+     *
+     * @param consumer the consumer of the lines.
+     */
+    void forEachLine(@NonNull Consumer<? super CharSequence> consumer);
+
+    /**
+     * Splits the file into chunks of {@code chunkSize} bytes, that can complete lines of up to
+     * {@link #DEFAULT_MAX_LINE_LENGTH} bytes.
+     *
+     * @param file      the file.
+     * @param chunkSize the bytes per chunk before the alignment.
+     * @return the chunks in the order of the file.
+     * @throws IOException if the size of the file can not be read.
+     */
+    static List<FileChunk> split(@NonNull Path file, int chunkSize) throws IOException {
+        return split(file, chunkSize, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * Splits the file into chunks of {@code chunkSize} bytes.
+     *
+     * @param file          the file.
+     * @param chunkSize     the bytes per chunk before the alignment.
+     * @param maxLineLength the maximum length of a line, that a chunk can complete from the next chunk.
+     * @return the chunks in the order of the file.
+     * @throws IOException if the size of the file can not be read.
+     */
+    static List<FileChunk> split(@NonNull Path file, int chunkSize, int maxLineLength) throws IOException {
+        return MappedFileChunk.split(file, chunkSize, maxLineLength);
+    }
+}
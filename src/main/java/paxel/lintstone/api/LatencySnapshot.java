@@ -0,0 +1,43 @@
+package paxel.lintstone.api;
+
+/**
+ * An immutable latency distribution. The values are precise to the resolution of the recording histogram.
+ */
+public interface LatencySnapshot {
+
+    /**
+     * Retrieve the number of recorded values.
+     *
+     * @return the count.
+     */
+    long count();
+
+    /**
+     * Retrieve the smallest recorded value.
+     *
+     * @return the minimum in nanoseconds or 0 if nothing was recorded.
+     */
+    long minNanos();
+
+    /**
+     * Retrieve the biggest recorded value.
+     *
+     * @return the maximum in nanoseconds or 0 if nothing was recorded.
+     */
+    long maxNanos();
+
+    /**
+     * Retrieve the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds or 0 if nothing was recorded.
+     */
+    double meanNanos();
+
+    /**
+     * Retrieve the value that is bigger or equal than the given percentage of the recorded values.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 99.9
+     * @return the value in nanoseconds or 0 if nothing was recorded.
+     */
+    long percentileNanos(double percentile);
+}
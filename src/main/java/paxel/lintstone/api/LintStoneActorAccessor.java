@@ -2,6 +2,7 @@ package paxel.lintstone.api;
 
 import lombok.NonNull;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -18,6 +19,61 @@ public interface LintStoneActorAccessor {
      */
     void tell(@NonNull Object message) throws UnregisteredRecipientException;
 
+    /**
+     * Sends a int to the Actor represented by this Access. A local actor queues the value without boxing it, and
+     * handles it with {@link MessageAccess#inCaseInt(LintStoneIntHandler)} or as Integer otherwise.
+     * <p>
+     * The actor reuses the context of such messages for later values. The handler may use the context in the reply
+     * handlers of its asks, but must not keep it in any other way after it returns.
+     *
+     * @param value The value to send.
+     * @throws UnregisteredRecipientException in case the actor does not exist.
+     */
+    default void tellInt(int value) throws UnregisteredRecipientException {
+        tell(value);
+    }
+
+    /**
+     * Sends a long to the Actor represented by this Access. A local actor queues the value without boxing it, and
+     * handles it with {@link MessageAccess#inCaseLong(LintStoneLongHandler)} or as Long otherwise. The context is
+     * reused like the one of {@link #tellInt(int)}.
+     *
+     * @param value The value to send.
+     * @throws UnregisteredRecipientException in case the actor does not exist.
+     */
+    default void tellLong(long value) throws UnregisteredRecipientException {
+        tell(value);
+    }
+
+    /**
+     * Sends a double to the Actor represented by this Access. A local actor queues the value without boxing it, and
+     * handles it with {@link MessageAccess#inCaseDouble(LintStoneDoubleHandler)} or as Double otherwise. The context
+     * is reused like the one of {@link #tellInt(int)}.
+     *
+     * @param value The value to send.
+     * @throws UnregisteredRecipientException in case the actor does not exist.
+     */
+    default void tellDouble(double value) throws UnregisteredRecipientException {
+        tell(value);
+    }
+
+    /**
+     * Sends a message to the Actor represented by this Access, if it exists. Otherwise, the message is given to the
+     * dead letters without the cost of an exception.
+     *
+     * @param message The message to send.
+     * @return {@code false} if the actor does not exist.
+     */
+    default boolean tryTell(@NonNull Object message) {
+        // without the dead letters of the system, the exception is the only way to detect the missing actor
+        try {
+            tell(message);
+            return true;
+        } catch (UnregisteredRecipientException e) {
+            return false;
+        }
+    }
+
     /**
      * Sends a message to the Actor represented by this Access. But blocks the call until the number of messages queued
      * is less than the given threshold. If someone else is sending messages to the actor, this call might block forever.
@@ -59,7 +115,7 @@ public interface LintStoneActorAccessor {
      *
      * @param message the Message for the actor
      * @param <F>     The type of the expected reply
-     * @return The future result. It will be completed in the context of the asked actor.
+     * @return The future result. It is completed by the asked actor directly when it replies, if asked from outside the actors.
      * @throws UnregisteredRecipientException in case the actor does not exist.
      */
     <F> @NonNull CompletableFuture<F> ask(@NonNull Object message) throws UnregisteredRecipientException;
@@ -85,6 +141,24 @@ public interface LintStoneActorAccessor {
      */
     long getProcessedReplies();
 
+    /**
+     * Retrieve the time messages and replies waited in the queue of this actor.
+     *
+     * @return the distribution or nothing, if {@link ActorSettings#latencyTracking()} is disabled.
+     */
+    default Optional<LatencySnapshot> getQueueWaitLatency() {
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieve the time this actor spent processing messages and replies.
+     *
+     * @return the distribution or nothing, if {@link ActorSettings#latencyTracking()} is disabled.
+     */
+    default Optional<LatencySnapshot> getServiceTimeLatency() {
+        return Optional.empty();
+    }
+
     /**
      * Retrieve the name of the actor.
      *
@@ -0,0 +1,22 @@
+package paxel.lintstone.api;
+
+import java.util.List;
+
+/**
+ * Handles a run of consecutive queued messages of one type at once, e.g. to insert them with one database call.
+ * See {@link MessageAccess#inCaseBatch(Class, int, LintStoneBatchHandler)}.
+ *
+ * @param <T> the type of the messages.
+ */
+@FunctionalInterface
+public interface LintStoneBatchHandler<T> {
+
+    /**
+     * Handles the messages of a batch.
+     *
+     * @param batch   the messages in the order they were queued. The list is read only and reused for the next
+     *                batch, so it is only valid during the call.
+     * @param context the context of the first message of the batch. Replies go to its sender.
+     */
+    void handle(List<T> batch, LintStoneMessageEventContext context);
+}
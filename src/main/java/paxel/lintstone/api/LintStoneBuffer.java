@@ -0,0 +1,37 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A direct {@link ByteBuffer} leased from the pool of the system by {@link LintStoneSystem#leaseBuffer(int)}.
+ * <p>
+ * The lease has exactly one owner. Telling or asking an actor with the lease transfers the ownership to that actor,
+ * so the sender must not touch the buffer afterward. The lease is returned to the pool automatically after the
+ * handler of the receiving actor completed, unless the handler sent it on or released it itself. A handler that
+ * needs the bytes later has to copy them. A lease that is not sent must be released by its owner.
+ * <p>
+ * Replying with the lease transfers it the same way. A reply handler owns the lease like a message handler, while a
+ * future that is completed with the lease passes the ownership on to the code that gets its result.
+ * <p>
+ * A lease that is rejected by a full queue or discarded on shutdown is released as well. If the recipient is not
+ * registered, the tell fails and the sender keeps the ownership.
+ */
+public interface LintStoneBuffer {
+
+    /**
+     * Retrieve the buffer. Its limit is the requested capacity, the capacity of the buffer might be larger.
+     *
+     * @return the buffer.
+     * @throws IllegalStateException if the lease was released.
+     */
+    @NonNull ByteBuffer buffer();
+
+    /**
+     * Returns the buffer to the pool. The lease must not be used afterward.
+     *
+     * @throws IllegalStateException if the lease was released already.
+     */
+    void release();
+}
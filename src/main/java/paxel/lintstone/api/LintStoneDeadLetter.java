@@ -0,0 +1,28 @@
+package paxel.lintstone.api;
+
+/**
+ * A message that could not be delivered. See {@link LintStoneSystem#setDeadLetterHandler(DeadLetterHandler, double)}.
+ */
+public interface LintStoneDeadLetter {
+
+    /**
+     * Retrieve the name of the recipient.
+     *
+     * @return the name of the actor.
+     */
+    String recipient();
+
+    /**
+     * Retrieve the undelivered message or reply.
+     *
+     * @return the message.
+     */
+    Object message();
+
+    /**
+     * Retrieve why the message was not delivered.
+     *
+     * @return the reason.
+     */
+    DeadLetterReason reason();
+}
@@ -0,0 +1,16 @@
+package paxel.lintstone.api;
+
+/**
+ * Is sent to the actor of a {@link LintStonePublisher}, when its subscribers request items after they had no demand.
+ * The actor should then {@link LintStonePublisher#offer(Object)} items while {@link LintStonePublisher#demand()}
+ * is positive.
+ */
+public interface LintStoneDemand {
+
+    /**
+     * Retrieve the publisher, that has demand.
+     *
+     * @return the publisher.
+     */
+    LintStonePublisher<?> publisher();
+}
@@ -0,0 +1,16 @@
+package paxel.lintstone.api;
+
+/**
+ * Handles double messages without boxing them. See {@link MessageAccess#inCaseDouble(LintStoneDoubleHandler)}.
+ */
+@FunctionalInterface
+public interface LintStoneDoubleHandler {
+
+    /**
+     * Handles a double message.
+     *
+     * @param value   the value.
+     * @param context the context. It is reused for the next primitive message, so it is only valid during the call.
+     */
+    void handle(double value, LintStoneMessageEventContext context);
+}
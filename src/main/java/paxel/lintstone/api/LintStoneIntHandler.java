@@ -0,0 +1,16 @@
+package paxel.lintstone.api;
+
+/**
+ * Handles int messages without boxing them. See {@link MessageAccess#inCaseInt(LintStoneIntHandler)}.
+ */
+@FunctionalInterface
+public interface LintStoneIntHandler {
+
+    /**
+     * Handles a int message.
+     *
+     * @param value   the value.
+     * @param context the context. It is reused for the next primitive message, so it is only valid during the call.
+     */
+    void handle(int value, LintStoneMessageEventContext context);
+}
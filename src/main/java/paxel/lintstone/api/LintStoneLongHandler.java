@@ -0,0 +1,16 @@
+package paxel.lintstone.api;
+
+/**
+ * Handles long messages without boxing them. See {@link MessageAccess#inCaseLong(LintStoneLongHandler)}.
+ */
+@FunctionalInterface
+public interface LintStoneLongHandler {
+
+    /**
+     * Handles a long message.
+     *
+     * @param value   the value.
+     * @param context the context. It is reused for the next primitive message, so it is only valid during the call.
+     */
+    void handle(long value, LintStoneMessageEventContext context);
+}
@@ -3,7 +3,12 @@ package paxel.lintstone.api;
 import lombok.NonNull;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the access to the message and the actor system for one message
@@ -30,6 +35,50 @@ public interface LintStoneMessageEventContext {
      */
     <T> @NonNull MessageAccess inCase(@NonNull Class<T> clazz, @NonNull LintStoneEventHandler<T> consumer);
 
+    /**
+     * Registers a handler for runs of consecutive queued messages of the given class.
+     * See {@link MessageAccess#inCaseBatch(Class, int, LintStoneBatchHandler)}.
+     *
+     * @param <T>          The type of the class.
+     * @param clazz        The class
+     * @param maxBatch     The maximum number of messages per batch.
+     * @param batchHandler The handler of the batches.
+     * @return the context itself
+     */
+    default <T> @NonNull MessageAccess inCaseBatch(@NonNull Class<T> clazz, int maxBatch, @NonNull LintStoneBatchHandler<T> batchHandler) {
+        return inCase(clazz, (message, context) -> batchHandler.handle(List.of(message), context));
+    }
+
+    /**
+     * Registers a handler for int messages. See {@link MessageAccess#inCaseInt(LintStoneIntHandler)}.
+     *
+     * @param handler The handler.
+     * @return the context itself
+     */
+    default @NonNull MessageAccess inCaseInt(@NonNull LintStoneIntHandler handler) {
+        return inCase(Integer.class, (value, context) -> handler.handle(value, context));
+    }
+
+    /**
+     * Registers a handler for long messages. See {@link MessageAccess#inCaseLong(LintStoneLongHandler)}.
+     *
+     * @param handler The handler.
+     * @return the context itself
+     */
+    default @NonNull MessageAccess inCaseLong(@NonNull LintStoneLongHandler handler) {
+        return inCase(Long.class, (value, context) -> handler.handle(value, context));
+    }
+
+    /**
+     * Registers a handler for double messages. See {@link MessageAccess#inCaseDouble(LintStoneDoubleHandler)}.
+     *
+     * @param handler The handler.
+     * @return the context itself
+     */
+    default @NonNull MessageAccess inCaseDouble(@NonNull LintStoneDoubleHandler handler) {
+        return inCase(Double.class, (value, context) -> handler.handle(value, context));
+    }
+
     /**
      * Is executed if no
      * {@link #inCase(java.lang.Class, paxel.lintstone.api.LintStoneEventHandler) }
@@ -61,6 +110,24 @@ public interface LintStoneMessageEventContext {
      */
     void tell(@NonNull String name, @NonNull Object msg) throws UnregisteredRecipientException;
 
+    /**
+     * Sends the message to the actor with the registered name, if it exists. Otherwise, the message is given to the
+     * dead letters without the cost of an exception.
+     *
+     * @param name the name of the actor.
+     * @param msg  The message to send.
+     * @return {@code false} if there is no actor with that name.
+     */
+    default boolean tryTell(@NonNull String name, @NonNull Object msg) {
+        // without the dead letters of the system, the exception is the only way to detect the missing actor
+        try {
+            tell(name, msg);
+            return true;
+        } catch (UnregisteredRecipientException e) {
+            return false;
+        }
+    }
+
     /**
      * Sends the message to the actor with the registered name.
      *
@@ -98,6 +165,78 @@ public interface LintStoneMessageEventContext {
      */
     <F> @NonNull CompletableFuture<F> ask(@NonNull String name, @NonNull Object msg) throws UnregisteredRecipientException;
 
+    /**
+     * Sends the message to all actors with the given names at once and gathers their first replies, in the order of
+     * the names. The replies are processed in the context of this actor, which completes the future when all actors
+     * replied. Names without a registered actor are recorded as dead letters and have no reply. The default
+     * implementation combines the single asks of {@link #ask(String, Object)}.
+     *
+     * @param names the names of the actors.
+     * @param msg   The message to send.
+     * @param <F>   the type of the replies.
+     * @return the future replies.
+     */
+    default <F> @NonNull CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<String> names, @NonNull Object msg) {
+        return gather(names, msg, null);
+    }
+
+    /**
+     * Like {@link #askAll(Collection, Object)}, but completes the future in the context of this actor with the replies
+     * received until the deadline, if not all actors replied in time. Later replies are dropped. The deadline of the
+     * default implementation completes the future outside of this actor.
+     *
+     * @param names   the names of the actors.
+     * @param msg     The message to send.
+     * @param timeout the time to wait for the replies.
+     * @param <F>     the type of the replies.
+     * @return the future replies, that might be partial.
+     */
+    default <F> @NonNull CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<String> names, @NonNull Object msg, @NonNull Duration timeout) {
+        if (!timeout.isPositive()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        return gather(names, msg, timeout);
+    }
+
+    private <F> @NonNull CompletableFuture<LintStoneReplies<F>> gather(@NonNull Collection<String> names, @NonNull Object msg, Duration timeout) {
+        List<CompletableFuture<F>> asks = new ArrayList<>(names.size());
+        for (String name : names) {
+            CompletableFuture<F> ask;
+            try {
+                ask = this.<F>ask(name, msg).exceptionally(e -> null);
+            } catch (UnregisteredRecipientException e) {
+                ask = CompletableFuture.completedFuture(null);
+            }
+            asks.add(timeout == null ? ask : ask.completeOnTimeout(null, timeout.toNanos(), TimeUnit.NANOSECONDS));
+        }
+        return CompletableFuture.allOf(asks.toArray(CompletableFuture<?>[]::new)).thenApply(done -> {
+            // the missing replies are null
+            List<F> replies = asks.stream().map(CompletableFuture::join).toList();
+            List<F> received = replies.stream().filter(Objects::nonNull).toList();
+            return new LintStoneReplies<>() {
+                @Override
+                public int size() {
+                    return replies.size();
+                }
+
+                @Override
+                public int received() {
+                    return received.size();
+                }
+
+                @Override
+                public F get(int index) {
+                    return replies.get(index);
+                }
+
+                @Override
+                public @NonNull List<F> toList() {
+                    return received;
+                }
+            };
+        });
+    }
+
     /**
      * Retrieve the actor with given name. This method will always return an
      * object. Use the provided object to check if the actor exists by calling {@link  LintStoneActorAccessor#exists()
@@ -0,0 +1,23 @@
+package paxel.lintstone.api;
+
+/**
+ * An actor that keeps its state while being passivated. See {@link ActorSettings#passivationTimeout()}.
+ */
+public interface LintStonePassivatableActor extends LintStoneActor {
+
+    /**
+     * This method is called in the thread context of the actor, before the instance is released.
+     * No message will be processed by this instance afterwards.
+     *
+     * @return The state of the actor or {@code null} if there is nothing to keep.
+     */
+    Object snapshot();
+
+    /**
+     * This method is called on a new instance with the last non-null snapshot, before
+     * {@link #newMessageEvent(LintStoneMessageEventContext)} is called.
+     *
+     * @param snapshot The state of the previous instance.
+     */
+    void restore(Object snapshot);
+}
@@ -0,0 +1,98 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Describes a stream of items, that flows through actors from a source to a sink. Created by
+ * {@link LintStoneSystem#from(String, Iterable)} and started by {@link #to(Consumer)}.
+ * <p>
+ * The stages {@link #mapAsync(int, Function)}, {@link #groupBy(Function)} and the sink run in their own actors.
+ * A stage only sends items, that the next stage has granted credits for, so each buffer between the stages is
+ * bounded and no thread is blocked. The cheap stages {@link #map(Function)}, {@link #filter(Predicate)} and
+ * {@link #flatMap(Function)} are fused into the actor of the stage before them. The sink is fused as well, if that
+ * stage runs in one actor. The end of the source is passed on from stage to stage and completes the future.
+ *
+ * @param <T> the type of the items.
+ */
+public interface LintStonePipeline<T> {
+
+    /**
+     * Converts each item, fused into the previous stage.
+     *
+     * @param mapper the conversion.
+     * @param <R>    the type of the converted items.
+     * @return the pipeline of the converted items.
+     */
+    <R> LintStonePipeline<R> map(@NonNull Function<? super T, ? extends R> mapper);
+
+    /**
+     * Drops the items, that don't match, fused into the previous stage.
+     *
+     * @param filter the filter.
+     * @return this pipeline.
+     */
+    LintStonePipeline<T> filter(@NonNull Predicate<? super T> filter);
+
+    /**
+     * Replaces each item with any number of items, fused into the previous stage.
+     *
+     * @param mapper the conversion.
+     * @param <R>    the type of the converted items.
+     * @return the pipeline of the converted items.
+     */
+    <R> LintStonePipeline<R> flatMap(@NonNull Function<? super T, ? extends Iterable<? extends R>> mapper);
+
+    /**
+     * Converts the items in {@code parallelism} actors. The order of the items is not kept.
+     *
+     * @param parallelism the number of actors.
+     * @param mapper      the conversion. It is called concurrently for different items.
+     * @param <R>         the type of the converted items.
+     * @return the pipeline of the converted items.
+     */
+    <R> LintStonePipeline<R> mapAsync(int parallelism, @NonNull Function<? super T, ? extends R> mapper);
+
+    /**
+     * Groups the items by a key, for a following reduction.
+     *
+     * @param key the key of an item.
+     * @param <K> the type of the key.
+     * @return the grouped items.
+     */
+    <K> Grouped<K, T> groupBy(@NonNull Function<? super T, ? extends K> key);
+
+    /**
+     * Starts the pipeline, that passes each item to the sink. The sink is called by one actor at a time.
+     *
+     * @param sink the sink.
+     * @return the future, that completes after the last item was passed to the sink, or completes exceptionally
+     * with the first error of any stage, which stops the pipeline.
+     */
+    CompletableFuture<Void> to(@NonNull Consumer<? super T> sink);
+
+    /**
+     * Items grouped by a key.
+     *
+     * @param <K> the type of the key.
+     * @param <T> the type of the items.
+     */
+    interface Grouped<K, T> {
+
+        /**
+         * Reduces the items of each group in one actor. The results are emitted after the end of the source.
+         *
+         * @param identity    the initial result of each group.
+         * @param accumulator adds an item to the result of its group.
+         * @param <R>         the type of the result.
+         * @return the pipeline of the results by key.
+         */
+        <R> LintStonePipeline<Map.Entry<K, R>> reduce(R identity, @NonNull BiFunction<R, ? super T, R> accumulator);
+    }
+}
@@ -0,0 +1,44 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Lets an actor publish items to {@link Flow.Subscriber}s, only as fast as they request them. The actor is told
+ * a {@link LintStoneDemand} when the subscribers request more items, so it never has to wait or buffer.
+ * All items go to all subscribers. The methods except {@link #subscribe(Flow.Subscriber)} must be called by the
+ * actor only, so the subscribers are signaled serially.
+ *
+ * @param <T> the type of the items.
+ */
+public interface LintStonePublisher<T> extends Flow.Publisher<T> {
+
+    /**
+     * Retrieve the number of items, that can be offered now.
+     *
+     * @return the smallest demand of all subscribers, or 0 if there are none.
+     */
+    long demand();
+
+    /**
+     * Sends the item to all subscribers, if all of them have demand.
+     *
+     * @param item the item.
+     * @return {@code false} if the item was not sent, because a subscriber has no demand or there are no subscribers.
+     * @throws IllegalStateException if the publisher is completed.
+     */
+    boolean offer(@NonNull T item);
+
+    /**
+     * Completes the stream of all current subscribers. Later subscribers are completed immediately.
+     */
+    void complete();
+
+    /**
+     * Ends the stream of all current subscribers with the error. Later subscribers receive the error immediately.
+     *
+     * @param error the error.
+     */
+    void fail(@NonNull Throwable error);
+}
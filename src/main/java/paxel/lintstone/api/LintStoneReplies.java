@@ -0,0 +1,53 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * The replies gathered by a scatter-gather ask, in the order of the asked actors. An actor that was not registered,
+ * didn't reply before the deadline or failed to process the message has no reply. Only the first reply of each actor
+ * is kept.
+ *
+ * @param <F> the type of the replies.
+ */
+public interface LintStoneReplies<F> {
+
+    /**
+     * Retrieve the number of asked actors.
+     *
+     * @return the size.
+     */
+    int size();
+
+    /**
+     * Retrieve the number of actors that replied.
+     *
+     * @return the number of replies.
+     */
+    int received();
+
+    /**
+     * Retrieve if all asked actors replied.
+     *
+     * @return {@code true} if the replies are complete.
+     */
+    default boolean isComplete() {
+        return received() == size();
+    }
+
+    /**
+     * Retrieve the reply of an actor.
+     *
+     * @param index the index of the actor in the asked collection.
+     * @return the reply or null, if the actor did not reply.
+     */
+    F get(int index);
+
+    /**
+     * Retrieve the received replies.
+     *
+     * @return the replies in the order of the asked actors, without the missing ones.
+     */
+    @NonNull List<F> toList();
+}
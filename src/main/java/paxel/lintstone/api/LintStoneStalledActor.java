@@ -0,0 +1,45 @@
+package paxel.lintstone.api;
+
+import java.time.Duration;
+
+/**
+ * An actor that is processing the same message for longer than the watchdog threshold.
+ * See {@link LintStoneSystem#startWatchdog(Duration, Duration, StallHandler)}.
+ */
+public interface LintStoneStalledActor {
+
+    /**
+     * Retrieve the name of the stalled actor.
+     *
+     * @return the name.
+     */
+    String actorName();
+
+    /**
+     * Retrieve the class of the message or reply being processed.
+     *
+     * @return the message class, or null if it was not observable.
+     */
+    Class<?> messageClass();
+
+    /**
+     * Retrieve the minimal time the message is processed already. The precision is the watchdog interval.
+     *
+     * @return the stalled time.
+     */
+    Duration stalledFor();
+
+    /**
+     * Retrieve the stack of the thread processing the message at the time of the detection.
+     *
+     * @return the stack trace.
+     */
+    StackTraceElement[] stackTrace();
+
+    /**
+     * Retrieve the number of queued messages and replies behind the stalled one.
+     *
+     * @return the queue depth.
+     */
+    int queued();
+}
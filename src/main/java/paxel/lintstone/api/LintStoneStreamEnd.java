@@ -0,0 +1,17 @@
+package paxel.lintstone.api;
+
+import java.util.Optional;
+
+/**
+ * Is sent to an actor after the last item of a stream, e.g. by the subscriber of
+ * {@link LintStoneSystem#subscriber(String, int)}.
+ */
+public interface LintStoneStreamEnd {
+
+    /**
+     * Retrieve why the stream ended early.
+     *
+     * @return the error or nothing, if the stream completed.
+     */
+    Optional<Throwable> error();
+}
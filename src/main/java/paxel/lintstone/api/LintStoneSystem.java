@@ -3,7 +3,16 @@ package paxel.lintstone.api;
 import lombok.NonNull;
 import paxel.lintstone.impl.ActorSettingsBuilder;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
 
 /**
  * The LintStone Actor system.
@@ -12,7 +21,8 @@ public interface LintStoneSystem {
 
 
     /**
-     * This generates and registers an Actor according to the given {@link ActorSettings}.
+     * This generates and registers an Actor according to the given {@link ActorSettings}. Concurrent registrations of
+     * the same name wait for the one that builds the actor, so the factory runs and the init message is sent only once.
      *
      * @param name        The name of the actor. The name must be unique in the system.
      * @param factory     The factory to create the actor if not already exists.
@@ -32,6 +42,43 @@ public interface LintStoneSystem {
      */
     LintStoneActorAccessor registerActor(@NonNull String name, @NonNull LintStoneActorFactory factory, @NonNull ActorSettings settings);
 
+    /**
+     * This generates and registers {@code count} Actors named {@code namePrefix + index}, with index from 0 to count - 1.
+     * The missing names are reserved first, then the actors are created in parallel. Each name becomes visible to
+     * other threads as soon as its actor is created, so they might see a part of the actors before this call returns.
+     * Until then, registrations of a reserved name wait for its actor. If a name is already registered, the existing
+     * actor wins, as with {@link #registerActor(String, LintStoneActorFactory, ActorSettings)}.
+     *
+     * @param namePrefix The prefix of the actor names.
+     * @param count      The number of actors.
+     * @param factory    The factory to create each actor. It is called concurrently.
+     * @param settings   The actor settings used for all actors.
+     * @return The {@link LintStoneActorAccessor} objects, ordered by index.
+     */
+    List<LintStoneActorAccessor> registerActors(@NonNull String namePrefix, int count, @NonNull LintStoneActorFactory factory, @NonNull ActorSettings settings);
+
+    /**
+     * This registers a family of actors, that are created on demand. The first message to an unregistered name
+     * {@code prefix + id} registers the actor created by the factory for the id. Concurrent first messages wait for
+     * the one that builds the actor, so the id is mapped and the factory is called only once. If the families overlap, the one with the longest prefix is used. A stopped system doesn't
+     * create members anymore.
+     * The members are normal actors. If a member is unregistered, the next message creates a new one.
+     * {@link LintStoneActorAccessor#exists()} is only true for members that were already created.
+     *
+     * @param prefix      The name prefix of the family members.
+     * @param idToFactory Provides the factory for the id of a member. If it returns null, the member does not exist.
+     * @param settings    The actor settings of the members.
+     */
+    void registerFamily(@NonNull String prefix, @NonNull Function<String, LintStoneActorFactory> idToFactory, @NonNull ActorSettings settings);
+
+    /**
+     * This removes the family with the given prefix. Already created members stay registered.
+     *
+     * @param prefix The prefix of the family.
+     * @return {@code true} if the family existed and was removed.
+     */
+    boolean unregisterFamily(@NonNull String prefix);
+
     /**
      * This retrieves an{@link LintStoneActorAccessor} for the given name.
      *
@@ -40,6 +87,235 @@ public interface LintStoneSystem {
      */
     LintStoneActorAccessor getActor(@NonNull String name);
 
+    /**
+     * Sends the message to all actors at once and gathers their first replies, in the order of the actors. If the
+     * accessors were retrieved from the context of an actor, the replies are processed in the context of that actor,
+     * which completes the future. Otherwise, the asked actors process them. Unregistered actors have no reply.
+     *
+     * @param actors  the actors.
+     * @param message the message.
+     * @param <F>     the type of the replies.
+     * @return the future replies.
+     */
+    <F> CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<? extends LintStoneActorAccessor> actors, @NonNull Object message);
+
+    /**
+     * Like {@link #askAll(Collection, Object)}, but completes the future with the replies received until the
+     * deadline, if not all actors replied in time. Later replies are dropped.
+     *
+     * @param actors  the actors.
+     * @param message the message.
+     * @param timeout the time to wait for the replies.
+     * @param <F>     the type of the replies.
+     * @return the future replies, that might be partial.
+     */
+    <F> CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<? extends LintStoneActorAccessor> actors, @NonNull Object message, @NonNull Duration timeout);
+
+    /**
+     * Creates a {@link Flow.Subscriber}, that tells the items of one stream to the actor. It requests at most
+     * {@code capacity} items, that the actor has not processed yet, so the mailbox stays bounded without blocking.
+     * The end of the stream is told as {@link LintStoneStreamEnd}. If the actor doesn't accept an item, the
+     * subscription is cancelled. The capacity should therefore be lower than the queue limit of the actor.
+     *
+     * @param actorName The name of the actor.
+     * @param capacity  The maximum number of unprocessed items.
+     * @param <T>       The type of the items.
+     * @return the subscriber.
+     */
+    <T> Flow.Subscriber<T> subscriber(@NonNull String actorName, int capacity);
+
+    /**
+     * Creates a {@link LintStonePublisher} for the actor, which is told a {@link LintStoneDemand}, whenever its
+     * subscribers request items after they had no demand.
+     *
+     * @param actorName The name of the actor, that publishes the items.
+     * @param <T>       The type of the items.
+     * @return the publisher.
+     */
+    <T> LintStonePublisher<T> publisher(@NonNull String actorName);
+
+    /**
+     * Creates a pipeline, that streams the items of the source through actors. Its stages exchange at most 64 items
+     * without credit. See {@link #from(String, Iterable, int)}.
+     *
+     * @param name   The name prefix of the actors of the pipeline.
+     * @param source The source. It is iterated by one actor.
+     * @param <T>    The type of the items.
+     * @return the pipeline, that is started by {@link LintStonePipeline#to(java.util.function.Consumer)}.
+     */
+    <T> LintStonePipeline<T> from(@NonNull String name, @NonNull Iterable<? extends T> source);
+
+    /**
+     * Creates a pipeline, that streams the items of the source through actors. The actors are named
+     * {@code name.stage.instance} and are unregistered when the pipeline ends.
+     *
+     * @param name   The name prefix of the actors of the pipeline.
+     * @param source The source. It is iterated by one actor.
+     * @param buffer The number of items an actor may send to an actor of the next stage without credit.
+     * @param <T>    The type of the items.
+     * @return the pipeline, that is started by {@link LintStonePipeline#to(java.util.function.Consumer)}.
+     */
+    <T> LintStonePipeline<T> from(@NonNull String name, @NonNull Iterable<? extends T> source, int buffer);
+
+    /**
+     * Runs a map-reduce job on actors. The inputs are distributed to the mappers on demand, the mapped values are
+     * combined by the mappers, reduced by partition and merged in a tree, see {@link MapReduceJob}. The actors are
+     * named {@code name.stage.instance} and are unregistered when the job ends.
+     *
+     * @param name  The name prefix of the actors of the job.
+     * @param input The inputs. They are iterated by one actor.
+     * @param job   The job.
+     * @param <I>   The type of the inputs.
+     * @param <K>   The type of the keys.
+     * @param <V>   The type of the values.
+     * @return the future of the values by key, that completes exceptionally with the first error of the job.
+     */
+    <I, K, V> CompletableFuture<Map<K, V>> mapReduce(@NonNull String name, @NonNull Iterable<? extends I> input, @NonNull MapReduceJob<I, K, V> job);
+
+    /**
+     * Collects the statistics of all registered actors. The collection does not block registrations or messages,
+     * so the values of the actors are each consistent, but not taken at exactly the same time.
+     *
+     * @return the snapshot.
+     */
+    SystemSnapshot snapshot();
+
+    /**
+     * Adds an interceptor for the messages of all actors, including the ones registered later.
+     * The system interceptors are called in the order they were added, before the interceptors of the actor.
+     *
+     * @param interceptor The interceptor.
+     */
+    void addInterceptor(@NonNull MessageInterceptor interceptor);
+
+    /**
+     * Removes an interceptor added by {@link #addInterceptor(MessageInterceptor)}.
+     *
+     * @param interceptor The interceptor.
+     * @return {@code true} if the interceptor was removed.
+     */
+    boolean removeInterceptor(@NonNull MessageInterceptor interceptor);
+
+    /**
+     * Sets the handler for messages that could not be delivered. See {@link DeadLetterReason} for the cases.
+     * The dead letters are always counted. The handler only receives a random sample of them.
+     *
+     * @param handler      The handler or null to only count the dead letters.
+     * @param samplingRate The fraction of dead letters given to the handler, between 0 and 1.
+     */
+    void setDeadLetterHandler(DeadLetterHandler handler, double samplingRate);
+
+    /**
+     * Retrieve the number of dead letters for the reason.
+     *
+     * @param reason The reason.
+     * @return the number of undelivered messages.
+     */
+    long getDeadLetters(@NonNull DeadLetterReason reason);
+
+    /**
+     * Leases a direct buffer from the pool of this system. The pool keeps buffers in power of two size classes from
+     * 1 KiB to 4 MiB, larger leases are allocated and left to the GC on release. See {@link LintStoneBuffer} for the
+     * ownership rules.
+     *
+     * @param capacity The number of bytes needed.
+     * @return the lease.
+     */
+    LintStoneBuffer leaseBuffer(int capacity);
+
+    /**
+     * Enables the leak detection of the leased buffers. Each following lease records its stack trace and is tracked
+     * until it is released, which costs time and memory, so it should only be enabled for debugging.
+     *
+     * @param handler The handler of the leaked leases or null to disable the detection for the following leases.
+     */
+    void setBufferLeakHandler(BufferLeakHandler handler);
+
+    /**
+     * Retrieve the codecs of this system, that convert messages to bytes for persistence and transport.
+     *
+     * @return the codec registry.
+     */
+    CodecRegistry getCodecRegistry();
+
+    /**
+     * Opens a TCP endpoint, so that other systems can send messages to the actors of this system. They address the
+     * actors by {@code systemName@host:port/actorName}. The messages and replies are converted by the
+     * {@link #getCodecRegistry()} of the receiving system, which only decodes the types it knows. The endpoint is
+     * closed when the system shuts down.
+     *
+     * @param systemName The name of this system, that the remote addresses must contain.
+     * @param address    The local address. Use port 0 to choose a free port.
+     * @return the bound address.
+     * @throws IOException           if the address can not be bound.
+     * @throws IllegalStateException if the system is already bound.
+     */
+    InetSocketAddress bind(@NonNull String systemName, @NonNull InetSocketAddress address) throws IOException;
+
+    /**
+     * Creates a shared memory file, so that one system in another process on this host can send messages to the
+     * actors of this system without the syscalls and copies of TCP. It addresses the actors by
+     * {@code systemName@shm[file]/actorName}. The file contains a ring buffer per direction. The link ends when
+     * either side shuts down and the file is deleted.
+     *
+     * @param systemName   The name of this system, that the remote addresses must contain.
+     * @param file         The file, preferably in a memory file system like /dev/shm. An existing link file, e.g. of
+     *                     a crashed system, is replaced.
+     * @param ringSize     The bytes of each ring, a power of 2 of at least 4096. A message must fit into a ring.
+     * @param waitStrategy How both sides wait for messages and for space in a full ring.
+     * @throws IOException           if the file can not be created or exists and is not a link file.
+     * @throws IllegalStateException if the system is already bound with another name.
+     */
+    void bindSharedMemory(@NonNull String systemName, @NonNull Path file, int ringSize, @NonNull WaitStrategy waitStrategy) throws IOException;
+
+    /**
+     * This retrieves an {@link LintStoneActorAccessor} for an actor in another system, that was bound by
+     * {@link #bind(String, InetSocketAddress)} or {@link #bindSharedMemory(String, Path, int, WaitStrategy)}.
+     * All actors of a remote system share one link, which is opened by the first message and keeps the order of the
+     * messages. The accessor supports tells, tells with back pressure and both asks. The future of
+     * {@link LintStoneActorAccessor#ask(Object)} and the {@link ReplyHandler} of
+     * {@link LintStoneActorAccessor#ask(Object, ReplyHandler)} are completed in the transport thread, where the reply
+     * context has no sender to reply to. Primitive tells are boxed. A failed ask doesn't call the reply handler. The
+     * statistics of the remote actor are not available.
+     *
+     * @param address The address {@code system@host:port/name} or {@code system@shm[file]/name} of the actor.
+     * @return The {@link LintStoneActorAccessor} object
+     * @throws IllegalArgumentException if the address is malformed.
+     */
+    LintStoneActorAccessor getRemoteActor(@NonNull String address);
+
+    /**
+     * Starts a watchdog that detects actors processing one message for longer than the threshold, e.g. because they
+     * block on a future. It samples all actors in its own daemon thread every interval, so it costs nothing per
+     * message, and reports every stalled message once with the stack of the processing thread.
+     *
+     * @param threshold The processing time of a message that is reported.
+     * @param interval  The sampling interval. It is the precision of the detection.
+     * @param handler   The handler of the stalled actors. It is called in the watchdog thread.
+     */
+    void startWatchdog(@NonNull Duration threshold, @NonNull Duration interval, @NonNull StallHandler handler);
+
+    /**
+     * Stops the watchdog started by {@link #startWatchdog(Duration, Duration, StallHandler)}.
+     */
+    void stopWatchdog();
+
+    /**
+     * Registers the MBeans of this system at the platform MBean server. The system bean
+     * {@code paxel.lintstone:type=LintStoneSystem,name=<systemName>} provides the totals and a table of all actors,
+     * that is only collected when it is read. Additionally, the first {@code actorBeanLimit} actors get their own bean
+     * {@code paxel.lintstone:type=Actor,system=<systemName>,name=<actorName>}. Use a small limit for systems with many actors.
+     *
+     * @param systemName     The name of the system in the JMX object names.
+     * @param actorBeanLimit The maximum number of actor beans. 0 registers only the system bean.
+     */
+    void registerMBeans(@NonNull String systemName, int actorBeanLimit);
+
+    /**
+     * Removes all MBeans registered by {@link #registerMBeans(String, int)}.
+     */
+    void unregisterMBeans();
+
     /**
      * This will stop the executor in the system after all messages are
      * processed. The method returns immediately. That does not mean, that all
@@ -86,4 +362,12 @@ public interface LintStoneSystem {
      * @return {@code true} if the actor existed and was removed.
      */
     boolean unregisterActor(@NonNull String name);
+
+    /**
+     * This will remove all actors whose name starts with the given prefix, as {@link #unregisterActor(String)} would.
+     *
+     * @param prefix The prefix of the actors to be removed.
+     * @return the number of removed actors.
+     */
+    int unregisterActorsByPrefix(@NonNull String prefix);
 }
@@ -0,0 +1,106 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+import paxel.lintstone.impl.MapReduceJobBuilder;
+
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Describes a map-reduce job for {@link LintStoneSystem#mapReduce(String, Iterable, MapReduceJob)}.
+ * <p>
+ * The mapper actors combine the values they emit per key, and send the combined values of the keys of each
+ * reducer to it in one message, whenever they hold {@link #flushThreshold()} keys and after their last input.
+ * The reducer of a key is chosen by its hash. The results of the reducers are merged in a tree of actors, in which
+ * each actor merges the results of {@link #mergeFanIn()} actors of the level below.
+ *
+ * @param <I> the type of the inputs.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public interface MapReduceJob<I, K, V> {
+
+    /**
+     * The mapper, that emits any number of key value pairs per input. It is called concurrently for different inputs.
+     *
+     * @return the mapper.
+     */
+    Mapper<I, K, V> mapper();
+
+    /**
+     * The combination of two values of the same key. It must be associative and commutative and is used by the
+     * mappers, the reducers and the merge tree.
+     *
+     * @return the combiner.
+     */
+    BinaryOperator<V> combiner();
+
+    /**
+     * The number of mapper actors.
+     *
+     * @return the mappers.
+     */
+    default int mappers() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The number of reducer actors.
+     *
+     * @return the reducers.
+     */
+    default int reducers() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The number of keys a mapper combines before it sends them to the reducers.
+     *
+     * @return the flush threshold.
+     */
+    default int flushThreshold() {
+        return 4096;
+    }
+
+    /**
+     * The number of results each actor of the merge tree merges.
+     *
+     * @return the fan in.
+     */
+    default int mergeFanIn() {
+        return 4;
+    }
+
+    /**
+     * Create a builder for a job.
+     *
+     * @param mapper   the mapper.
+     * @param combiner the combination of two values of the same key.
+     * @param <I>      the type of the inputs.
+     * @param <K>      the type of the keys.
+     * @param <V>      the type of the values.
+     * @return a builder.
+     */
+    static <I, K, V> MapReduceJobBuilder<I, K, V> create(@NonNull Mapper<I, K, V> mapper, @NonNull BinaryOperator<V> combiner) {
+        return new MapReduceJobBuilder<>(mapper, combiner);
+    }
+
+    /**
+     * Maps an input to key value pairs.
+     *
+     * @param <I> the type of the inputs.
+     * @param <K> the type of the keys.
+     * @param <V> the type of the values.
+     */
+    @FunctionalInterface
+    interface Mapper<I, K, V> {
+
+        /**
+         * Emits the key value pairs of the input. The values must not be null.
+         *
+         * @param input   the input.
+         * @param emitter receives the key value pairs.
+         */
+        void map(I input, @NonNull BiConsumer<K, V> emitter);
+    }
+}
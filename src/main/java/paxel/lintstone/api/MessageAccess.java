@@ -2,6 +2,8 @@ package paxel.lintstone.api;
 
 import lombok.NonNull;
 
+import java.util.List;
+
 /**
  * This interface provides access to the message or the reply.
  */
@@ -17,6 +19,60 @@ public interface MessageAccess {
      */
     <T> @NonNull MessageAccess inCase(@NonNull Class<T> clazz, @NonNull LintStoneEventHandler<T> lintStoneEventHandler);
 
+    /**
+     * If the given class is assignable from the message class, then the batch handler will be called with the message
+     * and the directly following queued messages, that would be handled by this batch handler as well, up to
+     * {@code maxBatch} messages. The messages are not waited for, so under low load the batches are small.
+     * A message that was asked for starts a new batch and is handled alone, so its reply goes to the right sender.
+     * The interceptors are called for each message of the batch.
+     *
+     * @param clazz        The class
+     * @param maxBatch     The maximum number of messages per batch.
+     * @param batchHandler The handler
+     * @param <T>          The type.
+     * @return A Monad.
+     */
+    default <T> @NonNull MessageAccess inCaseBatch(@NonNull Class<T> clazz, int maxBatch, @NonNull LintStoneBatchHandler<T> batchHandler) {
+        // without a queue to drain, each message is a batch of one
+        return inCase(clazz, (message, context) -> batchHandler.handle(List.of(message), context));
+    }
+
+    /**
+     * If the message is a Integer, then the handler will be called with the int value. Values sent with
+     * {@link LintStoneActorAccessor#tellInt(int)} reach the handler without being boxed. Their context is only valid
+     * while the handler runs and in the reply handlers of its asks.
+     *
+     * @param handler The handler
+     * @return A Monad.
+     */
+    default @NonNull MessageAccess inCaseInt(@NonNull LintStoneIntHandler handler) {
+        return inCase(Integer.class, (value, context) -> handler.handle(value, context));
+    }
+
+    /**
+     * If the message is a Long, then the handler will be called with the long value. Values sent with
+     * {@link LintStoneActorAccessor#tellLong(long)} reach the handler without being boxed. Their context is only valid
+     * while the handler runs and in the reply handlers of its asks.
+     *
+     * @param handler The handler
+     * @return A Monad.
+     */
+    default @NonNull MessageAccess inCaseLong(@NonNull LintStoneLongHandler handler) {
+        return inCase(Long.class, (value, context) -> handler.handle(value, context));
+    }
+
+    /**
+     * If the message is a Double, then the handler will be called with the double value. Values sent with
+     * {@link LintStoneActorAccessor#tellDouble(double)} reach the handler without being boxed. Their context is only
+     * valid while the handler runs and in the reply handlers of its asks.
+     *
+     * @param handler The handler
+     * @return A Monad.
+     */
+    default @NonNull MessageAccess inCaseDouble(@NonNull LintStoneDoubleHandler handler) {
+        return inCase(Double.class, (value, context) -> handler.handle(value, context));
+    }
+
     /**
      * This will execute the catchAll only if no match happened before. This only works if the calls are chained.
      *
@@ -0,0 +1,32 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts messages of one type to bytes and back. Register custom codecs at the {@link CodecRegistry} of the
+ * system to replace the default binary codec for a type. Implementations must be thread safe.
+ *
+ * @param <T> the type of the messages.
+ */
+public interface MessageCodec<T> {
+
+    /**
+     * Writes the message at the position of the buffer and advances the position.
+     *
+     * @param message the message.
+     * @param target  the buffer.
+     * @throws java.nio.BufferOverflowException if the buffer is too small.
+     */
+    void encode(@NonNull T message, @NonNull ByteBuffer target);
+
+    /**
+     * Reads a message at the position of the buffer and advances the position.
+     *
+     * @param source the buffer.
+     * @return the message.
+     * @throws java.nio.BufferUnderflowException if the buffer does not contain the complete message.
+     */
+    @NonNull T decode(@NonNull ByteBuffer source);
+}
@@ -0,0 +1,52 @@
+package paxel.lintstone.api;
+
+/**
+ * Hooks around the sending and processing of messages, e.g. for sampling, tracing or metrics.
+ * Interceptors are registered for the whole system with {@link LintStoneSystem#addInterceptor(MessageInterceptor)}
+ * or for an actor with {@link paxel.lintstone.impl.ActorSettingsBuilder#addInterceptor(MessageInterceptor)}.
+ * The system interceptors are called before the actor interceptors.
+ * <p>
+ * Only messages are intercepted. The reply handlers of asks are not. The methods are called concurrently for different
+ * actors, so the implementations must be thread safe.
+ */
+public interface MessageInterceptor {
+
+    /**
+     * Called in the thread of the sender, before the message is queued.
+     * An exception rejects the message and is thrown to the sender.
+     *
+     * @param actor   The name of the recipient.
+     * @param message The message.
+     */
+    default void onSend(String actor, Object message) {
+    }
+
+    /**
+     * Called by the recipient before the message is processed.
+     * An exception is handled like an exception of the actor.
+     *
+     * @param actor   The name of the recipient.
+     * @param message The message.
+     */
+    default void beforeProcess(String actor, Object message) {
+    }
+
+    /**
+     * Called by the recipient after the message was processed successfully.
+     *
+     * @param actor   The name of the recipient.
+     * @param message The message.
+     */
+    default void afterProcess(String actor, Object message) {
+    }
+
+    /**
+     * Called by the recipient if the processing failed, before the {@link ErrorHandler} is called.
+     *
+     * @param actor   The name of the recipient.
+     * @param message The message.
+     * @param error   The exception.
+     */
+    default void onError(String actor, Object message, Exception error) {
+    }
+}
@@ -15,6 +15,15 @@ public interface Scheduler {
      */
     void runLater(Runnable runnable, Duration duration);
 
+    /**
+     * Retrieve the number of runnables waiting for their execution. This is meant for monitoring and might be expensive.
+     *
+     * @return the number of waiting runnables.
+     */
+    default int backlog() {
+        return 0;
+    }
+
     /**
      * Stops the scheduler. Currently running runnables are finished, but no other Runnables will be executed.
      */
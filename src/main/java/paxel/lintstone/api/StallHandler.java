@@ -0,0 +1,17 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+
+/**
+ * Receives the stalled actors detected by the watchdog. It is called once per stalled message, in the scheduler thread.
+ */
+@FunctionalInterface
+public interface StallHandler {
+
+    /**
+     * Handles a stalled actor.
+     *
+     * @param stall the stalled actor.
+     */
+    void stalled(@NonNull LintStoneStalledActor stall);
+}
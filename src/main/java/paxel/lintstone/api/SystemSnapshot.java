@@ -0,0 +1,60 @@
+package paxel.lintstone.api;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The statistics of all actors of a {@link LintStoneSystem} at the time of the {@link LintStoneSystem#snapshot()}.
+ */
+public interface SystemSnapshot {
+
+    /**
+     * Retrieve the time the collection started.
+     *
+     * @return the time of the snapshot.
+     */
+    Instant timestamp();
+
+    /**
+     * Retrieve the statistics of all registered actors.
+     *
+     * @return the actor statistics.
+     */
+    List<ActorSnapshot> actors();
+
+    /**
+     * Retrieve the sum of the queued messages and replies of all registered actors.
+     *
+     * @return the queued messages and replies.
+     */
+    long queued();
+
+    /**
+     * Retrieve the sum of the processed messages of all registered actors.
+     *
+     * @return the processed messages.
+     */
+    long processedMessages();
+
+    /**
+     * Retrieve the sum of the processed replies of all registered actors.
+     *
+     * @return the processed replies.
+     */
+    long processedReplies();
+
+    /**
+     * Retrieve the sum of the failed messages and replies of all registered actors.
+     *
+     * @return the errors.
+     */
+    long errors();
+
+    /**
+     * Retrieve the actors with the most queued messages and replies.
+     *
+     * @param count the maximum number of actors.
+     * @return the actors ordered by their queue depth, the deepest first.
+     */
+    List<ActorSnapshot> topByBacklog(int count);
+}
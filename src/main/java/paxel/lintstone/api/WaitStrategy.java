@@ -0,0 +1,15 @@
+package paxel.lintstone.api;
+
+/**
+ * How the threads of a shared memory link wait for the other process.
+ */
+public enum WaitStrategy {
+    /**
+     * Spins on the ring. The lowest latency, but each waiting thread uses a full core.
+     */
+    BUSY_SPIN,
+    /**
+     * Spins briefly, then yields and parks with growing pauses up to a millisecond.
+     */
+    PARK
+}
@@ -4,38 +4,95 @@ import lombok.NonNull;
 import paxel.lintstone.api.*;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * This wraps the actual implementation of an Actor and makes sure that inside the actor system everything
  * is well synchronized.
+ * <p>
+ * If the {@link ActorSettings#passivationTimeout()} is set, the actor instance and its processor are released once
+ * the actor was idle for that duration. Only this object stays in the registry and a new instance is created by
+ * the {@link LintStoneActorFactory} with the next message.
  */
 class Actor {
 
     private final @NonNull String name;
-    private final @NonNull LintStoneActor actorInstance;
-    private final @NonNull SequentialProcessor sequentialProcessor;
+    private final @NonNull LintStoneActorFactory factory;
+    private final @NonNull ProcessorFactory processorFactory;
+    private final @NonNull ActorSettings settings;
     private final @NonNull AtomicLong totalMessages = new AtomicLong();
     private final @NonNull AtomicLong totalReplies = new AtomicLong();
+    private final @NonNull AtomicLong totalErrors = new AtomicLong();
+    private final long registrationTime = System.currentTimeMillis();
+    // not recorded per message, but observed by the snapshots and the passivation from the started tasks
+    private final @NonNull AtomicLong lastActivity = new AtomicLong(registrationTime);
+    private volatile ActivityObservation observedActivity;
     private final @NonNull MessageContextFactory messageContextFactory;
     private final @NonNull Scheduler scheduler;
-    private final DecisionTree decisionTree;
+    private final @NonNull DeadLetters deadLetters;
 
     private final int queueLimit;
+    private final boolean passivating;
+    // both are null if the latency tracking is disabled
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram serviceTime;
+    // the system interceptors followed by the actor interceptors. empty if there are none
+    private volatile MessageInterceptor[] interceptors;
     private volatile boolean registered = true;
+    private volatile boolean stopped;
+
+    // guards the creation and release of incarnations
+    private final @NonNull ReentrantLock incarnationLock = new ReentrantLock();
+    private volatile Incarnation current;
+    // the state of the last passivated instance. guarded by the incarnationLock
+    private Object snapshot;
 
     private final @NonNull ConcurrentLinkedQueue<MessageTask> taskPool = new ConcurrentLinkedQueue<>();
+    private final @NonNull ConcurrentLinkedQueue<PrimitiveTask> primitiveTaskPool = new ConcurrentLinkedQueue<>();
+    // the tasks and messages of the batch in process. only used by the processing thread
+    private final @NonNull List<MessageTask> batchTasks = new ArrayList<>();
+    private final @NonNull List<Object> batchMessages = new ArrayList<>();
+    private final @NonNull List<Object> batchView = Collections.unmodifiableList(batchMessages);
 
-    Actor(@NonNull String name, @NonNull LintStoneActor actorInstance, @NonNull SequentialProcessor sequentialProcessor, @NonNull ActorSystem system, SelfUpdatingActorAccessor sender, @NonNull Scheduler scheduler, int queueLimit) {
+    Actor(@NonNull String name, @NonNull LintStoneActorFactory factory, @NonNull ProcessorFactory processorFactory, @NonNull ActorSystem system, SelfUpdatingActorAccessor sender, @NonNull Scheduler scheduler, @NonNull ActorSettings settings) {
         this.name = name;
-        this.actorInstance = actorInstance;
-        this.sequentialProcessor = sequentialProcessor;
+        this.factory = factory;
+        this.processorFactory = processorFactory;
+        this.settings = settings;
         this.scheduler = scheduler;
-        this.queueLimit = queueLimit;
+        this.deadLetters = system.deadLetters();
+        this.queueLimit = settings.queueLimit();
+        this.passivating = settings.passivationTimeout().isPositive();
+        this.queueWait = settings.latencyTracking() ? new LatencyHistogram() : null;
+        this.serviceTime = settings.latencyTracking() ? new LatencyHistogram() : null;
+        compileInterceptors(system.interceptors());
         messageContextFactory = new MessageContextFactory(system, new SelfUpdatingActorAccessor(name, this, system, sender));
+        try (AutoClosableLock ignored = new AutoClosableLock(incarnationLock)) {
+            this.current = incarnate();
+        }
+    }
+
+    /**
+     * Creates a new actor instance, records its decision tree and starts a processor for it.
+     * Must be called with the incarnationLock.
+     */
+    private @NonNull Incarnation incarnate() {
+        LintStoneActor actorInstance = factory.create();
+        if (snapshot != null && actorInstance instanceof LintStonePassivatableActor passivatable) {
+            passivatable.restore(snapshot);
+        }
+        snapshot = null;
         MessageContext recordingContext = messageContextFactory.createContext();
         recordingContext.setRecording(true);
         try {
@@ -43,23 +100,147 @@ class Actor {
         } finally {
             recordingContext.setRecording(false);
         }
-        this.decisionTree = recordingContext.getDecisionTree();
+        SequentialProcessorBuilder sequentialProcessorBuilder = processorFactory.create();
+        sequentialProcessorBuilder.setErrorHandler(settings.errorHandler());
+        sequentialProcessorBuilder.setDiscardHandler(this::discard);
+        if (passivating) {
+            sequentialProcessorBuilder.setPassivation(settings.passivationTimeout(), this::tryPassivate);
+        }
+        return new Incarnation(actorInstance, recordingContext.getDecisionTree(), sequentialProcessorBuilder.build());
+    }
+
+    /**
+     * Called by the idle processor of the current incarnation. Releases the incarnation if no message arrived in the meantime.
+     *
+     * @return {@code true} if the incarnation was released and the processor has to stop.
+     */
+    private boolean tryPassivate() {
+        try (AutoClosableLock ignored = new AutoClosableLock(incarnationLock)) {
+            Incarnation incarnation = current;
+            if (incarnation == null || !incarnation.sequentialProcessor().passivate()) {
+                return false;
+            }
+            // we are in the processor thread and the queue is closed, so the instance is not used concurrently
+            if (incarnation.actorInstance() instanceof LintStonePassivatableActor passivatable) {
+                snapshot = passivatable.snapshot();
+            }
+            // the instance was idle since the timeout
+            observeActivity(incarnation, System.currentTimeMillis() - settings.passivationTimeout().toMillis());
+            current = null;
+            taskPool.clear();
+            primitiveTaskPool.clear();
+            replyTaskPool.clear();
+            return true;
+        }
+    }
+
+    /**
+     * Retrieves the current incarnation or creates a new one if the actor is passivated.
+     *
+     * @param stale the incarnation that rejected a task or null.
+     * @return the incarnation or null if the actor is stopped.
+     */
+    private Incarnation activeIncarnation(Incarnation stale) {
+        Incarnation incarnation = current;
+        if (incarnation != null && incarnation != stale) {
+            return incarnation;
+        }
+        if (!passivating) {
+            // the processor rejected the task because it is stopped
+            return null;
+        }
+        try (AutoClosableLock ignored = new AutoClosableLock(incarnationLock)) {
+            if (current != null) {
+                // either someone else activated it, or the stale one is not passivated but stopped
+                return current == stale ? null : current;
+            }
+            if (!registered || stopped) {
+                return null;
+            }
+            current = incarnate();
+            return current;
+        }
+    }
+
+    private boolean enqueue(@NonNull Runnable task) {
+        Incarnation incarnation = activeIncarnation(null);
+        while (incarnation != null) {
+            if (incarnation.sequentialProcessor().add(task)) {
+                return true;
+            }
+            incarnation = activeIncarnation(incarnation);
+        }
+        return false;
+    }
+
+    private boolean enqueue(@NonNull Runnable task, int blockThreshold) throws InterruptedException {
+        Incarnation incarnation = activeIncarnation(null);
+        while (incarnation != null) {
+            if (incarnation.sequentialProcessor().addWithBackPressure(task, blockThreshold)) {
+                return true;
+            }
+            incarnation = activeIncarnation(incarnation);
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the interceptor chain with the given system interceptors and the interceptors of the settings.
+     *
+     * @param systemInterceptors the interceptors of the system.
+     */
+    void compileInterceptors(@NonNull MessageInterceptor[] systemInterceptors) {
+        List<MessageInterceptor> own = settings.interceptors();
+        MessageInterceptor[] chain = Arrays.copyOf(systemInterceptors, systemInterceptors.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            chain[systemInterceptors.length + i] = own.get(i);
+        }
+        interceptors = chain;
+    }
+
+    private void interceptSend(@NonNull Object message) {
+        MessageInterceptor[] chain = interceptors;
+        for (MessageInterceptor interceptor : chain) {
+            interceptor.onSend(name, message);
+        }
     }
 
+    /**
+     * Passes the ownership of a leased buffer to this actor.
+     */
+    private static void transfer(@NonNull Object message) {
+        if (message instanceof LeasedBuffer lease) {
+            lease.transfer();
+        }
+    }
 
     boolean isValid() {
         return registered;
     }
 
     void send(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) throws UnregisteredRecipientException {
-        if (!registered) {
+        if (!trySend(message, sender, replyHandler)) {
             throw new UnregisteredRecipientException("Actor " + name + " is not registered");
         }
+    }
+
+    /**
+     * Sends the message without throwing, if the actor is unregistered. A message that is rejected by a concurrent
+     * unregistration or shutdown is given to the dead letters.
+     *
+     * @return {@code false} if the actor is not registered. The message is not recorded as dead letter yet.
+     */
+    boolean trySend(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) {
+        if (!registered) {
+            return false;
+        }
+        interceptSend(message);
+        transfer(message);
 
         if (queueLimit > 0) {
             try {
-                send(message, sender, replyHandler, queueLimit);
-                return;
+                sendBlocking(message, sender, replyHandler, queueLimit);
+                return true;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 // If we are interrupted, we fallback to non-blocking add to avoid losing message if possible,
@@ -68,31 +249,161 @@ class Actor {
             }
         }
 
-        sequentialProcessor.add(createTask(message, sender, replyHandler));
+        MessageEnqueueEvent event = new MessageEnqueueEvent();
+        event.begin();
+        MessageTask task = createTask(message, sender, replyHandler);
+        if (!enqueue(task)) {
+            reject(task, message);
+            return true;
+        }
         totalMessages.incrementAndGet();
+        event.end();
+        if (event.shouldCommit()) {
+            event.emit(name, message.getClass(), replyHandler != null, getQueued());
+        }
+        return true;
+    }
+
+    /**
+     * Sends a primitive value without boxing it. The value is only boxed for the interceptors, the JFR event and the
+     * dead letters.
+     *
+     * @return {@code false} if the actor is not registered. The message is not recorded as dead letter yet.
+     */
+    boolean trySend(@NonNull PrimitiveKind kind, long bits, SelfUpdatingActorAccessor sender) {
+        if (!registered) {
+            return false;
+        }
+        if (interceptors.length > 0) {
+            interceptSend(kind.box(bits));
+        }
+        MessageEnqueueEvent event = new MessageEnqueueEvent();
+        event.begin();
+        PrimitiveTask task = primitiveTaskPool.poll();
+        if (task == null) {
+            task = new PrimitiveTask();
+        }
+        task.reset(kind, bits, sender);
+        boolean queued;
+        if (queueLimit > 0) {
+            try {
+                queued = enqueue(task, queueLimit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = enqueue(task);
+            }
+        } else {
+            queued = enqueue(task);
+        }
+        if (!queued) {
+            reject(task, kind.box(bits));
+            return true;
+        }
+        totalMessages.incrementAndGet();
+        event.end();
+        if (event.shouldCommit()) {
+            // the task might be processed and reused already
+            event.emit(name, kind.type(), false, getQueued());
+        }
+        return true;
     }
 
     void send(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, @NonNull Duration delay) throws UnregisteredRecipientException {
+        interceptSend(message);
+        transfer(message);
         scheduler.runLater(() -> {
-            if (registered) {
-                sequentialProcessor.add(createTask(message, sender, replyHandler));
-                totalMessages.incrementAndGet();
+            if (!registered) {
+                deadLetters.record(name, message, DeadLetterReason.DELAYED_RECIPIENT_GONE);
+                if (message instanceof LeasedBuffer lease) {
+                    lease.tryRelease();
+                }
+                return;
+            }
+            MessageEnqueueEvent event = new MessageEnqueueEvent();
+            event.begin();
+            MessageTask task = createTask(message, sender, replyHandler);
+            if (!enqueue(task)) {
+                reject(task, message);
+                return;
+            }
+            totalMessages.incrementAndGet();
+            event.end();
+            if (event.shouldCommit()) {
+                event.emit(name, message.getClass(), replyHandler != null, getQueued());
             }
         }, delay);
     }
 
 
-    void send(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, int blockThreshold) throws UnregisteredRecipientException, InterruptedException {
+    /**
+     * Sends the message with back pressure.
+     *
+     * @return {@code false} if the actor is not registered. The message is not recorded as dead letter yet.
+     */
+    boolean trySend(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, int blockThreshold) throws InterruptedException {
         if (!registered) {
-            throw new UnregisteredRecipientException("Actor " + name + " is not registered");
+            return false;
         }
+        interceptSend(message);
+        transfer(message);
+        sendBlocking(message, sender, replyHandler, blockThreshold);
+        return true;
+    }
 
+    private void sendBlocking(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, int blockThreshold) throws InterruptedException {
+        MessageEnqueueEvent event = new MessageEnqueueEvent();
+        event.begin();
         MessageTask task = createTask(message, sender, replyHandler);
-        if (!sequentialProcessor.addWithBackPressure(task, blockThreshold)) {
-            taskPool.offer(task);
-            throw new IllegalStateException("The sequential processor rejected the message.");
+        if (!enqueue(task, blockThreshold)) {
+            reject(task, message);
+            return;
         }
         totalMessages.incrementAndGet();
+        event.end();
+        if (event.shouldCommit()) {
+            event.emit(name, message.getClass(), replyHandler != null, getQueued());
+        }
+    }
+
+    /**
+     * Handles a task that the processor did not accept.
+     */
+    private void reject(@NonNull Task task, @NonNull Object payload) {
+        if (task instanceof MessageTask messageTask) {
+            taskPool.offer(messageTask);
+        } else if (task instanceof PrimitiveTask primitiveTask) {
+            primitiveTaskPool.offer(primitiveTask);
+        } else if (task instanceof ReplyTask replyTask) {
+            replyTaskPool.offer(replyTask);
+        }
+        deadLetters.record(name, payload, stopped ? DeadLetterReason.DISCARDED_ON_SHUTDOWN : DeadLetterReason.REJECTED);
+        if (payload instanceof LeasedBuffer lease) {
+            lease.tryRelease();
+        }
+    }
+
+    /**
+     * Runs the action in the sequence of this actor, after the messages queued before. It is not a message, so it is
+     * neither counted, nor seen by the interceptors, nor a dead letter if it is dropped. The action must not throw.
+     *
+     * @param action the action.
+     * @return {@code false} if the actor is not registered or its queue is full.
+     */
+    boolean signal(@NonNull Runnable action) {
+        return registered && enqueue(action);
+    }
+
+    /**
+     * Handles a queued task that the processor dropped.
+     */
+    private void discard(@NonNull Runnable runnable) {
+        if (runnable instanceof Task task) {
+            // the task is not returned to the pool. a concurrent send might still use the old incarnation
+            deadLetters.record(name, task.payload(), stopped ? DeadLetterReason.DISCARDED_ON_SHUTDOWN : DeadLetterReason.ABORTED);
+            if (task.payload() instanceof LeasedBuffer lease) {
+                lease.tryRelease();
+            }
+        }
     }
 
     private MessageTask createTask(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) {
@@ -104,34 +415,272 @@ class Actor {
         return task;
     }
 
-    private class MessageTask implements Runnable {
+    /**
+     * Base of the queued tasks. Records the latencies and the {@link MessageProcessEvent} if enabled.
+     */
+    private abstract class Task implements Runnable {
+        // 0 if neither the latency tracking nor the JFR event was enabled on enqueue
+        private long enqueued;
+
+        void stamp() {
+            enqueued = queueWait != null || MessageProcessEvent.enabled() ? System.nanoTime() : 0;
+        }
+
+        @Override
+        public void run() {
+            if (queueWait == null && !MessageProcessEvent.enabled()) {
+                process();
+                return;
+            }
+            MessageProcessEvent event = new MessageProcessEvent();
+            // the task is back in the pool after processing
+            Class<?> payloadClass = payloadClass();
+            boolean reply = this instanceof ReplyTask;
+            long start = System.nanoTime();
+            long waited = enqueued == 0 ? 0 : start - enqueued;
+            if (queueWait != null) {
+                queueWait.record(waited);
+            }
+            event.begin();
+            try {
+                process();
+            } finally {
+                long end = System.nanoTime();
+                if (serviceTime != null) {
+                    serviceTime.record(end - start);
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.emit(name, payloadClass, reply, waited, getQueued());
+                }
+            }
+        }
+
+        long enqueued() {
+            return enqueued;
+        }
+
+        abstract @NonNull Object payload();
+
+        /**
+         * @return the class of the payload or null, if the task is not published yet.
+         */
+        Class<?> payloadClass() {
+            Object payload = payload();
+            return payload == null ? null : payload.getClass();
+        }
+
+        abstract void process();
+    }
+
+    private class MessageTask extends Task {
         private @NonNull Object message;
         private SelfUpdatingActorAccessor sender;
         private ReplyHandler replyHandler;
+        // the transfers of a leased buffer message when it was queued
+        private int leaseTransfers;
 
         void reset(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) {
             this.message = message;
             this.sender = sender;
             this.replyHandler = replyHandler;
+            this.leaseTransfers = message instanceof LeasedBuffer lease ? lease.transfers() : 0;
+            stamp();
+        }
+
+        /**
+         * Releases a leased buffer message after its handler, unless the handler sent it on.
+         */
+        void releaseLease() {
+            if (message instanceof LeasedBuffer lease) {
+                lease.handled(leaseTransfers);
+            }
         }
 
         @Override
-        public void run() {
-            MessageContext ctx = messageContextFactory.create(message, (msg, self) -> Actor.this.handleReply(msg, self, sender, replyHandler));
-            // process message
+        @NonNull Object payload() {
+            return message;
+        }
+
+        @Override
+        void process() {
+            Incarnation incarnation = current;
+            StaticDecisionTree.BatchEntry<?> batch = incarnation.decisionTree().batchFor(message);
+            if (batch != null) {
+                processBatch(this, incarnation, batch);
+                return;
+            }
+            // the task returns to the pool after processing, but the context must keep replying to this sender
+            SelfUpdatingActorAccessor replyTo = sender;
+            ReplyHandler handler = replyHandler;
+            MessageContext ctx = messageContextFactory.create(message, (msg, self) -> Actor.this.handleReply(msg, self, replyTo, handler));
+            MessageInterceptor[] chain = interceptors;
+            // process message. The task is executed by the processor of the current incarnation
             try {
-                decisionTree.handle(message, ctx);
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.beforeProcess(name, message);
+                }
+                incarnation.decisionTree().handle(message, ctx);
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.afterProcess(name, message);
+                }
             } catch (Exception e) {
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.onError(name, message, e);
+                }
+                totalErrors.incrementAndGet();
+                ProcessingErrorEvent.emit(name, message.getClass(), LintStoneError.MESSAGE_PROCESSING_FAILED.name(), e);
                 if (sender != null) {
                     sender.tell(new FailedMessage(message, e, name));
                 }
+                failed(sender, replyHandler, e);
                 throw new ProcessingException(LintStoneError.MESSAGE_PROCESSING_FAILED, "While processing " + message + " on " + name, e);
             } finally {
+                releaseLease();
                 taskPool.offer(this);
             }
         }
     }
 
+    /**
+     * A message with an inline primitive value. It is always a tell and its context is reused for the next messages of
+     * the task, so neither the value nor the context is allocated per message.
+     */
+    private class PrimitiveTask extends Task {
+        private PrimitiveKind kind;
+        private long bits;
+        private SelfUpdatingActorAccessor sender;
+        private final @NonNull Supplier<Object> boxed = this::payload;
+        // created on the first processing and reused until a reply handler may still use it
+        private MessageContext context;
+        private final @NonNull BiConsumer<Object, SelfUpdatingActorAccessor> reply = (msg, self) -> Actor.this.handleReply(msg, self, sender, null);
+
+        void reset(@NonNull PrimitiveKind kind, long bits, SelfUpdatingActorAccessor sender) {
+            this.kind = kind;
+            this.bits = bits;
+            this.sender = sender;
+            stamp();
+        }
+
+        @Override
+        @NonNull Object payload() {
+            return kind.box(bits);
+        }
+
+        @Override
+        Class<?> payloadClass() {
+            PrimitiveKind published = kind;
+            return published == null ? null : published.type();
+        }
+
+        @Override
+        void process() {
+            if (context == null) {
+                context = messageContextFactory.createContext();
+                // the reply reads the sender of the current message, so the handler stays valid for every message
+                context.reset(boxed, reply);
+            } else {
+                context.reset(boxed);
+            }
+            MessageInterceptor[] chain = interceptors;
+            Object message = chain.length == 0 ? null : payload();
+            try {
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.beforeProcess(name, message);
+                }
+                kind.handle(current.decisionTree(), bits, context);
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.afterProcess(name, message);
+                }
+            } catch (Exception e) {
+                Object failed = payload();
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.onError(name, failed, e);
+                }
+                totalErrors.incrementAndGet();
+                ProcessingErrorEvent.emit(name, kind.type(), LintStoneError.MESSAGE_PROCESSING_FAILED.name(), e);
+                if (sender != null) {
+                    sender.tell(new FailedMessage(failed, e, name));
+                }
+                throw new ProcessingException(LintStoneError.MESSAGE_PROCESSING_FAILED, "While processing " + failed + " on " + name, e);
+            } finally {
+                // a retained context still reads the value and sender of this task, so both are left to it
+                if (!context.isRetained()) {
+                    primitiveTaskPool.offer(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the message with the directly following queued messages of the same batch handler. Asks are not
+     * added to a batch, so the context of the first message is the only one needing a reply.
+     */
+    private void processBatch(@NonNull MessageTask first, @NonNull Incarnation incarnation, @NonNull StaticDecisionTree.BatchEntry<?> batch) {
+        batchTasks.add(first);
+        SelfUpdatingActorAccessor replyTo = first.sender;
+        ReplyHandler handler = first.replyHandler;
+        MessageContext ctx = messageContextFactory.create(first.message, (msg, self) -> Actor.this.handleReply(msg, self, replyTo, handler));
+        MessageInterceptor[] chain = interceptors;
+        if (first.replyHandler == null) {
+            while (batchTasks.size() < batch.maxBatch()) {
+                Runnable next = incarnation.sequentialProcessor().pollNextIf(runnable -> runnable instanceof MessageTask task
+                        && task.replyHandler == null && incarnation.decisionTree().batchFor(task.message) == batch);
+                if (next == null) {
+                    break;
+                }
+                MessageTask task = (MessageTask) next;
+                if (queueWait != null && task.enqueued() != 0) {
+                    queueWait.record(System.nanoTime() - task.enqueued());
+                }
+                batchTasks.add(task);
+            }
+        }
+        try {
+            for (MessageTask task : batchTasks) {
+                batchMessages.add(task.message);
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.beforeProcess(name, task.message);
+                }
+            }
+            batch.handleBatch(batchView, ctx);
+            for (MessageTask task : batchTasks) {
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.afterProcess(name, task.message);
+                }
+            }
+        } catch (Exception e) {
+            for (MessageTask task : batchTasks) {
+                for (MessageInterceptor interceptor : chain) {
+                    interceptor.onError(name, task.message, e);
+                }
+                if (task.sender != null) {
+                    task.sender.tell(new FailedMessage(task.message, e, name));
+                }
+                failed(task.sender, task.replyHandler, e);
+            }
+            totalErrors.addAndGet(batchTasks.size());
+            ProcessingErrorEvent.emit(name, first.message.getClass(), LintStoneError.MESSAGE_PROCESSING_FAILED.name(), e);
+            throw new ProcessingException(LintStoneError.MESSAGE_PROCESSING_FAILED, "While processing a batch of " + batchTasks.size() + " messages starting with " + first.message + " on " + name, e);
+        } finally {
+            for (MessageTask task : batchTasks) {
+                task.releaseLease();
+                taskPool.offer(task);
+            }
+            batchTasks.clear();
+            batchMessages.clear();
+        }
+    }
+
+    /**
+     * Tells a direct reply handler, that there will be no reply. In the context of the asking actor, if there is one.
+     */
+    private static void failed(SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, @NonNull Exception error) {
+        if (replyHandler instanceof DirectReplyHandler direct && (sender == null || !sender.signal(() -> direct.failed(error)))) {
+            direct.failed(error);
+        }
+    }
+
     /**
      * This method decides how to handle replys.
      *
@@ -148,21 +697,42 @@ class Actor {
         // result handler without sender. this was asked from outside.
         // we could just execute the runnable here, but then the processing of the msg would be "interrupted" with the processing
         // of the reply. so we enqueue it in ourselves.
+        ReplyEvent event = new ReplyEvent();
+        event.begin();
+        SelfUpdatingActorAccessor recipient;
         if (replyHandler == null) {
             // we don't have to handle this other than just sending it to the sender of the original message.
-            Optional.ofNullable(sender)
-                    .orElseThrow(() -> new NoSenderException("Message has no Sender"))
-                    .send(reply, self);
-        } else Objects.requireNonNullElse(sender, self).run(replyHandler, reply);
+            recipient = Optional.ofNullable(sender)
+                    .orElseThrow(() -> new NoSenderException("Message has no Sender"));
+            recipient.send(reply, self);
+        } else if (sender == null && replyHandler instanceof DirectReplyHandler direct) {
+            // asked from outside. the reply only completes a future, so it doesn't have to wait behind our queue
+            recipient = self;
+            totalReplies.incrementAndGet();
+            transfer(reply);
+            direct.complete(reply);
+        } else {
+            recipient = Objects.requireNonNullElse(sender, self);
+            recipient.run(replyHandler, reply);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.emit(name, reply.getClass(), recipient.getName(), replyHandler != null);
+        }
     }
 
     void unregisterGracefully() {
         registered = false;
-        sequentialProcessor.unregisterGracefully();
+        try (AutoClosableLock ignored = new AutoClosableLock(incarnationLock)) {
+            Optional.ofNullable(current).ifPresent(i -> i.sequentialProcessor().unregisterGracefully());
+        }
     }
 
     void shutdown(boolean now) {
-        sequentialProcessor.shutdown(now);
+        stopped = true;
+        try (AutoClosableLock ignored = new AutoClosableLock(incarnationLock)) {
+            Optional.ofNullable(current).ifPresent(i -> i.sequentialProcessor().shutdown(now));
+        }
     }
 
     private final ConcurrentLinkedQueue<ReplyTask> replyTaskPool = new ConcurrentLinkedQueue<>();
@@ -171,33 +741,65 @@ class Actor {
         if (!registered) {
             throw new UnregisteredRecipientException("Actor " + name + " is not registered");
         }
+        transfer(reply);
 
         ReplyTask task = replyTaskPool.poll();
         if (task == null) {
             task = new ReplyTask();
         }
+        MessageEnqueueEvent event = new MessageEnqueueEvent();
+        event.begin();
         task.reset(replyHandler, reply);
-        sequentialProcessor.add(task);
+        if (!enqueue(task)) {
+            reject(task, reply);
+            return;
+        }
         totalReplies.incrementAndGet();
+        event.end();
+        if (event.shouldCommit()) {
+            event.emit(name, reply.getClass(), false, getQueued());
+        }
     }
 
-    private class ReplyTask implements Runnable {
+    private class ReplyTask extends Task {
         private ReplyHandler replyHandler;
         private @NonNull Object reply;
+        // the transfers of a leased buffer reply when it was queued
+        private int leaseTransfers;
 
         void reset(ReplyHandler replyHandler, @NonNull Object reply) {
             this.replyHandler = replyHandler;
             this.reply = reply;
+            this.leaseTransfers = reply instanceof LeasedBuffer lease ? lease.transfers() : 0;
+            stamp();
+        }
+
+        /**
+         * Releases a leased buffer reply after its handler, unless the handler sent it on. A direct handler passes
+         * the reply on to its future, which takes the ownership.
+         */
+        void releaseLease() {
+            if (reply instanceof LeasedBuffer lease && !(replyHandler instanceof DirectReplyHandler)) {
+                lease.handled(leaseTransfers);
+            }
         }
 
         @Override
-        public void run() {
+        @NonNull Object payload() {
+            return reply;
+        }
+
+        @Override
+        void process() {
             MessageContext ctx = messageContextFactory.create(reply, (msg, self) -> Actor.this.handleReply(msg, self, null, null));
             try {
                 replyHandler.process(ctx);
             } catch (Exception e) {
+                totalErrors.incrementAndGet();
+                ProcessingErrorEvent.emit(name, reply.getClass(), LintStoneError.REPLY_PROCESSING_FAILED.name(), e);
                 throw new ProcessingException(LintStoneError.REPLY_PROCESSING_FAILED, "While processing runnable on " + name, e);
             } finally {
+                releaseLease();
                 replyTaskPool.offer(this);
             }
         }
@@ -208,8 +810,9 @@ class Actor {
         return "Actor{" +
                 "name='" + name + '\'' +
                 " registered='" + registered + '\'' +
+                " passivated='" + isPassivated() + '\'' +
                 " total='" + totalMessages.get() + '\'' +
-                " queued='" + sequentialProcessor.size() + '\'' +
+                " queued='" + getQueued() + '\'' +
                 '}';
     }
 
@@ -221,7 +824,101 @@ class Actor {
         return totalReplies.get();
     }
 
+    public long getTotalErrors() {
+        return totalErrors.get();
+    }
+
     public int getQueued() {
-        return sequentialProcessor.size();
+        Incarnation incarnation = current;
+        return incarnation == null ? 0 : incarnation.sequentialProcessor().size();
+    }
+
+    Optional<LatencySnapshot> getQueueWaitLatency() {
+        return Optional.ofNullable(queueWait).map(LatencyHistogram::snapshot);
+    }
+
+    Optional<LatencySnapshot> getServiceTimeLatency() {
+        return Optional.ofNullable(serviceTime).map(LatencyHistogram::snapshot);
+    }
+
+    @NonNull ActorSnapshot snapshot() {
+        Incarnation incarnation = current;
+        if (incarnation != null) {
+            observeActivity(incarnation, System.currentTimeMillis());
+        }
+        return new ActorSnapshotImpl(name, getQueued(), totalMessages.get(), totalReplies.get(), totalErrors.get(),
+                Instant.ofEpochMilli(registrationTime), Instant.ofEpochMilli(lastActivity.getOpaque()),
+                // the distributions are copied now, so they belong to the same moment as the counters
+                Optional.ofNullable(queueWait).map(LatencyHistogram::snapshot),
+                Optional.ofNullable(serviceTime).map(LatencyHistogram::snapshot));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Moves the last activity to the given time, if the incarnation is processing right now or started tasks since
+     * the last observation. Concurrent observations might lose an update, which only delays the activity to the
+     * next observation.
+     */
+    private void observeActivity(@NonNull Incarnation incarnation, long now) {
+        SequentialProcessor processor = incarnation.sequentialProcessor();
+        long startedTasks = processor.startedTasks();
+        ActivityObservation last = observedActivity;
+        boolean started = last == null || last.incarnation() != incarnation
+                ? startedTasks > 0
+                : startedTasks != last.startedTasks();
+        if (started || processor.currentTask() != null) {
+            lastActivity.accumulateAndGet(now, Math::max);
+        }
+        observedActivity = new ActivityObservation(incarnation, startedTasks);
+    }
+
+    /**
+     * Samples the task the actor is processing right now.
+     *
+     * @return the activity or null if the actor is idle.
+     */
+    Activity activity() {
+        Incarnation incarnation = current;
+        if (incarnation == null) {
+            return null;
+        }
+        SequentialProcessor processor = incarnation.sequentialProcessor();
+        long startedTasks = processor.startedTasks();
+        Runnable task = processor.currentTask();
+        if (task == null) {
+            return null;
+        }
+        // the fields of the task are not published safely, so the payload might not be visible yet
+        return new Activity(task instanceof Task t ? t.payloadClass() : null, startedTasks, processor.worker());
+    }
+
+    boolean isPassivated() {
+        return current == null;
+    }
+
+    /**
+     * A sample of the processing of an actor.
+     *
+     * @param messageClass the class of the processed message or null if unknown.
+     * @param startedTasks the number of tasks started by the processor.
+     * @param worker       the processing thread or null if unknown.
+     */
+    record Activity(Class<?> messageClass, long startedTasks, Thread worker) {
+    }
+
+    /**
+     * The started tasks of an incarnation when the last activity was observed.
+     */
+    private record ActivityObservation(@NonNull Incarnation incarnation, long startedTasks) {
+    }
+
+    /**
+     * The parts of an actor that only exist while it is active.
+     */
+    private record Incarnation(@NonNull LintStoneActor actorInstance, @NonNull DecisionTree decisionTree,
+                               @NonNull SequentialProcessor sequentialProcessor) {
     }
 }
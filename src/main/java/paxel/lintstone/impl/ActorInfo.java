@@ -0,0 +1,31 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.ActorSnapshot;
+import paxel.lintstone.api.LatencySnapshot;
+
+/**
+ * The JMX representation of the statistics of one actor. The latencies are -1 if the actor has no latency tracking.
+ *
+ * @param name                the name of the actor.
+ * @param queued              the queue depth.
+ * @param processedMessages   the processed messages.
+ * @param processedReplies    the processed replies.
+ * @param errors              the failed messages and replies.
+ * @param queueWaitP50Nanos   the median queue wait.
+ * @param queueWaitP99Nanos   the 99th percentile of the queue wait.
+ * @param serviceTimeP50Nanos the median service time.
+ * @param serviceTimeP99Nanos the 99th percentile of the service time.
+ */
+public record ActorInfo(@NonNull String name, int queued, long processedMessages, long processedReplies, long errors,
+                        long queueWaitP50Nanos, long queueWaitP99Nanos, long serviceTimeP50Nanos,
+                        long serviceTimeP99Nanos) {
+
+    static @NonNull ActorInfo of(@NonNull ActorSnapshot snapshot) {
+        return new ActorInfo(snapshot.name(), snapshot.queued(), snapshot.processedMessages(), snapshot.processedReplies(), snapshot.errors(),
+                snapshot.queueWait().map(l -> l.percentileNanos(50)).orElse(-1L),
+                snapshot.queueWait().map(l -> l.percentileNanos(99)).orElse(-1L),
+                snapshot.serviceTime().map(l -> l.percentileNanos(50)).orElse(-1L),
+                snapshot.serviceTime().map(l -> l.percentileNanos(99)).orElse(-1L));
+    }
+}
@@ -0,0 +1,14 @@
+package paxel.lintstone.impl;
+
+/**
+ * JMX view of one actor. It is only registered for a limited number of actors. See {@link ActorSystem#registerMBeans(String, int)}.
+ */
+public interface ActorMXBean {
+
+    /**
+     * Retrieve the statistics of the actor.
+     *
+     * @return the actor statistics.
+     */
+    ActorInfo getInfo();
+}
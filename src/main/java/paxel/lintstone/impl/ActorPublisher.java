@@ -0,0 +1,143 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneActorAccessor;
+import paxel.lintstone.api.LintStonePublisher;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link LintStonePublisher} of an actor. The subscriptions count their demand. A request of a subscription
+ * without demand tells the actor a {@link Demand}.
+ *
+ * @param <T> the type of the items.
+ */
+public class ActorPublisher<T> implements LintStonePublisher<T> {
+
+    private final @NonNull LintStoneActorAccessor actor;
+    private final @NonNull Demand demandMessage = new Demand(this);
+    private final @NonNull List<ActorSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    // subscriptions with an invalid request, that receive their error from the actor
+    private final @NonNull Queue<ActorSubscription> invalid = new ConcurrentLinkedQueue<>();
+    private volatile boolean completed;
+    private volatile Throwable failure;
+
+    ActorPublisher(@NonNull LintStoneActorAccessor actor) {
+        this.actor = actor;
+    }
+
+    @Override
+    public void subscribe(@NonNull Flow.Subscriber<? super T> subscriber) {
+        ActorSubscription subscription = new ActorSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        if (completed) {
+            Throwable error = failure;
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+            return;
+        }
+        // added after onSubscribe returned, so onNext can't overtake it
+        subscriptions.add(subscription);
+        if (subscription.cancelled.get()) {
+            subscriptions.remove(subscription);
+        } else if (subscription.demand.get() > 0) {
+            actor.tryTell(demandMessage);
+        }
+    }
+
+    @Override
+    public long demand() {
+        failInvalid();
+        long demand = Long.MAX_VALUE;
+        for (ActorSubscription subscription : subscriptions) {
+            demand = Math.min(demand, subscription.demand.get());
+        }
+        return subscriptions.isEmpty() ? 0 : demand;
+    }
+
+    @Override
+    public boolean offer(@NonNull T item) {
+        if (completed) {
+            throw new IllegalStateException("The publisher is completed");
+        }
+        if (demand() == 0) {
+            return false;
+        }
+        for (ActorSubscription subscription : subscriptions) {
+            subscription.demand.updateAndGet(d -> d == Long.MAX_VALUE ? d : d - 1);
+            subscription.subscriber.onNext(item);
+        }
+        return true;
+    }
+
+    @Override
+    public void complete() {
+        end(null);
+    }
+
+    @Override
+    public void fail(@NonNull Throwable error) {
+        end(error);
+    }
+
+    private void end(Throwable error) {
+        failInvalid();
+        failure = error;
+        completed = true;
+        for (ActorSubscription subscription : subscriptions) {
+            subscriptions.remove(subscription);
+            if (error == null) {
+                subscription.subscriber.onComplete();
+            } else {
+                subscription.subscriber.onError(error);
+            }
+        }
+    }
+
+    private void failInvalid() {
+        for (ActorSubscription subscription = invalid.poll(); subscription != null; subscription = invalid.poll()) {
+            subscription.subscriber.onError(new IllegalArgumentException("The request must be positive (rule 3.9)"));
+        }
+    }
+
+    private final class ActorSubscription implements Flow.Subscription {
+        private final @NonNull Flow.Subscriber<? super T> subscriber;
+        private final @NonNull AtomicLong demand = new AtomicLong();
+        private final @NonNull AtomicBoolean cancelled = new AtomicBoolean();
+
+        ActorSubscription(@NonNull Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (cancelled.compareAndSet(false, true)) {
+                    subscriptions.remove(this);
+                    invalid.offer(this);
+                    actor.tryTell(demandMessage);
+                }
+                return;
+            }
+            long previous = demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            if (previous == 0 && !cancelled.get() && subscriptions.contains(this)) {
+                actor.tryTell(demandMessage);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled.set(true);
+            subscriptions.remove(this);
+        }
+    }
+}
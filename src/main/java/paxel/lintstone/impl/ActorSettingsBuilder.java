@@ -4,6 +4,11 @@ import lombok.NonNull;
 import paxel.lintstone.api.ActorSettings;
 import paxel.lintstone.api.ErrorHandler;
 import paxel.lintstone.api.ErrorHandlerDecision;
+import paxel.lintstone.api.MessageInterceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Builder for {@link ActorSettings}.
@@ -11,6 +16,9 @@ import paxel.lintstone.api.ErrorHandlerDecision;
 public class ActorSettingsBuilder {
     private @NonNull ErrorHandler errorHandler = (err, desc, cause) -> ErrorHandlerDecision.CONTINUE;
     private int queueLimit;
+    private @NonNull Duration passivationTimeout = Duration.ZERO;
+    private boolean latencyTracking;
+    private final @NonNull List<MessageInterceptor> interceptors = new ArrayList<>();
 
     /**
      * Creates a new actor settings builder.
@@ -40,6 +48,41 @@ public class ActorSettingsBuilder {
         return this;
     }
 
+    /**
+     * Sets the duration an actor may stay idle before it is passivated. {@link Duration#ZERO} disables the passivation.
+     *
+     * @param passivationTimeout the passivation timeout.
+     * @return this builder.
+     */
+    public ActorSettingsBuilder setPassivationTimeout(@NonNull Duration passivationTimeout) {
+        if (passivationTimeout.isNegative()) {
+            throw new IllegalArgumentException("passivationTimeout must not be negative");
+        }
+        this.passivationTimeout = passivationTimeout;
+        return this;
+    }
+
+    /**
+     * Enables the recording of queue wait and service time latencies.
+     *
+     * @param latencyTracking {@code true} to record the latencies.
+     * @return this builder.
+     */
+    public ActorSettingsBuilder setLatencyTracking(boolean latencyTracking) {
+        this.latencyTracking = latencyTracking;
+        return this;
+    }
+
+    /**
+     * Adds an interceptor for the messages of the actor. The interceptors are called in the order they were added.
+     *
+     * @param interceptor the interceptor.
+     * @return this builder.
+     */
+    public ActorSettingsBuilder addInterceptor(@NonNull MessageInterceptor interceptor) {
+        this.interceptors.add(interceptor);
+        return this;
+    }
 
     /**
      * Builds the {@link ActorSettings} instance.
@@ -47,7 +90,7 @@ public class ActorSettingsBuilder {
      * @return the actor settings.
      */
     public ActorSettings build() {
-        return new ActorSettingsImpl(errorHandler, queueLimit);
+        return new ActorSettingsImpl(errorHandler, queueLimit, passivationTimeout, latencyTracking, List.copyOf(interceptors));
     }
 
     /**
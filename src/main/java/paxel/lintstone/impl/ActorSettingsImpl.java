@@ -3,12 +3,21 @@ package paxel.lintstone.impl;
 import lombok.NonNull;
 import paxel.lintstone.api.ErrorHandler;
 import paxel.lintstone.api.ActorSettings;
+import paxel.lintstone.api.MessageInterceptor;
+
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Implementation of {@link ActorSettings}.
  *
- * @param errorHandler the error handler.
+ * @param errorHandler       the error handler.
+ * @param queueLimit         the queue limit.
+ * @param passivationTimeout the passivation timeout.
+ * @param latencyTracking    if latencies are recorded.
+ * @param interceptors       the interceptors.
  */
-public record ActorSettingsImpl(@NonNull ErrorHandler errorHandler, int queueLimit) implements ActorSettings {
+public record ActorSettingsImpl(@NonNull ErrorHandler errorHandler, int queueLimit, @NonNull Duration passivationTimeout,
+                                boolean latencyTracking, @NonNull List<MessageInterceptor> interceptors) implements ActorSettings {
 
 }
@@ -0,0 +1,27 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.ActorSnapshot;
+import paxel.lintstone.api.LatencySnapshot;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link ActorSnapshot}.
+ *
+ * @param name              the name of the actor.
+ * @param queued            the queue depth.
+ * @param processedMessages the processed messages.
+ * @param processedReplies  the processed replies.
+ * @param errors            the failed messages and replies.
+ * @param registrationTime  the registration time.
+ * @param lastActivity      the time the actor was last seen processing.
+ * @param queueWait         the queue wait distribution.
+ * @param serviceTime       the service time distribution.
+ */
+public record ActorSnapshotImpl(@NonNull String name, int queued, long processedMessages, long processedReplies, long errors,
+                                @NonNull Instant registrationTime, @NonNull Instant lastActivity,
+                                @NonNull Optional<LatencySnapshot> queueWait,
+                                @NonNull Optional<LatencySnapshot> serviceTime) implements ActorSnapshot {
+}
@@ -0,0 +1,109 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.AutoClosableLock;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tells the items of a {@link Flow.Publisher} to an actor. At most {@code capacity} items are requested, that the
+ * actor has not processed yet. After every half of the capacity a signal is queued behind the items, that requests
+ * the next half, when the actor has processed them. So the mailbox stays bounded and no thread is blocked.
+ * The end of the stream is told as {@link paxel.lintstone.api.LintStoneStreamEnd}.
+ *
+ * @param <T> the type of the items.
+ */
+public class ActorSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final @NonNull SelfUpdatingActorAccessor actor;
+    private final int capacity;
+    private final int batch;
+    private final @NonNull Runnable replenish = this::replenish;
+    // request and cancel are called by the publisher thread and the actor, but must be serial
+    private final @NonNull ReentrantLock subscriptionLock = new ReentrantLock();
+    private Flow.Subscription subscription;
+    private boolean cancelled;
+    // only used by the serial signals of the publisher
+    private int received;
+    private boolean done;
+
+    ActorSubscriber(@NonNull SelfUpdatingActorAccessor actor, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.actor = actor;
+        this.capacity = capacity;
+        this.batch = Math.max(1, capacity / 2);
+    }
+
+    @Override
+    public void onSubscribe(@NonNull Flow.Subscription subscription) {
+        try (AutoClosableLock ignored = new AutoClosableLock(subscriptionLock)) {
+            if (this.subscription != null) {
+                // only one stream per subscriber
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+        }
+        request(capacity);
+    }
+
+    @Override
+    public void onNext(@NonNull T item) {
+        if (done) {
+            return;
+        }
+        if (!actor.tryTell(item)) {
+            // the actor is gone or full. the item is a dead letter
+            done = true;
+            cancel();
+            return;
+        }
+        if (++received == batch) {
+            received = 0;
+            if (!actor.signal(replenish)) {
+                request(batch);
+            }
+        }
+    }
+
+    @Override
+    public void onError(@NonNull Throwable throwable) {
+        end(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        end(null);
+    }
+
+    private void end(Throwable error) {
+        if (!done) {
+            done = true;
+            actor.tryTell(new StreamEnd(error));
+        }
+    }
+
+    private void replenish() {
+        request(batch);
+    }
+
+    private void request(long n) {
+        try (AutoClosableLock ignored = new AutoClosableLock(subscriptionLock)) {
+            if (!cancelled) {
+                subscription.request(n);
+            }
+        } catch (RuntimeException e) {
+            // a broken publisher must not break the actor
+        }
+    }
+
+    private void cancel() {
+        try (AutoClosableLock ignored = new AutoClosableLock(subscriptionLock)) {
+            cancelled = true;
+            subscription.cancel();
+        }
+    }
+}
@@ -3,27 +3,77 @@ package paxel.lintstone.impl;
 import lombok.NonNull;
 import paxel.lintstone.api.*;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Default implementation of {@link LintStoneSystem}.
  */
 public class ActorSystem implements LintStoneSystem {
 
+    /**
+     * Number of registration locks. Must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 64;
+
     private final @NonNull Map<String, Actor> actors = new ConcurrentHashMap<>();
+    // the names that are being registered. Only modified under the registration lock of the name.
+    private final @NonNull Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // sorted index of the registered names for prefix operations. Only modified under the registration lock of the name.
+    private final @NonNull NavigableSet<String> names = new ConcurrentSkipListSet<>();
+    // the families by their exact prefix
+    private final @NonNull Map<String, ActorFamily> families = new ConcurrentHashMap<>();
+    // the distinct prefix lengths of the families, longest first. copy on write. guarded by familyLock
+    private volatile int[] familyPrefixLengths = new int[0];
+    private final @NonNull ReentrantLock familyLock = new ReentrantLock();
+    // set under all registration stripes, when the actors are shut down
+    private volatile boolean stopped;
     private final @NonNull ProcessorFactory processorFactory;
     private final @NonNull Scheduler scheduler;
-    private final @NonNull ReentrantLock lock = new ReentrantLock();
+    // registrations of different names only contend if their names share a stripe
+    private final @NonNull ReentrantLock[] registrationLocks = new ReentrantLock[LOCK_STRIPES];
+    // the counters of unregistered actors
+    private final @NonNull AtomicLong retiredMessages = new AtomicLong();
+    private final @NonNull AtomicLong retiredReplies = new AtomicLong();
+    private final @NonNull AtomicLong retiredErrors = new AtomicLong();
+    private volatile JmxRegistration jmx;
+    private final @NonNull DeadLetters deadLetters = new DeadLetters();
+    private final @NonNull Codecs codecs = new Codecs();
+    private final @NonNull BufferLeasePool leases = new BufferLeasePool();
+    private final @NonNull AtomicReference<RemoteTransport> transport = new AtomicReference<>();
+    private final @NonNull AtomicReference<Watchdog> watchdog = new AtomicReference<>();
+    // copy on write. guarded by all registration stripes
+    private volatile MessageInterceptor[] interceptors = new MessageInterceptor[0];
 
     /**
      * Creates a new ActorSystem with default {@link GroupingExecutor} and {@link SimpleScheduler}.
      */
     public ActorSystem() {
+        initLocks();
         processorFactory = new GroupingExecutor();
         SimpleScheduler simpleScheduler = new SimpleScheduler();
         Thread.ofVirtual().start(simpleScheduler);
@@ -37,10 +87,17 @@ public class ActorSystem implements LintStoneSystem {
      * @param scheduler        the scheduler to use.
      */
     public ActorSystem(@NonNull ProcessorFactory processorFactory, @NonNull Scheduler scheduler) {
+        initLocks();
         this.processorFactory = processorFactory;
         this.scheduler = scheduler;
     }
 
+    private void initLocks() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            registrationLocks[i] = new ReentrantLock();
+        }
+    }
+
     @Override
     public LintStoneActorAccessor registerActor(@NonNull String name, @NonNull LintStoneActorFactory factory, @NonNull ActorSettings settings, Object initMessage) {
         return registerActor(name, factory, null, settings, initMessage);
@@ -56,28 +113,452 @@ public class ActorSystem implements LintStoneSystem {
         return new SelfUpdatingActorAccessor(name, actors.get(name), this, null);
     }
 
+    @Override
+    public <F> CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<? extends LintStoneActorAccessor> actors, @NonNull Object message) {
+        return ScatterGather.askAll(actors, message, null);
+    }
+
+    @Override
+    public <F> CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<? extends LintStoneActorAccessor> actors, @NonNull Object message, @NonNull Duration timeout) {
+        return ScatterGather.askAll(actors, message, timeout);
+    }
+
     LintStoneActorAccessor registerActor(@NonNull String name, @NonNull LintStoneActorFactory factory, SelfUpdatingActorAccessor sender, @NonNull ActorSettings settings, Object initMessage) {
-        SequentialProcessorBuilder sequentialProcessorBuilder = processorFactory.create();
-        sequentialProcessorBuilder.setErrorHandler(settings.errorHandler());
-        return registerActor(name, factory, initMessage, sender, sequentialProcessorBuilder, settings.queueLimit());
+        return new SelfUpdatingActorAccessor(name, getOrRegister(name, () -> factory, sender, settings, initMessage), this, sender);
     }
 
+    /**
+     * Retrieves the registered actor or registers a new one.
+     *
+     * @param factory supplies the factory of the new actor or null, if no actor is registered. Only called by the
+     *                registration that builds the actor.
+     * @return the actor or null, if the factory supplier didn't supply a factory.
+     */
+    private Actor getOrRegister(@NonNull String name, @NonNull Supplier<LintStoneActorFactory> factory, SelfUpdatingActorAccessor sender, @NonNull ActorSettings settings, Object initMessage) {
+        while (true) {
+            // fast path: the existing actor wins, no lock required
+            Actor existing = actors.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Actor> registered = reserve(name);
+            if (registered != null) {
+                // the existing actor or the one of the running registration wins
+                Actor winner = await(registered);
+                if (winner != null) {
+                    return winner;
+                }
+                // the running registration was cancelled, so it is tried again
+                continue;
+            }
+            // the factory, the recording and the interceptors are user code, that might register further actors.
+            // so the actor is built and receives its initMessage as first message while only the name is reserved
+            Actor newActor;
+            try {
+                LintStoneActorFactory actorFactory = factory.get();
+                if (actorFactory == null) {
+                    cancel(name);
+                    return null;
+                }
+                newActor = createActor(name, actorFactory, sender, settings);
+                Optional.ofNullable(initMessage).ifPresent(msg -> newActor.send(msg, null, null));
+            } catch (RuntimeException | Error e) {
+                cancel(name);
+                throw e;
+            }
+            publish(name, newActor);
+            return newActor;
+        }
+    }
 
-    private LintStoneActorAccessor registerActor(@NonNull String name, @NonNull LintStoneActorFactory factory, Object initMessage, SelfUpdatingActorAccessor sender, @NonNull SequentialProcessorBuilder sequentialProcessor, int queueLimit) {
-        try (AutoClosableLock ignored = new AutoClosableLock(lock)) {
+    /**
+     * Reserves the name for a registration of the calling thread, if it is neither registered nor reserved yet.
+     * Takes the registration lock of the name.
+     *
+     * @return null if the caller reserved the name and has to {@link #publish(String, Actor)} or
+     * {@link #cancel(String)} it. Otherwise the registered actor or the one of the running registration.
+     */
+    private CompletableFuture<Actor> reserve(@NonNull String name) {
+        try (AutoClosableLock ignored = new AutoClosableLock(lockFor(name))) {
             Actor existing = actors.get(name);
             if (existing != null) {
-                return new SelfUpdatingActorAccessor(name, existing, this, sender);
+                return CompletableFuture.completedFuture(existing);
+            }
+            Reservation running = reservations.get(name);
+            if (running != null) {
+                if (running.owner() == Thread.currentThread()) {
+                    throw new IllegalStateException("The actor " + name + " is registered by its own factory");
+                }
+                return running.actor();
+            }
+            reservations.put(name, new Reservation(Thread.currentThread(), new CompletableFuture<>()));
+            return null;
+        }
+    }
+
+    /**
+     * Waits for a running registration.
+     *
+     * @return the registered actor or null, if the registration was cancelled.
+     */
+    private static Actor await(@NonNull CompletableFuture<Actor> registered) {
+        return registered.join();
+    }
+
+    /**
+     * Releases the reservation of a registration that failed or registered no actor. The waiting registrations try
+     * again.
+     */
+    private void cancel(@NonNull String name) {
+        Reservation reservation;
+        try (AutoClosableLock ignored = new AutoClosableLock(lockFor(name))) {
+            reservation = reservations.remove(name);
+        }
+        if (reservation != null) {
+            reservation.actor().complete(null);
+        }
+    }
+
+    @Override
+    public void registerFamily(@NonNull String prefix, @NonNull Function<String, LintStoneActorFactory> idToFactory, @NonNull ActorSettings settings) {
+        if (prefix.isEmpty()) {
+            throw new IllegalArgumentException("prefix must not be empty");
+        }
+        try (AutoClosableLock ignored = new AutoClosableLock(familyLock)) {
+            families.put(prefix, new ActorFamily(prefix, idToFactory, settings));
+            indexFamilyPrefixes();
+        }
+    }
+
+    @Override
+    public boolean unregisterFamily(@NonNull String prefix) {
+        try (AutoClosableLock ignored = new AutoClosableLock(familyLock)) {
+            boolean removed = families.remove(prefix) != null;
+            indexFamilyPrefixes();
+            return removed;
+        }
+    }
+
+    private void indexFamilyPrefixes() {
+        familyPrefixLengths = families.keySet().stream()
+                .mapToInt(String::length)
+                .distinct()
+                .map(length -> -length)
+                .sorted()
+                .map(length -> -length)
+                .toArray();
+    }
+
+    /**
+     * Finds the family with the longest prefix of the name. Only the prefixes of the name with the length of a
+     * registered family are looked up, so the costs don't grow with the number of families.
+     */
+    private ActorFamily familyOf(@NonNull String name) {
+        for (int length : familyPrefixLengths) {
+            if (length < name.length()) {
+                ActorFamily family = families.get(name.substring(0, length));
+                if (family != null) {
+                    return family;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<LintStoneActorAccessor> registerActors(@NonNull String namePrefix, int count, @NonNull LintStoneActorFactory factory, @NonNull ActorSettings settings) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        // reserve the missing names. the existing actors and the running registrations of other threads win
+        List<CompletableFuture<Actor>> registered = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            registered.add(reserve(namePrefix + i));
+        }
+        // build the reserved actors in parallel without holding any lock, and publish each one when it is built
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        IntStream.range(0, count).parallel().filter(i -> registered.get(i) == null).forEach(i -> {
+            String name = namePrefix + i;
+            try {
+                publish(name, createActor(name, factory, null, settings));
+            } catch (RuntimeException e) {
+                cancel(name);
+                failure.compareAndSet(null, e);
+            }
+        });
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        List<LintStoneActorAccessor> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = namePrefix + i;
+            CompletableFuture<Actor> other = registered.get(i);
+            Actor actor = other == null ? actors.get(name) : await(other);
+            if (actor == null) {
+                // unregistered in the meantime or the registration of another thread failed
+                actor = getOrRegister(name, () -> factory, null, settings, null);
+            }
+            result.add(new SelfUpdatingActorAccessor(name, actor, this, null));
+        }
+        return result;
+    }
+
+    private @NonNull Actor createActor(@NonNull String name, @NonNull LintStoneActorFactory factory, SelfUpdatingActorAccessor sender, @NonNull ActorSettings settings) {
+        return new Actor(name, factory, processorFactory, this, sender, scheduler, settings);
+    }
+
+    /**
+     * Makes the actor of a reserved name visible and hands it to the waiting registrations. Takes the registration
+     * lock of the name and must not be called with another registration lock.
+     */
+    private void publish(@NonNull String name, @NonNull Actor actor) {
+        Reservation reservation;
+        try (AutoClosableLock ignored = new AutoClosableLock(lockFor(name))) {
+            reservation = reservations.remove(name);
+            actors.put(name, actor);
+            // the actor was created without the lock and might have missed an interceptor change
+            actor.compileInterceptors(interceptors);
+            names.add(name);
+            JmxRegistration registration = jmx;
+            if (registration != null) {
+                registration.actorRegistered(name, actor);
+            }
+        }
+        if (reservation != null) {
+            reservation.actor().complete(actor);
+        }
+    }
+
+    /**
+     * Finishes the unregistration of a removed actor.
+     */
+    private void retire(@NonNull String name, @NonNull Actor actor) {
+        // this actor will not accept any messages anymore. The Accesses should try to get a new instance or fail.
+        actor.unregisterGracefully();
+        retiredMessages.addAndGet(actor.getTotalMessages());
+        retiredReplies.addAndGet(actor.getTotalReplies());
+        retiredErrors.addAndGet(actor.getTotalErrors());
+        JmxRegistration registration = jmx;
+        if (registration != null) {
+            registration.actorUnregistered(name);
+        }
+    }
+
+    private @NonNull ReentrantLock lockFor(@NonNull String name) {
+        int hash = name.hashCode();
+        return registrationLocks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Acquires all registration locks in ascending order. Used by the rare system wide operations that must not
+     * race with any registration.
+     */
+    private void lockAll() {
+        for (ReentrantLock registrationLock : registrationLocks) {
+            registrationLock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+            registrationLocks[i].unlock();
+        }
+    }
+
+
+    @Override
+    public SystemSnapshot snapshot() {
+        Instant timestamp = Instant.now();
+        // the weakly consistent iteration neither blocks nor is blocked by registrations
+        List<ActorSnapshot> snapshots = new ArrayList<>(actors.size());
+        actors.values().forEach(actor -> snapshots.add(actor.snapshot()));
+        return SystemSnapshotImpl.of(timestamp, Collections.unmodifiableList(snapshots));
+    }
+
+    @Override
+    public void addInterceptor(@NonNull MessageInterceptor interceptor) {
+        lockAll();
+        try {
+            MessageInterceptor[] changed = Arrays.copyOf(interceptors, interceptors.length + 1);
+            changed[interceptors.length] = interceptor;
+            interceptors = changed;
+            actors.values().forEach(actor -> actor.compileInterceptors(changed));
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public boolean removeInterceptor(@NonNull MessageInterceptor interceptor) {
+        lockAll();
+        try {
+            List<MessageInterceptor> remaining = new ArrayList<>(Arrays.asList(interceptors));
+            if (!remaining.remove(interceptor)) {
+                return false;
             }
-            LintStoneActor actorInstance = factory.create();
-            Actor newActor = new Actor(name, actorInstance, sequentialProcessor.build(), this, sender, scheduler, queueLimit);
-            // actor receives the initMessage as first message.
-            Optional.ofNullable(initMessage).ifPresent(msg -> newActor.send(msg, null, null));
-            actors.put(name, newActor);
-            return new SelfUpdatingActorAccessor(name, newActor, this, sender);
+            MessageInterceptor[] changed = remaining.toArray(new MessageInterceptor[0]);
+            interceptors = changed;
+            actors.values().forEach(actor -> actor.compileInterceptors(changed));
+            return true;
+        } finally {
+            unlockAll();
         }
     }
 
+    MessageInterceptor[] interceptors() {
+        return interceptors;
+    }
+
+    @Override
+    public void setDeadLetterHandler(DeadLetterHandler handler, double samplingRate) {
+        deadLetters.setHandler(handler, samplingRate);
+    }
+
+    @Override
+    public long getDeadLetters(@NonNull DeadLetterReason reason) {
+        return deadLetters.count(reason);
+    }
+
+    @Override
+    public LintStoneBuffer leaseBuffer(int capacity) {
+        return leases.lease(capacity);
+    }
+
+    @Override
+    public void setBufferLeakHandler(BufferLeakHandler handler) {
+        leases.setLeakHandler(handler);
+    }
+
+    @Override
+    public <T> Flow.Subscriber<T> subscriber(@NonNull String actorName, int capacity) {
+        return new ActorSubscriber<>(new SelfUpdatingActorAccessor(actorName, actors.get(actorName), this, null), capacity);
+    }
+
+    @Override
+    public <T> LintStonePublisher<T> publisher(@NonNull String actorName) {
+        return new ActorPublisher<>(getActor(actorName));
+    }
+
+    @Override
+    public <T> LintStonePipeline<T> from(@NonNull String name, @NonNull Iterable<? extends T> source) {
+        return from(name, source, 64);
+    }
+
+    @Override
+    public <T> LintStonePipeline<T> from(@NonNull String name, @NonNull Iterable<? extends T> source, int buffer) {
+        return new PipelineBuilder<>(this, name, source, buffer);
+    }
+
+    @Override
+    public <I, K, V> CompletableFuture<Map<K, V>> mapReduce(@NonNull String name, @NonNull Iterable<? extends I> input, @NonNull MapReduceJob<I, K, V> job) {
+        return MapReduce.start(this, name, input, job);
+    }
+
+    @Override
+    public CodecRegistry getCodecRegistry() {
+        return codecs;
+    }
+
+    @Override
+    public InetSocketAddress bind(@NonNull String systemName, @NonNull InetSocketAddress address) throws IOException {
+        return transport().bind(systemName, address);
+    }
+
+    @Override
+    public void bindSharedMemory(@NonNull String systemName, @NonNull Path file, int ringSize, @NonNull WaitStrategy waitStrategy) throws IOException {
+        transport().bindSharedMemory(systemName, file, ringSize, waitStrategy);
+    }
+
+    @Override
+    public LintStoneActorAccessor getRemoteActor(@NonNull String address) {
+        return new RemoteActorAccessor(transport(), RemoteAddress.parse(address));
+    }
+
+    private @NonNull RemoteTransport transport() {
+        RemoteTransport current = transport.get();
+        if (current != null) {
+            return current;
+        }
+        if (processorFactory.isShutdown()) {
+            throw new IllegalStateException("The system is shut down");
+        }
+        RemoteTransport created = new RemoteTransport(this, codecs);
+        if (transport.compareAndSet(null, created)) {
+            created.start();
+            return created;
+        }
+        created.close();
+        return transport.get();
+    }
+
+    @Override
+    public void startWatchdog(@NonNull Duration threshold, @NonNull Duration interval, @NonNull StallHandler handler) {
+        Watchdog started = new Watchdog(this, threshold, interval, handler);
+        if (!watchdog.compareAndSet(null, started)) {
+            throw new IllegalStateException("The watchdog is already running");
+        }
+        started.start();
+    }
+
+    @Override
+    public void stopWatchdog() {
+        Optional.ofNullable(watchdog.getAndSet(null)).ifPresent(Watchdog::stop);
+    }
+
+    @NonNull DeadLetters deadLetters() {
+        return deadLetters;
+    }
+
+    @Override
+    public void registerMBeans(@NonNull String systemName, int actorBeanLimit) {
+        lockAll();
+        try {
+            if (jmx != null) {
+                throw new IllegalStateException("The MBeans are already registered");
+            }
+            JmxRegistration registration = new JmxRegistration(this, systemName, actorBeanLimit);
+            registration.register();
+            actors.forEach(registration::actorRegistered);
+            jmx = registration;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void unregisterMBeans() {
+        lockAll();
+        try {
+            Optional.ofNullable(jmx).ifPresent(JmxRegistration::unregister);
+            jmx = null;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    Collection<Actor> actors() {
+        return actors.values();
+    }
+
+    long totalMessages() {
+        return retiredMessages.get() + actors.values().stream().mapToLong(Actor::getTotalMessages).sum();
+    }
+
+    long totalReplies() {
+        return retiredReplies.get() + actors.values().stream().mapToLong(Actor::getTotalReplies).sum();
+    }
+
+    long totalErrors() {
+        return retiredErrors.get() + actors.values().stream().mapToLong(Actor::getTotalErrors).sum();
+    }
+
+    @NonNull Scheduler scheduler() {
+        return scheduler;
+    }
+
+    @NonNull ProcessorFactory processorFactory() {
+        return processorFactory;
+    }
 
     @Override
     public void shutDown() {
@@ -111,29 +592,82 @@ public class ActorSystem implements LintStoneSystem {
     }
 
     private void shutdownActors(boolean now) {
-        try (AutoClosableLock ignored = new AutoClosableLock(lock)) {
-            actors.entrySet().stream().map(Map.Entry::getValue).forEach(a -> a.shutdown(now));
+        stopWatchdog();
+        Optional.ofNullable(transport.getAndSet(null)).ifPresent(RemoteTransport::close);
+        lockAll();
+        try {
+            stopped = true;
+            actors.values().forEach(a -> a.shutdown(now));
+            // a stopped system should not leave its beans in the platform server
+            Optional.ofNullable(jmx).ifPresent(JmxRegistration::unregister);
+            jmx = null;
+        } finally {
+            unlockAll();
         }
     }
 
 
     @Override
     public boolean unregisterActor(@NonNull String name) {
-        try (AutoClosableLock ignored = new AutoClosableLock(lock)) {
-            Actor remove = actors.remove(name);
-            if (remove != null) {
-                // this actor will not accept any messages anymore. The Accesses should try to get a new instance or fail.
-                remove.unregisterGracefully();
-                return true;
+        Actor remove;
+        try (AutoClosableLock ignored = new AutoClosableLock(lockFor(name))) {
+            remove = actors.remove(name);
+            names.remove(name);
+        }
+        if (remove != null) {
+            retire(name, remove);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int unregisterActorsByPrefix(@NonNull String prefix) {
+        Map<String, Actor> removed = new HashMap<>();
+        lockAll();
+        try {
+            Iterator<String> iterator = names.tailSet(prefix, true).iterator();
+            while (iterator.hasNext()) {
+                String name = iterator.next();
+                if (!name.startsWith(prefix)) {
+                    // the index is sorted, so no other name can match
+                    break;
+                }
+                iterator.remove();
+                Optional.ofNullable(actors.remove(name)).ifPresent(actor -> removed.put(name, actor));
             }
-            return false;
+        } finally {
+            unlockAll();
         }
+        removed.forEach(this::retire);
+        return removed.size();
     }
 
     Optional<Actor> getOptionalActor(String name) {
         return Optional.ofNullable(actors.get(name));
     }
 
+    /**
+     * Retrieves the registered actor or creates it, if the name belongs to a registered family.
+     *
+     * @param name the name of the actor.
+     * @return the actor or nothing.
+     */
+    Optional<Actor> getOrCreateActor(String name) {
+        Actor actor = actors.get(name);
+        if (actor != null || families.isEmpty() || stopped) {
+            // a stopped system doesn't create family members anymore
+            return Optional.ofNullable(actor);
+        }
+        ActorFamily family = familyOf(name);
+        if (family == null) {
+            return Optional.empty();
+        }
+        // the id is only mapped to a factory by the registration that builds the member
+        return Optional.ofNullable(getOrRegister(name, () -> family.idToFactory().apply(name.substring(family.prefix().length())),
+                null, family.settings(), null));
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder("ActorSystem{");
@@ -144,4 +678,17 @@ public class ActorSystem implements LintStoneSystem {
 
         return stringBuilder.toString();
     }
+
+    /**
+     * A name that is reserved by a registration. The other registrations of the name wait for its actor.
+     *
+     * @param owner the thread that builds the actor.
+     * @param actor completed with the actor when it is published, or with null if the registration was cancelled.
+     */
+    private record Reservation(@NonNull Thread owner, @NonNull CompletableFuture<Actor> actor) {
+    }
+
+    private record ActorFamily(@NonNull String prefix, @NonNull Function<String, LintStoneActorFactory> idToFactory,
+                               @NonNull ActorSettings settings) {
+    }
 }
@@ -0,0 +1,65 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * The default codecs of the types, that are not records or enums.
+ */
+final class BasicCodecs {
+
+    static final @NonNull Map<Class<?>, MessageCodec<?>> CODECS = Map.of(
+            String.class, codec(Utf8::put, Utf8::get),
+            Integer.class, BasicCodecs.<Integer>codec(ByteBuffer::putInt, ByteBuffer::getInt),
+            Long.class, BasicCodecs.<Long>codec(ByteBuffer::putLong, ByteBuffer::getLong),
+            Double.class, BasicCodecs.<Double>codec(ByteBuffer::putDouble, ByteBuffer::getDouble),
+            Float.class, BasicCodecs.<Float>codec(ByteBuffer::putFloat, ByteBuffer::getFloat),
+            Short.class, BasicCodecs.<Short>codec(ByteBuffer::putShort, ByteBuffer::getShort),
+            Byte.class, BasicCodecs.<Byte>codec(ByteBuffer::put, ByteBuffer::get),
+            Character.class, BasicCodecs.<Character>codec(ByteBuffer::putChar, ByteBuffer::getChar),
+            Boolean.class, BasicCodecs.<Boolean>codec((b, v) -> b.put((byte) (v ? 1 : 0)), b -> b.get() != 0),
+            byte[].class, codec(BasicCodecs::putBytes, BasicCodecs::getBytes));
+
+    private BasicCodecs() {
+    }
+
+    private interface Writer<T> {
+        void write(ByteBuffer target, T value);
+    }
+
+    private interface Reader<T> {
+        T read(ByteBuffer source);
+    }
+
+    private static <T> MessageCodec<T> codec(Writer<T> writer, Reader<T> reader) {
+        return new MessageCodec<>() {
+            @Override
+            public void encode(@NonNull T message, @NonNull ByteBuffer target) {
+                writer.write(target, message);
+            }
+
+            @Override
+            public @NonNull T decode(@NonNull ByteBuffer source) {
+                return reader.read(source);
+            }
+        };
+    }
+
+    private static void putBytes(ByteBuffer target, byte[] value) {
+        target.putInt(value.length);
+        target.put(value);
+    }
+
+    private static byte[] getBytes(ByteBuffer source) {
+        int length = source.getInt();
+        if (length < 0 || length > source.remaining()) {
+            throw new IllegalArgumentException("Invalid array length " + length);
+        }
+        byte[] value = new byte[length];
+        source.get(value);
+        return value;
+    }
+}
@@ -0,0 +1,40 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.BufferLeakHandler;
+import paxel.lintstone.api.LintStoneBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Leases direct buffers from one {@link BufferPool} per power of two size class. Larger leases are not pooled.
+ */
+class BufferLeasePool {
+
+    static final int MIN_SHIFT = 10;
+    static final int MAX_SHIFT = 22;
+    private static final int MAX_POOLED = 64;
+
+    private final @NonNull BufferPool[] classes = new BufferPool[MAX_SHIFT - MIN_SHIFT + 1];
+    private volatile BufferLeakHandler leakHandler;
+
+    BufferLeasePool() {
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new BufferPool(1 << (MIN_SHIFT + i), MAX_POOLED);
+        }
+    }
+
+    @NonNull LintStoneBuffer lease(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int shift = Math.max(MIN_SHIFT, Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1));
+        BufferPool pool = shift > MAX_SHIFT ? null : classes[shift - MIN_SHIFT];
+        ByteBuffer buffer = pool == null ? ByteBuffer.allocateDirect(capacity) : pool.acquire();
+        return new LeasedBuffer(pool, buffer.limit(capacity), leakHandler);
+    }
+
+    void setLeakHandler(BufferLeakHandler leakHandler) {
+        this.leakHandler = leakHandler;
+    }
+}
@@ -0,0 +1,70 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A pool of direct {@link ByteBuffer}s of equal size, so that encoding messages doesn't allocate.
+ * If the pool is empty, a new buffer is allocated. If it is full, a released buffer is left to the GC.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final @NonNull ArrayBlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param bufferSize the capacity of the buffers.
+     * @param maxPooled  the maximum number of buffers kept in the pool.
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("bufferSize and maxPooled must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Takes a cleared buffer from the pool.
+     *
+     * @return the buffer.
+     */
+    public @NonNull ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterward.
+     *
+     * @param buffer a buffer of this pool.
+     */
+    public void release(@NonNull ByteBuffer buffer) {
+        if (!buffer.isDirect() || buffer.capacity() != bufferSize) {
+            throw new IllegalArgumentException("The buffer is not from this pool");
+        }
+        buffers.offer(buffer.clear());
+    }
+
+    /**
+     * Retrieve the capacity of the buffers.
+     *
+     * @return the size in bytes.
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Retrieve the number of buffers in the pool.
+     *
+     * @return the number of idle buffers.
+     */
+    public int pooled() {
+        return buffers.size();
+    }
+}
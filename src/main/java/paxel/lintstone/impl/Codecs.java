@@ -0,0 +1,75 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.CodecRegistry;
+import paxel.lintstone.api.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link CodecRegistry} of an {@link ActorSystem}.
+ */
+public class Codecs implements CodecRegistry {
+
+    private final @NonNull Map<Class<?>, MessageCodec<?>> codecs = new ConcurrentHashMap<>(BasicCodecs.CODECS);
+    private final @NonNull Map<String, Class<?>> names = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry with the default codecs.
+     */
+    public Codecs() {
+        BasicCodecs.CODECS.keySet().forEach(type -> names.put(type.getName(), type));
+    }
+
+    @Override
+    public <T> void register(@NonNull Class<T> type, @NonNull MessageCodec<T> codec) {
+        codecs.put(type, codec);
+        names.put(type.getName(), type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public <T> @NonNull MessageCodec<T> codecFor(@NonNull Class<T> type) {
+        MessageCodec<T> codec = (MessageCodec<T>) codecs.get(type);
+        if (codec != null) {
+            return codec;
+        }
+        // not inside computeIfAbsent, because a record codec may create the codecs of its components
+        MessageCodec<?> created;
+        if (type.isRecord()) {
+            created = new RecordCodec(type, this);
+        } else if (type.isEnum()) {
+            created = new EnumCodec(type);
+        } else {
+            throw new IllegalArgumentException("No codec for " + type.getName());
+        }
+        MessageCodec<?> existing = codecs.putIfAbsent(type, created);
+        names.putIfAbsent(type.getName(), type);
+        return (MessageCodec<T>) (existing == null ? created : existing);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void encode(@NonNull Object message, @NonNull ByteBuffer target) {
+        Class<Object> type = (Class<Object>) message.getClass();
+        MessageCodec<Object> codec = codecFor(type);
+        Utf8.put(target, type.getName());
+        codec.encode(message, target);
+    }
+
+    @Override
+    public @NonNull Object decode(@NonNull ByteBuffer source) {
+        String name = Utf8.get(source);
+        Class<?> type = names.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown message type " + name);
+        }
+        return codecFor(type).decode(source);
+    }
+
+    boolean isSupported(@NonNull Class<?> type) {
+        return type.isRecord() || type.isEnum() || codecs.containsKey(type);
+    }
+}
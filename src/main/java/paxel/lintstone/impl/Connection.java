@@ -0,0 +1,216 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.AutoClosableLock;
+import paxel.lintstone.api.UnregisteredRecipientException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A TCP connection between two systems. The frames are encoded directly into the current chunk of the connection,
+ * a pooled buffer, under a lock, which keeps their order. The transport thread writes all filled chunks with one
+ * gathering write and reads the incoming frames. A frame must fit into one chunk.
+ */
+final class Connection extends Link {
+
+    private static final int MAX_BATCH = 64;
+
+    private final @NonNull SocketChannel channel;
+    private final @NonNull ReentrantLock chunkLock = new ReentrantLock();
+    private final @NonNull ArrayDeque<Chunk> filled = new ArrayDeque<>();
+    private final @NonNull AtomicInteger queued = new AtomicInteger();
+    private final @NonNull AtomicBoolean flushRequested = new AtomicBoolean();
+    private final @NonNull Runnable flush = this::flush;
+    // guarded by the chunkLock
+    private ByteBuffer current;
+    private int currentFrames;
+    // only used by the transport thread
+    private final @NonNull Chunk[] batch = new Chunk[MAX_BATCH];
+    private final @NonNull ByteBuffer[] buffers = new ByteBuffer[MAX_BATCH];
+    private final @NonNull ByteBuffer input;
+    private int batchSize;
+    private SelectionKey selectionKey;
+    private volatile boolean closed;
+
+    /**
+     * @param key the key in the outbound connections or null for inbound connections.
+     */
+    Connection(@NonNull RemoteTransport transport, @NonNull SocketChannel channel, String key) {
+        super(transport, key);
+        this.channel = channel;
+        this.input = ByteBuffer.allocateDirect(transport.pool().bufferSize());
+    }
+
+    @Override
+    void send(byte type, long correlation, @NonNull String text, Object message) throws UnregisteredRecipientException {
+        try (AutoClosableLock ignored = new AutoClosableLock(chunkLock)) {
+            if (closed) {
+                throw closedException();
+            }
+            if (current == null) {
+                current = transport.pool().acquire();
+            }
+            if (!encode(current, type, correlation, text, message)) {
+                if (current.position() == 0) {
+                    throw tooLarge(transport.pool().bufferSize());
+                }
+                filled.add(new Chunk(current.flip(), currentFrames));
+                current = transport.pool().acquire();
+                currentFrames = 0;
+                if (!encode(current, type, correlation, text, message)) {
+                    throw tooLarge(transport.pool().bufferSize());
+                }
+            }
+            currentFrames++;
+        }
+        queued.incrementAndGet();
+        // one wakeup of the transport thread writes all frames sent until then
+        if (flushRequested.compareAndSet(false, true)) {
+            transport.execute(flush);
+        }
+    }
+
+    @Override
+    int queued() {
+        return queued.get();
+    }
+
+    @Override
+    boolean isClosed() {
+        return closed;
+    }
+
+    void register(@NonNull SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
+    void flush() {
+        flushRequested.set(false);
+        if (closed) {
+            return;
+        }
+        try {
+            while (true) {
+                take();
+                if (batchSize == 0) {
+                    selectionKey.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                for (int i = 0; i < batchSize; i++) {
+                    buffers[i] = batch[i].buffer();
+                }
+                channel.write(buffers, 0, batchSize);
+                int written = 0;
+                while (written < batchSize && !batch[written].buffer().hasRemaining()) {
+                    transport.pool().release(batch[written].buffer());
+                    queued.addAndGet(-batch[written++].frames());
+                }
+                System.arraycopy(batch, written, batch, 0, batchSize - written);
+                batchSize -= written;
+                if (batchSize > 0) {
+                    // the socket is full. continue when it is writable
+                    selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Moves the filled chunks and the current chunk into the batch.
+     */
+    private void take() {
+        try (AutoClosableLock ignored = new AutoClosableLock(chunkLock)) {
+            while (batchSize < MAX_BATCH && !filled.isEmpty()) {
+                batch[batchSize++] = filled.poll();
+            }
+            if (batchSize < MAX_BATCH && current != null && current.position() > 0) {
+                batch[batchSize++] = new Chunk(current.flip(), currentFrames);
+                current = null;
+                currentFrames = 0;
+            }
+        }
+    }
+
+    void read() throws IOException {
+        if (channel.read(input) < 0) {
+            close();
+            return;
+        }
+        input.flip();
+        while (input.remaining() >= Integer.BYTES) {
+            int length = input.getInt(input.position());
+            if (length <= 0 || length > input.capacity() - Integer.BYTES) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (input.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            int end = input.position() + Integer.BYTES + length;
+            int limit = input.limit();
+            input.position(input.position() + Integer.BYTES).limit(end);
+            try {
+                transport.receive(this, input);
+            } finally {
+                input.limit(limit).position(end);
+            }
+            if (closed) {
+                return;
+            }
+        }
+        input.compact();
+    }
+
+    @Override
+    void close() {
+        if (closed) {
+            return;
+        }
+        try (AutoClosableLock ignored = new AutoClosableLock(chunkLock)) {
+            // senders holding the lock finish their frame, later ones see the flag
+            closed = true;
+        }
+        if (selectionKey != null) {
+            selectionKey.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing left to do with the channel
+        }
+        transport.closed(this);
+        failPending();
+        for (int i = 0; i < batchSize; i++) {
+            transport.pool().release(batch[i].buffer());
+        }
+        batchSize = 0;
+        try (AutoClosableLock ignored = new AutoClosableLock(chunkLock)) {
+            filled.forEach(chunk -> transport.pool().release(chunk.buffer()));
+            filled.clear();
+            if (current != null) {
+                transport.pool().release(current);
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * A buffer with complete frames.
+     */
+    private record Chunk(@NonNull ByteBuffer buffer, int frames) {
+    }
+
+    @Override
+    @NonNull UnregisteredRecipientException closedException() {
+        return new UnregisteredRecipientException("The connection " + (key() == null ? "from " + channel : "to " + key()) + " is closed");
+    }
+}
@@ -0,0 +1,16 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.DeadLetterReason;
+import paxel.lintstone.api.LintStoneDeadLetter;
+
+/**
+ * Implementation of {@link LintStoneDeadLetter}.
+ *
+ * @param recipient the name of the recipient.
+ * @param message   the undelivered message.
+ * @param reason    the reason.
+ */
+public record DeadLetter(@NonNull String recipient, @NonNull Object message,
+                         @NonNull DeadLetterReason reason) implements LintStoneDeadLetter {
+}
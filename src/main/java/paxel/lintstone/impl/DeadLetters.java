@@ -0,0 +1,69 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.DeadLetterHandler;
+import paxel.lintstone.api.DeadLetterReason;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the undelivered messages per reason and hands a sample of them to the {@link DeadLetterHandler}.
+ */
+class DeadLetters {
+
+    private static final DeadLetterReason[] REASONS = DeadLetterReason.values();
+
+    private final @NonNull LongAdder[] counters = new LongAdder[REASONS.length];
+    // marks threads that are inside the handler, so it can't cause an endless loop
+    private final @NonNull ThreadLocal<Boolean> handling = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private volatile Sink sink;
+
+    DeadLetters() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    void setHandler(DeadLetterHandler handler, double samplingRate) {
+        if (samplingRate < 0 || samplingRate > 1) {
+            throw new IllegalArgumentException("samplingRate must be between 0 and 1");
+        }
+        sink = handler == null ? null : new Sink(handler, samplingRate);
+    }
+
+    void record(@NonNull String recipient, @NonNull Object message, @NonNull DeadLetterReason reason) {
+        counters[reason.ordinal()].increment();
+        Sink current = sink;
+        if (current == null || !current.sampled() || handling.get()) {
+            return;
+        }
+        handling.set(Boolean.TRUE);
+        try {
+            current.handler().handle(new DeadLetter(recipient, message, reason));
+        } catch (RuntimeException e) {
+            // a failing handler must not break the sender. the letter is counted anyway
+        } finally {
+            handling.set(Boolean.FALSE);
+        }
+    }
+
+    long count(@NonNull DeadLetterReason reason) {
+        return counters[reason.ordinal()].sum();
+    }
+
+    long total() {
+        long total = 0;
+        for (LongAdder counter : counters) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    private record Sink(@NonNull DeadLetterHandler handler, double samplingRate) {
+
+        boolean sampled() {
+            return samplingRate >= 1 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+        }
+    }
+}
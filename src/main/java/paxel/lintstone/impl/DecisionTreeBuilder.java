@@ -1,7 +1,11 @@
 package paxel.lintstone.impl;
 
 import lombok.NonNull;
+import paxel.lintstone.api.LintStoneBatchHandler;
+import paxel.lintstone.api.LintStoneDoubleHandler;
 import paxel.lintstone.api.LintStoneEventHandler;
+import paxel.lintstone.api.LintStoneIntHandler;
+import paxel.lintstone.api.LintStoneLongHandler;
 import paxel.lintstone.api.MessageAccess;
 
 import java.util.ArrayList;
@@ -11,7 +15,7 @@ import java.util.List;
  * A specialized {@link MessageAccess} that records handlers instead of executing them immediately.
  */
 class DecisionTreeBuilder implements MessageAccess {
-    private final List<StaticDecisionTree.HandlerEntry<?>> handlers = new ArrayList<>();
+    private final List<StaticDecisionTree.Entry> handlers = new ArrayList<>();
     private LintStoneEventHandler<Object> otherwiseHandler;
 
     @Override
@@ -20,6 +24,33 @@ class DecisionTreeBuilder implements MessageAccess {
         return this;
     }
 
+    @Override
+    public <T> @NonNull MessageAccess inCaseBatch(@NonNull Class<T> clazz, int maxBatch, @NonNull LintStoneBatchHandler<T> batchHandler) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        handlers.add(new StaticDecisionTree.BatchEntry<>(clazz, maxBatch, batchHandler));
+        return this;
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseInt(@NonNull LintStoneIntHandler handler) {
+        handlers.add(new StaticDecisionTree.IntEntry(handler));
+        return this;
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseLong(@NonNull LintStoneLongHandler handler) {
+        handlers.add(new StaticDecisionTree.LongEntry(handler));
+        return this;
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseDouble(@NonNull LintStoneDoubleHandler handler) {
+        handlers.add(new StaticDecisionTree.DoubleEntry(handler));
+        return this;
+    }
+
     @Override
     public void otherwise(@NonNull LintStoneEventHandler<Object> catchAll) {
         this.otherwiseHandler = catchAll;
@@ -31,6 +62,6 @@ class DecisionTreeBuilder implements MessageAccess {
      * @return the decision tree.
      */
     DecisionTree build() {
-        return new StaticDecisionTree(handlers.toArray(new StaticDecisionTree.HandlerEntry[0]), otherwiseHandler);
+        return new StaticDecisionTree(handlers.toArray(new StaticDecisionTree.Entry[0]), otherwiseHandler);
     }
 }
@@ -0,0 +1,13 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneDemand;
+import paxel.lintstone.api.LintStonePublisher;
+
+/**
+ * The demand of the subscribers of a publisher.
+ *
+ * @param publisher the publisher.
+ */
+record Demand(@NonNull LintStonePublisher<?> publisher) implements LintStoneDemand {
+}
@@ -0,0 +1,34 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneMessageEventContext;
+import paxel.lintstone.api.ReplyHandler;
+
+/**
+ * A reply handler that only passes the reply on, e.g. to a future, and is thread safe. If it was asked from outside
+ * the actors, the replying actor hands the reply over directly instead of queueing the handler in its own mailbox.
+ */
+@FunctionalInterface
+interface DirectReplyHandler extends ReplyHandler {
+
+    /**
+     * Takes the reply.
+     *
+     * @param reply the reply.
+     */
+    void complete(@NonNull Object reply);
+
+    /**
+     * Takes the failure of the asked actor instead of a reply. It is called in the context of the asking actor, if
+     * there is one. Ignored by default.
+     *
+     * @param error the failure.
+     */
+    default void failed(@NonNull Throwable error) {
+    }
+
+    @Override
+    default void process(LintStoneMessageEventContext mec) {
+        mec.otherwise((reply, ctx) -> complete(reply));
+    }
+}
@@ -0,0 +1,34 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MessageCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes enum constants by their ordinal.
+ *
+ * @param <T> the enum type.
+ */
+final class EnumCodec<T extends Enum<T>> implements MessageCodec<T> {
+
+    private final T[] constants;
+
+    EnumCodec(@NonNull Class<T> type) {
+        this.constants = type.getEnumConstants();
+    }
+
+    @Override
+    public void encode(@NonNull T message, @NonNull ByteBuffer target) {
+        target.putInt(message.ordinal());
+    }
+
+    @Override
+    public @NonNull T decode(@NonNull ByteBuffer source) {
+        int ordinal = source.getInt();
+        if (ordinal < 0 || ordinal >= constants.length) {
+            throw new IllegalArgumentException("Invalid ordinal " + ordinal + " of " + constants.getClass().getComponentType().getName());
+        }
+        return constants[ordinal];
+    }
+}
@@ -0,0 +1,40 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reduces the items of a pipeline by key and emits the results by key after the end, in the order of the first
+ * item of each key.
+ */
+final class GroupReduction implements Pipeline.Operator {
+
+    private final @NonNull Function<Object, Object> key;
+    private final Object identity;
+    private final @NonNull BiFunction<Object, Object, Object> accumulator;
+    private final @NonNull Map<Object, Object> groups = new LinkedHashMap<>();
+
+    GroupReduction(@NonNull Function<Object, Object> key, Object identity, @NonNull BiFunction<Object, Object, Object> accumulator) {
+        this.key = key;
+        this.identity = identity;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    public void accept(Object item, @NonNull Consumer<Object> next) {
+        Object group = key.apply(item);
+        groups.put(group, accumulator.apply(groups.getOrDefault(group, identity), item));
+    }
+
+    @Override
+    public void end(@NonNull Consumer<Object> next) {
+        groups.forEach((group, result) -> next.accept(new AbstractMap.SimpleImmutableEntry<>(group, result)));
+        groups.clear();
+    }
+}
@@ -0,0 +1,165 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The JMX registration of an {@link ActorSystem}. The system bean collects its values on each read, so it costs
+ * nothing between reads. Actor beans are only registered for the first {@code actorBeanLimit} actors. All actors are
+ * available in the table of the system bean.
+ */
+class JmxRegistration implements LintStoneSystemMXBean {
+
+    private static final String DOMAIN = "paxel.lintstone";
+
+    private final @NonNull ActorSystem system;
+    private final @NonNull String systemName;
+    private final int actorBeanLimit;
+    private final @NonNull MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final @NonNull ObjectName objectName;
+    private final @NonNull Map<String, ObjectName> actorBeans = new ConcurrentHashMap<>();
+    private final @NonNull AtomicInteger actorBeanCount = new AtomicInteger();
+
+    JmxRegistration(@NonNull ActorSystem system, @NonNull String systemName, int actorBeanLimit) {
+        this.system = system;
+        this.systemName = systemName;
+        this.actorBeanLimit = actorBeanLimit;
+        this.objectName = objectName("type=LintStoneSystem,name=" + ObjectName.quote(systemName));
+    }
+
+    void register() {
+        try {
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + objectName, e);
+        }
+    }
+
+    void unregister() {
+        actorBeans.keySet().forEach(this::actorUnregistered);
+        unregister(objectName);
+    }
+
+    void actorRegistered(@NonNull String name, @NonNull Actor actor) {
+        if (actorBeanCount.incrementAndGet() > actorBeanLimit) {
+            actorBeanCount.decrementAndGet();
+            return;
+        }
+        ObjectName actorObjectName = objectName("type=Actor,system=" + ObjectName.quote(systemName) + ",name=" + ObjectName.quote(name));
+        ActorMXBean bean = () -> ActorInfo.of(actor.snapshot());
+        try {
+            server.registerMBean(bean, actorObjectName);
+            actorBeans.put(name, actorObjectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // the bean of a replaced actor is not yet removed. the new one is still visible in the system table
+            actorBeanCount.decrementAndGet();
+        } catch (JMException e) {
+            actorBeanCount.decrementAndGet();
+            throw new IllegalStateException("Could not register " + actorObjectName, e);
+        }
+    }
+
+    void actorUnregistered(@NonNull String name) {
+        ObjectName actorObjectName = actorBeans.remove(name);
+        if (actorObjectName != null) {
+            unregister(actorObjectName);
+            actorBeanCount.decrementAndGet();
+        }
+    }
+
+    private void unregister(@NonNull ObjectName name) {
+        try {
+            server.unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            // already gone
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister " + name, e);
+        }
+    }
+
+    private static @NonNull ObjectName objectName(@NonNull String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public int getActorCount() {
+        return system.actors().size();
+    }
+
+    @Override
+    public long getTotalMessages() {
+        return system.totalMessages();
+    }
+
+    @Override
+    public long getTotalReplies() {
+        return system.totalReplies();
+    }
+
+    @Override
+    public long getTotalErrors() {
+        return system.totalErrors();
+    }
+
+    @Override
+    public long getDeadLetters() {
+        return system.deadLetters().total();
+    }
+
+    @Override
+    public long getQueuedMessages() {
+        long queued = 0;
+        for (Actor actor : system.actors()) {
+            queued += actor.getQueued();
+        }
+        return queued;
+    }
+
+    @Override
+    public int getSchedulerBacklog() {
+        return system.scheduler().backlog();
+    }
+
+    @Override
+    public boolean isExecutorShutdown() {
+        return system.processorFactory().isShutdown();
+    }
+
+    @Override
+    public String getExecutor() {
+        return system.processorFactory().toString();
+    }
+
+    @Override
+    public ActorInfo[] getActors() {
+        return system.snapshot().actors().stream()
+                .map(ActorInfo::of)
+                .toArray(ActorInfo[]::new);
+    }
+
+    @Override
+    public ActorInfo[] topActorsByBacklog(int count) {
+        return system.snapshot().topByBacklog(count).stream()
+                .map(ActorInfo::of)
+                .toArray(ActorInfo[]::new);
+    }
+
+    @Override
+    public ActorInfo actor(String name) {
+        return system.getOptionalActor(name).map(a -> ActorInfo.of(a.snapshot())).orElse(null);
+    }
+}
@@ -0,0 +1,177 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LatencySnapshot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free log-linear histogram of nanosecond values. Every power of two is divided into
+ * {@value #SUB_BUCKETS} linear buckets, so the recorded values are precise to about 6%.
+ * Values above 2^{@value #MAX_EXPONENT} ns (about 18 minutes) are recorded in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param nanos the value in nanoseconds.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(nanos));
+    }
+
+    /**
+     * Copies the current counts into an immutable snapshot. The snapshot is not atomic in respect to concurrent
+     * recordings, but each bucket is consistent. Only the range of the used buckets is copied, which is usually
+     * a small part of the histogram.
+     *
+     * @return the snapshot.
+     */
+    public @NonNull LatencySnapshot snapshot() {
+        int first = 0;
+        while (first < BUCKETS && counts.get(first) == 0) {
+            first++;
+        }
+        int last = BUCKETS - 1;
+        while (last > first && counts.get(last) == 0) {
+            last--;
+        }
+        long[] copy = new long[Math.max(0, last - first + 1)];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(first + i);
+        }
+        return new LatencySnapshotImpl(first, copy);
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * The smallest value that is recorded in the bucket.
+     */
+    static long lowestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * The biggest value that is recorded in the bucket.
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return lowestValueOf(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of the bucket counts.
+     *
+     * @param offset the index of the first copied bucket.
+     * @param counts the counts per bucket, starting with the bucket at the offset.
+     */
+    record LatencySnapshotImpl(int offset, long @NonNull [] counts) implements LatencySnapshot {
+
+        @Override
+        public long count() {
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            return count;
+        }
+
+        @Override
+        public long minNanos() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return lowestValueOf(offset + i);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public long maxNanos() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueOf(offset + i);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public double meanNanos() {
+            long count = 0;
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    count += counts[i];
+                    // the middle of the bucket
+                    sum += counts[i] * ((lowestValueOf(offset + i) + highestValueOf(offset + i)) / 2.0);
+                }
+            }
+            return count == 0 ? 0 : sum / count;
+        }
+
+        @Override
+        public long percentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueOf(offset + i);
+                }
+            }
+            return maxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "Latency{" +
+                    "count=" + count() +
+                    ", mean=" + (long) meanNanos() +
+                    ", p50=" + percentileNanos(50) +
+                    ", p99=" + percentileNanos(99) +
+                    ", p99.9=" + percentileNanos(99.9) +
+                    ", max=" + maxNanos() +
+                    '}';
+        }
+    }
+}
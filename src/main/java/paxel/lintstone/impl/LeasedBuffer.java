@@ -0,0 +1,128 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.BufferLeakHandler;
+import paxel.lintstone.api.LintStoneBuffer;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lease of a pooled buffer. The actors count the transfers of the lease, so that the receiving actor only releases
+ * it after the handler, if the handler didn't send it on.
+ */
+final class LeasedBuffer implements LintStoneBuffer {
+
+    private final BufferPool pool;
+    private final @NonNull ByteBuffer buffer;
+    private final @NonNull AtomicBoolean released = new AtomicBoolean();
+    private final @NonNull AtomicInteger transfers = new AtomicInteger();
+    // both are null without leak detection
+    private final Leak leak;
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * @param pool        the pool of the buffer or null if it is not pooled.
+     * @param leakHandler the handler of a leak of this lease or null.
+     */
+    LeasedBuffer(BufferPool pool, @NonNull ByteBuffer buffer, BufferLeakHandler leakHandler) {
+        this.pool = pool;
+        this.buffer = buffer;
+        if (leakHandler == null) {
+            leak = null;
+            cleanable = null;
+        } else {
+            leak = new Leak(buffer.limit(), new Throwable("Leased here"), leakHandler);
+            cleanable = Leak.CLEANER.register(this, leak);
+        }
+    }
+
+    @Override
+    public @NonNull ByteBuffer buffer() {
+        if (released.get()) {
+            throw new IllegalStateException("The lease was released");
+        }
+        return buffer;
+    }
+
+    @Override
+    public void release() {
+        if (!tryRelease()) {
+            throw new IllegalStateException("The lease was released already");
+        }
+    }
+
+    /**
+     * Releases the lease if it is not released yet.
+     *
+     * @return {@code false} if it was released already.
+     */
+    boolean tryRelease() {
+        if (!released.compareAndSet(false, true)) {
+            return false;
+        }
+        if (leak != null) {
+            leak.released = true;
+            cleanable.clean();
+        }
+        if (pool != null) {
+            pool.release(buffer);
+        }
+        return true;
+    }
+
+    /**
+     * Called when the lease is sent to an actor.
+     */
+    void transfer() {
+        transfers.incrementAndGet();
+    }
+
+    int transfers() {
+        return transfers.get();
+    }
+
+    /**
+     * Called after the receiving handler. Releases the lease, if it was not sent again since it was received.
+     *
+     * @param received the transfers when the lease was received.
+     */
+    void handled(int received) {
+        if (transfers.get() == received) {
+            tryRelease();
+        }
+    }
+
+    /**
+     * Reports the lease to the handler if it is collected before it was released. It must not reference the lease.
+     */
+    private static final class Leak implements Runnable {
+        // created on the first lease with leak detection
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final int capacity;
+        private final @NonNull Throwable leasedAt;
+        private final @NonNull BufferLeakHandler handler;
+        private volatile boolean released;
+
+        Leak(int capacity, @NonNull Throwable leasedAt, @NonNull BufferLeakHandler handler) {
+            this.capacity = capacity;
+            this.leasedAt = leasedAt;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            if (released) {
+                return;
+            }
+            try {
+                handler.leaked(capacity, leasedAt);
+            } catch (RuntimeException e) {
+                // a failing handler must not kill the cleaner thread
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneActorAccessor;
+import paxel.lintstone.api.UnregisteredRecipientException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bidirectional channel of frames between two systems. Any thread may send frames and they are delivered in the
+ * order they were sent. The incoming frames are given to {@link RemoteTransport#receive(Link, ByteBuffer)}
+ * by one thread.
+ * <p>
+ * A frame is {@code [int length][byte type][long correlation][string text][payload]}, where the length counts
+ * the bytes after itself.
+ */
+abstract class Link {
+
+    protected final @NonNull RemoteTransport transport;
+    private final String key;
+    private final @NonNull Map<Long, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final @NonNull AtomicLong correlation = new AtomicLong();
+    // only used by the receiving thread
+    private final @NonNull Map<String, LintStoneActorAccessor> cache = new HashMap<>();
+    private boolean verified;
+
+    /**
+     * @param key the key in the outbound links or null for inbound links. The other side of an outbound link
+     *            doesn't have to send a HELLO.
+     */
+    Link(@NonNull RemoteTransport transport, String key) {
+        this.transport = transport;
+        this.key = key;
+        this.verified = key != null;
+    }
+
+    /**
+     * Sends a frame.
+     *
+     * @throws UnregisteredRecipientException if the link is closed.
+     * @throws IllegalArgumentException       if the message can't be encoded or is too large.
+     */
+    abstract void send(byte type, long correlation, @NonNull String text, Object message) throws UnregisteredRecipientException;
+
+    /**
+     * @return the number of frames, that are not handed to the other side yet.
+     */
+    abstract int queued();
+
+    abstract boolean isClosed();
+
+    abstract void close();
+
+    @NonNull CompletableFuture<Object> ask(@NonNull String target, @NonNull Object message) throws UnregisteredRecipientException {
+        long id = correlation.incrementAndGet();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        pending.put(id, result);
+        try {
+            send(RemoteTransport.ASK, id, target, message);
+        } catch (RuntimeException e) {
+            pending.remove(id);
+            throw e;
+        }
+        return result;
+    }
+
+    CompletableFuture<Object> completion(long id) {
+        return pending.remove(id);
+    }
+
+    String key() {
+        return key;
+    }
+
+    boolean isVerified() {
+        return verified;
+    }
+
+    void verified() {
+        verified = true;
+    }
+
+    /**
+     * The accessors of the local actors addressed by the incoming frames.
+     */
+    @NonNull Map<String, LintStoneActorAccessor> cache() {
+        return cache;
+    }
+
+    /**
+     * Writes a frame at the position of the target.
+     *
+     * @return {@code false} if the frame doesn't fit. The position is unchanged then.
+     */
+    boolean encode(@NonNull ByteBuffer target, byte type, long correlation, @NonNull String text, Object message) {
+        int start = target.position();
+        try {
+            target.putInt(0).put(type).putLong(correlation);
+            Utf8.put(target, text);
+            if (message != null) {
+                transport.codecs().encode(message, target);
+            }
+            target.putInt(start, target.position() - start - Integer.BYTES);
+            return true;
+        } catch (BufferOverflowException e) {
+            target.position(start);
+            return false;
+        } catch (RuntimeException e) {
+            target.position(start);
+            throw e;
+        }
+    }
+
+    @NonNull IllegalArgumentException tooLarge(int frameSize) {
+        return new IllegalArgumentException("The message exceeds the frame size of " + frameSize + " bytes");
+    }
+
+    /**
+     * Fails the asks, that are waiting for a reply.
+     */
+    void failPending() {
+        for (Long id : pending.keySet()) {
+            CompletableFuture<Object> future = pending.remove(id);
+            if (future != null) {
+                future.completeExceptionally(closedException());
+            }
+        }
+    }
+
+    abstract @NonNull UnregisteredRecipientException closedException();
+}
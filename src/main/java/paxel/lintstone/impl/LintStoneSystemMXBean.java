@@ -0,0 +1,93 @@
+package paxel.lintstone.impl;
+
+/**
+ * JMX view of a {@link ActorSystem}. See {@link ActorSystem#registerMBeans(String, int)}.
+ */
+public interface LintStoneSystemMXBean {
+
+    /**
+     * Retrieve the number of registered actors.
+     *
+     * @return the actor count.
+     */
+    int getActorCount();
+
+    /**
+     * Retrieve the number of messages sent to actors since the start of the system, including unregistered actors.
+     *
+     * @return the messages.
+     */
+    long getTotalMessages();
+
+    /**
+     * Retrieve the number of replies sent to actors since the start of the system, including unregistered actors.
+     *
+     * @return the replies.
+     */
+    long getTotalReplies();
+
+    /**
+     * Retrieve the number of failed messages and replies since the start of the system, including unregistered actors.
+     *
+     * @return the errors.
+     */
+    long getTotalErrors();
+
+    /**
+     * Retrieve the number of messages and replies that could not be delivered, for all reasons.
+     *
+     * @return the dead letters.
+     */
+    long getDeadLetters();
+
+    /**
+     * Retrieve the number of queued messages and replies of all actors.
+     *
+     * @return the backlog.
+     */
+    long getQueuedMessages();
+
+    /**
+     * Retrieve the number of delayed messages and tasks waiting in the scheduler.
+     *
+     * @return the scheduler backlog.
+     */
+    int getSchedulerBacklog();
+
+    /**
+     * Retrieve if the executor is shut down.
+     *
+     * @return {@code true} if shut down.
+     */
+    boolean isExecutorShutdown();
+
+    /**
+     * Retrieve a description of the executor.
+     *
+     * @return the executor.
+     */
+    String getExecutor();
+
+    /**
+     * Retrieve the statistics of all actors as one table. This is collected on each read.
+     *
+     * @return the actor statistics.
+     */
+    ActorInfo[] getActors();
+
+    /**
+     * Retrieve the statistics of the actors with the biggest backlog.
+     *
+     * @param count the maximum number of actors.
+     * @return the actor statistics.
+     */
+    ActorInfo[] topActorsByBacklog(int count);
+
+    /**
+     * Retrieve the statistics of one actor.
+     *
+     * @param name the name of the actor.
+     * @return the actor statistics or null.
+     */
+    ActorInfo actor(String name);
+}
@@ -0,0 +1,144 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MapReduceJob;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link MapReduceJob} as a pipeline: the source, the mappers with their combiners, the reducers and the
+ * levels of the merge tree. The mappers send {@link Partial}s to the reducer of their keys. The reducers and
+ * the merge actors send their result to the actor of the next level, whose index is their own divided by the fan in.
+ */
+final class MapReduce {
+
+    private MapReduce() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <I, K, V> CompletableFuture<Map<K, V>> start(@NonNull ActorSystem system, @NonNull String name,
+                                                       @NonNull Iterable<? extends I> input, @NonNull MapReduceJob<I, K, V> job) {
+        int reducers = job.reducers();
+        int fanIn = job.mergeFanIn();
+        BinaryOperator<Object> combiner = (BinaryOperator<Object>) job.combiner();
+        List<Pipeline.Spec> specs = new ArrayList<>();
+        specs.add(Pipeline.Spec.source(input));
+        Pipeline.Spec level = Pipeline.Spec.operator(job.mappers(),
+                instance -> new Combiner((MapReduceJob<Object, Object, Object>) job, reducers));
+        specs.add(level);
+        int width = reducers;
+        do {
+            level.partitioner(item -> ((Partial) item).partition());
+            level = Pipeline.Spec.operator(width, instance -> new Merge(combiner, instance / fanIn));
+            specs.add(level);
+            width = (width + fanIn - 1) / fanIn;
+        } while (level.instances() > 1);
+        AtomicReference<Map<Object, Object>> result = new AtomicReference<>();
+        level.sink(item -> result.set(((Partial) item).values()));
+        return new Pipeline(system, name, 64, specs).start().thenApply(ignored -> (Map<K, V>) result.get());
+    }
+
+    /**
+     * The combined values of the keys of one partition.
+     */
+    record Partial(int partition, @NonNull Map<Object, Object> values) {
+    }
+
+    /**
+     * Combines the values emitted by the mapper of one actor and sends them to the reducers when the flush threshold
+     * is reached and after the last input.
+     */
+    private static final class Combiner implements Pipeline.Operator {
+        private final @NonNull MapReduceJob.Mapper<Object, Object, Object> mapper;
+        private final @NonNull BinaryOperator<Object> combiner;
+        private final int reducers;
+        private final int flushThreshold;
+        private final @NonNull Map<Object, Object> combined = new HashMap<>();
+
+        Combiner(@NonNull MapReduceJob<Object, Object, Object> job, int reducers) {
+            this.mapper = job.mapper();
+            this.combiner = job.combiner();
+            this.reducers = reducers;
+            this.flushThreshold = job.flushThreshold();
+        }
+
+        @Override
+        public void accept(Object input, @NonNull Consumer<Object> next) {
+            mapper.map(input, this::combine);
+            if (combined.size() >= flushThreshold) {
+                flush(next);
+            }
+        }
+
+        private void combine(Object key, Object value) {
+            combined.merge(key, value, combiner);
+        }
+
+        @Override
+        public void end(@NonNull Consumer<Object> next) {
+            flush(next);
+        }
+
+        private void flush(@NonNull Consumer<Object> next) {
+            // the maps are created on demand, as a flush might not reach all reducers
+            List<Map<Object, Object>> partitions = new ArrayList<>(Collections.nCopies(reducers, null));
+            combined.forEach((key, value) -> {
+                int h = Objects.hashCode(key);
+                int partition = Math.floorMod(h ^ (h >>> 16), reducers);
+                Map<Object, Object> values = partitions.get(partition);
+                if (values == null) {
+                    values = new HashMap<>();
+                    partitions.set(partition, values);
+                }
+                values.put(key, value);
+            });
+            combined.clear();
+            for (int partition = 0; partition < reducers; partition++) {
+                Map<Object, Object> values = partitions.get(partition);
+                if (values != null) {
+                    next.accept(new Partial(partition, values));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the received values and sends them to its parent in the tree after the end.
+     */
+    private static final class Merge implements Pipeline.Operator {
+        private final @NonNull BinaryOperator<Object> combiner;
+        private final int parent;
+        private Map<Object, Object> merged = new HashMap<>();
+
+        Merge(@NonNull BinaryOperator<Object> combiner, int parent) {
+            this.combiner = combiner;
+            this.parent = parent;
+        }
+
+        @Override
+        public void accept(Object item, @NonNull Consumer<Object> next) {
+            Map<Object, Object> values = ((Partial) item).values();
+            // the received maps are not shared, so the smaller one is merged into the larger one
+            if (values.size() > merged.size()) {
+                Map<Object, Object> smaller = merged;
+                merged = values;
+                values = smaller;
+            }
+            values.forEach((key, value) -> merged.merge(key, value, combiner));
+        }
+
+        @Override
+        public void end(@NonNull Consumer<Object> next) {
+            next.accept(new Partial(parent, merged));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MapReduceJob;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * Builder for {@link MapReduceJob}.
+ *
+ * @param <I> the type of the inputs.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class MapReduceJobBuilder<I, K, V> {
+    private final @NonNull MapReduceJob.Mapper<I, K, V> mapper;
+    private final @NonNull BinaryOperator<V> combiner;
+    private int mappers = Runtime.getRuntime().availableProcessors();
+    private int reducers = Runtime.getRuntime().availableProcessors();
+    private int flushThreshold = 4096;
+    private int mergeFanIn = 4;
+
+    /**
+     * Creates a new job builder.
+     *
+     * @param mapper   the mapper.
+     * @param combiner the combination of two values of the same key.
+     */
+    public MapReduceJobBuilder(@NonNull MapReduceJob.Mapper<I, K, V> mapper, @NonNull BinaryOperator<V> combiner) {
+        this.mapper = mapper;
+        this.combiner = combiner;
+    }
+
+    /**
+     * Sets the number of mapper actors.
+     *
+     * @param mappers the mappers.
+     * @return this builder.
+     */
+    public MapReduceJobBuilder<I, K, V> setMappers(int mappers) {
+        this.mappers = positive(mappers, "mappers");
+        return this;
+    }
+
+    /**
+     * Sets the number of reducer actors.
+     *
+     * @param reducers the reducers.
+     * @return this builder.
+     */
+    public MapReduceJobBuilder<I, K, V> setReducers(int reducers) {
+        this.reducers = positive(reducers, "reducers");
+        return this;
+    }
+
+    /**
+     * Sets the number of keys a mapper combines before it sends them to the reducers.
+     *
+     * @param flushThreshold the flush threshold.
+     * @return this builder.
+     */
+    public MapReduceJobBuilder<I, K, V> setFlushThreshold(int flushThreshold) {
+        this.flushThreshold = positive(flushThreshold, "flushThreshold");
+        return this;
+    }
+
+    /**
+     * Sets the number of results each actor of the merge tree merges.
+     *
+     * @param mergeFanIn the fan in, at least 2.
+     * @return this builder.
+     */
+    public MapReduceJobBuilder<I, K, V> setMergeFanIn(int mergeFanIn) {
+        if (mergeFanIn < 2) {
+            throw new IllegalArgumentException("mergeFanIn must be at least 2");
+        }
+        this.mergeFanIn = mergeFanIn;
+        return this;
+    }
+
+    /**
+     * Builds the job.
+     *
+     * @return the job.
+     */
+    public MapReduceJob<I, K, V> build() {
+        return new MapReduceJobImpl<>(mapper, combiner, mappers, reducers, flushThreshold, mergeFanIn);
+    }
+
+    private static int positive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+}
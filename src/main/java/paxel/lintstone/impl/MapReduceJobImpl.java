@@ -0,0 +1,24 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MapReduceJob;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * Implementation of {@link MapReduceJob}.
+ *
+ * @param mapper         the mapper.
+ * @param combiner       the combiner.
+ * @param mappers        the number of mappers.
+ * @param reducers       the number of reducers.
+ * @param flushThreshold the keys a mapper combines before it flushes them.
+ * @param mergeFanIn     the fan in of the merge tree.
+ * @param <I>            the type of the inputs.
+ * @param <K>            the type of the keys.
+ * @param <V>            the type of the values.
+ */
+public record MapReduceJobImpl<I, K, V>(@NonNull Mapper<I, K, V> mapper, @NonNull BinaryOperator<V> combiner,
+                                        int mappers, int reducers, int flushThreshold,
+                                        int mergeFanIn) implements MapReduceJob<I, K, V> {
+}
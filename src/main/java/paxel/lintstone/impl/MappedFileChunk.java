@@ -0,0 +1,205 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.FileChunk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A {@link FileChunk}, that maps its range, the byte before it and the rest of its last line on the first read.
+ * The lines of the chunk are the ones starting in its range.
+ */
+public final class MappedFileChunk implements FileChunk {
+
+    private static final byte NEWLINE = '\n';
+    private static final byte RETURN = '\r';
+    private static final int LINE_GUESS = 4096;
+    private static final int MIN_MAPPED = 64 * 1024;
+
+    private final @NonNull Path file;
+    private final long start;
+    private final long end;
+    private final long size;
+    private final int maxLineLength;
+    private ByteBuffer lines;
+
+    private MappedFileChunk(@NonNull Path file, long start, long end, long size, int maxLineLength) {
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        this.size = size;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Splits the file into chunks. See {@link FileChunk#split(Path, int, int)}.
+     */
+    public static @NonNull List<FileChunk> split(@NonNull Path file, int chunkSize, int maxLineLength) throws IOException {
+        if (chunkSize <= 0 || maxLineLength <= 0) {
+            throw new IllegalArgumentException("chunkSize and maxLineLength must be positive");
+        }
+        if ((long) chunkSize + maxLineLength + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A chunk with its last line must be smaller than 2 GiB");
+        }
+        long size = Files.size(file);
+        List<FileChunk> chunks = new ArrayList<>((int) (size / chunkSize) + 1);
+        for (long chunkStart = 0; chunkStart < size; chunkStart += chunkSize) {
+            chunks.add(new MappedFileChunk(file, chunkStart, Math.min(size, chunkStart + chunkSize), size, maxLineLength));
+        }
+        return chunks;
+    }
+
+    @Override
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public long start() {
+        return start;
+    }
+
+    @Override
+    public long end() {
+        return end;
+    }
+
+    @Override
+    public ByteBuffer bytes() {
+        if (lines == null) {
+            lines = map();
+        }
+        return lines.duplicate();
+    }
+
+    @Override
+    public void forEachLineBytes(@NonNull Consumer<? super ByteBuffer> consumer) {
+        ByteBuffer all = bytes();
+        ByteBuffer line = all.duplicate();
+        int lineStart = 0;
+        int limit = all.limit();
+        for (int i = 0; i < limit; i++) {
+            if (all.get(i) == NEWLINE) {
+                consumer.accept(line(line, lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < limit) {
+            // the last line of the file has no line break
+            consumer.accept(line(line, lineStart, limit));
+        }
+    }
+
+    @Override
+    public void forEachLine(@NonNull Consumer<? super CharSequence> consumer) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer[] chars = {CharBuffer.allocate(256)};
+        forEachLineBytes(line -> {
+            // a line has at most as many chars as bytes
+            if (chars[0].capacity() < line.remaining()) {
+                chars[0] = CharBuffer.allocate(Math.max(line.remaining(), chars[0].capacity() * 2));
+            }
+            CharBuffer target = chars[0].clear();
+            decoder.reset();
+            CoderResult result = decoder.decode(line, target, true);
+            if (result.isError()) {
+                throw new IllegalStateException("Could not decode line: " + result);
+            }
+            decoder.flush(target);
+            consumer.accept(target.flip());
+        });
+    }
+
+    private static @NonNull ByteBuffer line(@NonNull ByteBuffer line, int from, int to) {
+        line.limit(to).position(from);
+        if (to > from && line.get(to - 1) == RETURN) {
+            line.limit(to - 1);
+        }
+        return line;
+    }
+
+    private @NonNull ByteBuffer map() {
+        // the byte before the chunk tells if its first line starts at the start
+        long from = start == 0 ? 0 : start - 1;
+        long maxTo = Math.min(size, end + maxLineLength);
+        // most lines are short, so at first only a little more than the chunk is loaded
+        long to = Math.min(maxTo, end + LINE_GUESS);
+        ByteBuffer region = load(from, to);
+        int chunkEnd = (int) (end - from);
+        int first = 0;
+        if (start > 0) {
+            // skip the rest of the line, that started in the previous chunk
+            while (first < chunkEnd && region.get(first) != NEWLINE) {
+                first++;
+            }
+            first++;
+        }
+        if (first >= chunkEnd) {
+            // no line starts in this chunk
+            return region.slice(0, 0);
+        }
+        // complete the last line from the next chunk
+        int last = find(region, chunkEnd - 1);
+        if (last < 0 && to < maxTo) {
+            int searched = region.limit();
+            region = load(from, maxTo);
+            last = find(region, searched);
+        }
+        if (last < 0) {
+            if (maxTo < size) {
+                throw new IllegalStateException("The last line of " + this + " is longer than " + maxLineLength + " bytes");
+            }
+            return region.slice(first, region.limit() - first);
+        }
+        return region.slice(first, last + 1 - first);
+    }
+
+    private static int find(@NonNull ByteBuffer region, int from) {
+        for (int i = from; i < region.limit(); i++) {
+            if (region.get(i) == NEWLINE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Maps the range, or reads it, if it is small. Mapping small ranges costs more than reading them and every
+     * mapping holds a kernel resource until the buffer is collected.
+     */
+    private @NonNull ByteBuffer load(long from, long to) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (to - from >= MIN_MAPPED) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) >= 0) {
+                // read until the buffer is full or the file ends
+            }
+            return buffer.flip().asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + this, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileChunk{" + file + " [" + start + ", " + end + ")}";
+    }
+}
@@ -4,9 +4,11 @@ import lombok.NonNull;
 import paxel.lintstone.api.*;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Message context instance dedicated for a process of a message or reply
@@ -17,9 +19,13 @@ public class MessageContext implements LintStoneMessageEventContext {
     private final @NonNull SelfUpdatingActorAccessor self;
     private final @NonNull DynamicMessageAccess messageAccess = new DynamicMessageAccess();
     private final @NonNull DecisionTreeBuilder decisionTreeBuilder = new DecisionTreeBuilder();
-    private @NonNull Object message;
+    private Object message;
+    // the boxed message of a primitive message, that is only created for the dynamic access
+    private Supplier<Object> lazyMessage;
     private @NonNull BiConsumer<Object, SelfUpdatingActorAccessor> replyHandler;
     private boolean recording = false;
+    // set when the context may be used after the message is processed, e.g. by a reply handler
+    private boolean retained = false;
 
     /**
      * Creates a new message context.
@@ -40,16 +46,90 @@ public class MessageContext implements LintStoneMessageEventContext {
      */
     public void reset(@NonNull Object message, @NonNull BiConsumer<Object, SelfUpdatingActorAccessor> replyHandler) {
         this.message = message;
+        this.lazyMessage = null;
         this.replyHandler = replyHandler;
         this.messageAccess.reset(message, this);
     }
 
+    /**
+     * Resets the context for a primitive message and keeps the reply handler. The message is only boxed if the
+     * handler uses the dynamic {@link #inCase(Class, LintStoneEventHandler)} or {@link #otherwise(LintStoneEventHandler)}.
+     *
+     * @param lazyMessage the supplier of the boxed message.
+     */
+    public void reset(@NonNull Supplier<Object> lazyMessage) {
+        this.message = null;
+        this.lazyMessage = lazyMessage;
+    }
+
+    /**
+     * Resets the context for a primitive message and a new reply handler without boxing the message.
+     *
+     * @param lazyMessage  the supplier of the boxed message.
+     * @param replyHandler the reply handler.
+     */
+    public void reset(@NonNull Supplier<Object> lazyMessage, @NonNull BiConsumer<Object, SelfUpdatingActorAccessor> replyHandler) {
+        reset(lazyMessage);
+        this.replyHandler = replyHandler;
+    }
+
+    /**
+     * Tells if the context was handed to something that may use it after the message is processed. Such a context
+     * must not be reset for another message.
+     *
+     * @return true if the context is retained.
+     */
+    boolean isRetained() {
+        return retained;
+    }
+
+    private @NonNull DynamicMessageAccess messageAccess() {
+        if (lazyMessage != null) {
+            message = lazyMessage.get();
+            lazyMessage = null;
+            messageAccess.reset(message, this);
+        }
+        return messageAccess;
+    }
+
     @Override
     public <T> @NonNull MessageAccess inCase(@NonNull Class<T> clazz, @NonNull LintStoneEventHandler<T> consumer) {
         if (recording) {
             return decisionTreeBuilder.inCase(clazz, consumer);
         }
-        return messageAccess.inCase(clazz, consumer);
+        return messageAccess().inCase(clazz, consumer);
+    }
+
+    @Override
+    public <T> @NonNull MessageAccess inCaseBatch(@NonNull Class<T> clazz, int maxBatch, @NonNull LintStoneBatchHandler<T> batchHandler) {
+        if (recording) {
+            return decisionTreeBuilder.inCaseBatch(clazz, maxBatch, batchHandler);
+        }
+        return messageAccess().inCaseBatch(clazz, maxBatch, batchHandler);
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseInt(@NonNull LintStoneIntHandler handler) {
+        if (recording) {
+            return decisionTreeBuilder.inCaseInt(handler);
+        }
+        return messageAccess().inCaseInt(handler);
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseLong(@NonNull LintStoneLongHandler handler) {
+        if (recording) {
+            return decisionTreeBuilder.inCaseLong(handler);
+        }
+        return messageAccess().inCaseLong(handler);
+    }
+
+    @Override
+    public @NonNull MessageAccess inCaseDouble(@NonNull LintStoneDoubleHandler handler) {
+        if (recording) {
+            return decisionTreeBuilder.inCaseDouble(handler);
+        }
+        return messageAccess().inCaseDouble(handler);
     }
 
     @Override
@@ -58,7 +138,7 @@ public class MessageContext implements LintStoneMessageEventContext {
             decisionTreeBuilder.otherwise(catchAll);
             return;
         }
-        messageAccess.otherwise(catchAll);
+        messageAccess().otherwise(catchAll);
     }
 
     @Override
@@ -68,17 +148,24 @@ public class MessageContext implements LintStoneMessageEventContext {
 
     @Override
     public void tell(@NonNull String name, @NonNull Object msg) throws UnregisteredRecipientException {
-        Optional<Actor> actor = actorSystem.getOptionalActor(name);
-        if (actor.isEmpty()) {
-            throw new UnregisteredRecipientException("Actor with name " + name + " does not exist");
+        send(name, msg, null);
+    }
+
+    @Override
+    public boolean tryTell(@NonNull String name, @NonNull Object msg) {
+        Optional<Actor> actor = actorSystem.getOrCreateActor(name);
+        if (actor.isPresent() && actor.get().trySend(msg, self, null)) {
+            return true;
         }
-        actor.get().send(msg, self, null);
+        actorSystem.deadLetters().record(name, msg, DeadLetterReason.UNREGISTERED_RECIPIENT);
+        return false;
     }
 
     @Override
     public void tell(@NonNull String name, @NonNull Object msg, @NonNull Duration delay) throws UnregisteredRecipientException {
-        Optional<Actor> actor = actorSystem.getOptionalActor(name);
+        Optional<Actor> actor = actorSystem.getOrCreateActor(name);
         if (actor.isEmpty()) {
+            actorSystem.deadLetters().record(name, msg, DeadLetterReason.UNREGISTERED_RECIPIENT);
             throw new UnregisteredRecipientException("Actor with name " + name + " does not exist");
         }
         actor.get().send(msg, self, null, delay);
@@ -86,34 +173,57 @@ public class MessageContext implements LintStoneMessageEventContext {
 
     @Override
     public void ask(@NonNull String name, @NonNull Object msg, @NonNull ReplyHandler handler) throws UnregisteredRecipientException {
-        Optional<Actor> actor = actorSystem.getOptionalActor(name);
-        if (actor.isEmpty()) {
-            throw new UnregisteredRecipientException("Actor with name " + name + " does not exist");
-        }
-        actor.get().send(msg, self, handler);
+        send(name, msg, handler);
     }
 
     @Override
     public <F> @NonNull CompletableFuture<F> ask(@NonNull String name, @NonNull Object msg) throws UnregisteredRecipientException {
-        Optional<Actor> actor = actorSystem.getOptionalActor(name);
-        if (actor.isEmpty()) {
-            throw new UnregisteredRecipientException("Actor with name " + name + " does not exist");
-        }
+        retained = true;
         CompletableFuture<F> result = new CompletableFuture<>();
-        actor.get().send(msg, self, mec -> mec.otherwise((o, m) -> {
-            try {
-                result.complete((F) o);
-            } catch (Exception e) {
-                result.completeExceptionally(e);
-            }
-        }));
+        // the future takes the ownership of a leased buffer reply
+        send(name, msg, (DirectReplyHandler) reply -> result.complete((F) reply));
         return result;
     }
 
+    @Override
+    public <F> @NonNull CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<String> names, @NonNull Object msg) {
+        return askAll(names, msg, null);
+    }
+
+    @Override
+    public <F> @NonNull CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<String> names, @NonNull Object msg, Duration timeout) {
+        ScatterGather.checkTimeout(timeout);
+        retained = true;
+        ScatterGather<F> gather = new ScatterGather<>(names.size());
+        int index = 0;
+        for (String name : names) {
+            int current = index++;
+            Optional<Actor> actor = actorSystem.getOrCreateActor(name);
+            if (actor.isEmpty() || !actor.get().trySend(msg, self, gather.handler(current))) {
+                actorSystem.deadLetters().record(name, msg, DeadLetterReason.UNREGISTERED_RECIPIENT);
+                gather.missing(current);
+            }
+        }
+        if (timeout != null && !gather.result().isDone()) {
+            gather.expireAfter(timeout, actorSystem.scheduler(), self);
+        }
+        return gather.result();
+    }
+
+    private void send(@NonNull String name, @NonNull Object msg, ReplyHandler handler) throws UnregisteredRecipientException {
+        retained |= handler != null;
+        Optional<Actor> actor = actorSystem.getOrCreateActor(name);
+        if (actor.isEmpty() || !actor.get().trySend(msg, self, handler)) {
+            actorSystem.deadLetters().record(name, msg, DeadLetterReason.UNREGISTERED_RECIPIENT);
+            throw new UnregisteredRecipientException("Actor with name " + name + " does not exist");
+        }
+    }
+
 
     @Override
     public @NonNull LintStoneActorAccessor getActor(@NonNull String name) {
-        // give an empty ref, that is filled on demand.
+        // give an empty ref, that is filled on demand. Its asks may use this context in their reply handlers
+        retained = true;
         return new SelfUpdatingActorAccessor(name, null, actorSystem, self);
     }
 
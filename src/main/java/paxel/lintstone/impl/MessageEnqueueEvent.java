@@ -0,0 +1,45 @@
+package paxel.lintstone.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of a message or reply handed to an actor. The duration only exceeds the threshold if the sender was
+ * blocked by the back pressure of the actor.
+ */
+@Name("paxel.lintstone.MessageEnqueue")
+@Label("Actor Message Enqueue")
+@Description("A message or reply was queued in an actor")
+@Category({"LintStone", "Actor"})
+@Threshold("1 ms")
+@StackTrace(false)
+class MessageEnqueueEvent extends jdk.jfr.Event {
+
+    @Label("Actor")
+    String actor;
+
+    @Label("Message Class")
+    Class<?> messageClass;
+
+    @Label("Ask")
+    @Description("The message expects a reply")
+    boolean ask;
+
+    @Label("Queue Depth")
+    int queueDepth;
+
+    /**
+     * Fills and commits the event. Only call this if {@link #shouldCommit()} is true.
+     */
+    void emit(String actor, Class<?> messageClass, boolean ask, int queueDepth) {
+        this.actor = actor;
+        this.messageClass = messageClass;
+        this.ask = ask;
+        this.queueDepth = queueDepth;
+        commit();
+    }
+}
@@ -0,0 +1,64 @@
+package paxel.lintstone.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of an actor processing a message or a reply. The duration is the service time. The time in the queue
+ * is only known if the event was enabled when the message was enqueued.
+ */
+@Name("paxel.lintstone.MessageProcess")
+@Label("Actor Message Processing")
+@Description("An actor processed a message or a reply")
+@Category({"LintStone", "Actor"})
+@Threshold("10 ms")
+@StackTrace(false)
+class MessageProcessEvent extends jdk.jfr.Event {
+
+    // only used to read the enabled state, which is the same for all instances
+    private static final MessageProcessEvent PROBE = new MessageProcessEvent();
+
+    @Label("Actor")
+    String actor;
+
+    @Label("Message Class")
+    Class<?> messageClass;
+
+    @Label("Reply")
+    @Description("A reply handler was processed")
+    boolean reply;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWait;
+
+    @Label("Queue Depth")
+    @Description("The queued messages and replies after the processing")
+    int queueDepth;
+
+    /**
+     * Checks the enabled state without creating an event.
+     *
+     * @return {@code true} if the event is enabled in a running recording.
+     */
+    static boolean enabled() {
+        return PROBE.isEnabled();
+    }
+
+    /**
+     * Fills and commits the event. Only call this if {@link #shouldCommit()} is true.
+     */
+    void emit(String actor, Class<?> messageClass, boolean reply, long queueWait, int queueDepth) {
+        this.actor = actor;
+        this.messageClass = messageClass;
+        this.reply = reply;
+        this.queueWait = queueWait;
+        this.queueDepth = queueDepth;
+        commit();
+    }
+}
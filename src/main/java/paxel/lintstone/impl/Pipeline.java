@@ -0,0 +1,191 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.ActorSettings;
+import paxel.lintstone.api.LintStoneActorAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A started pipeline. Each stage runs in one or more {@link PipelineStage} actors named
+ * {@code name.stage.instance}, which are unregistered when the pipeline completes or fails.
+ */
+final class Pipeline {
+
+    private final @NonNull ActorSystem system;
+    private final @NonNull String name;
+    private final int buffer;
+    private final @NonNull List<Spec> specs;
+    private final @NonNull CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final @NonNull AtomicBoolean stopped = new AtomicBoolean();
+    private final @NonNull LintStoneActorAccessor[][] actors;
+
+    Pipeline(@NonNull ActorSystem system, @NonNull String name, int buffer, @NonNull List<Spec> specs) {
+        this.system = system;
+        this.name = name;
+        this.buffer = buffer;
+        this.specs = specs;
+        this.actors = new LintStoneActorAccessor[specs.size()][];
+    }
+
+    CompletableFuture<Void> start() {
+        for (int stage = 0; stage < specs.size(); stage++) {
+            for (int instance = 0; instance < specs.get(stage).instances(); instance++) {
+                if (system.getActor(actorName(stage, instance)).exists()) {
+                    throw new IllegalStateException("The actor " + actorName(stage, instance) + " already exists");
+                }
+            }
+        }
+        // the downstream stages are registered first, so no item is sent to a missing actor
+        for (int stage = specs.size() - 1; stage >= 0; stage--) {
+            actors[stage] = new LintStoneActorAccessor[specs.get(stage).instances()];
+            for (int instance = 0; instance < actors[stage].length; instance++) {
+                int s = stage;
+                int i = instance;
+                actors[stage][instance] = system.registerActor(actorName(stage, instance),
+                        () -> new PipelineStage(this, s, i), ActorSettings.DEFAULT);
+            }
+        }
+        actors[0][0].tell(PipelineStage.START);
+        return completion;
+    }
+
+    int buffer() {
+        return buffer;
+    }
+
+    int stages() {
+        return specs.size();
+    }
+
+    @NonNull Spec spec(int stage) {
+        return specs.get(stage);
+    }
+
+    @NonNull LintStoneActorAccessor actor(int stage, int instance) {
+        return actors[stage][instance];
+    }
+
+    boolean isStopped() {
+        return stopped.get();
+    }
+
+    void complete() {
+        if (stop()) {
+            completion.complete(null);
+        }
+    }
+
+    void fail(@NonNull Throwable error) {
+        if (stop()) {
+            completion.completeExceptionally(error);
+        }
+    }
+
+    private boolean stop() {
+        if (!stopped.compareAndSet(false, true)) {
+            return false;
+        }
+        for (int stage = 0; stage < specs.size(); stage++) {
+            for (int instance = 0; instance < specs.get(stage).instances(); instance++) {
+                system.unregisterActor(actorName(stage, instance));
+            }
+        }
+        return true;
+    }
+
+    private @NonNull String actorName(int stage, int instance) {
+        return name + "." + stage + "." + instance;
+    }
+
+    /**
+     * A fused operation, that passes any number of results to the next one.
+     */
+    interface Op {
+        void apply(Object item, @NonNull Consumer<Object> next);
+    }
+
+    /**
+     * The stateful operation of one actor of a stage, that may emit results after the end of its input.
+     */
+    interface Operator {
+        void accept(Object item, @NonNull Consumer<Object> next);
+
+        void end(@NonNull Consumer<Object> next);
+    }
+
+    /**
+     * The description of a stage. The operations are fused behind the source or the operator.
+     */
+    static final class Spec {
+        private final int instances;
+        private final Iterable<?> source;
+        private final IntFunction<Operator> operator;
+        private final @NonNull List<Op> ops = new ArrayList<>();
+        private ToIntFunction<Object> partitioner;
+        private Consumer<Object> sink;
+
+        private Spec(int instances, Iterable<?> source, IntFunction<Operator> operator) {
+            this.instances = instances;
+            this.source = source;
+            this.operator = operator;
+        }
+
+        static @NonNull Spec source(@NonNull Iterable<?> source) {
+            return new Spec(1, source, null);
+        }
+
+        static @NonNull Spec parallel(int instances) {
+            return new Spec(instances, null, null);
+        }
+
+        /**
+         * @param operator creates the operator of an actor by its instance index.
+         */
+        static @NonNull Spec operator(int instances, @NonNull IntFunction<Operator> operator) {
+            return new Spec(instances, null, operator);
+        }
+
+        int instances() {
+            return instances;
+        }
+
+        Iterable<?> source() {
+            return source;
+        }
+
+        IntFunction<Operator> operator() {
+            return operator;
+        }
+
+        @NonNull List<Op> ops() {
+            return ops;
+        }
+
+        ToIntFunction<Object> partitioner() {
+            return partitioner;
+        }
+
+        /**
+         * Sends each result to the actor of the next stage with the index of the partition, modulo its instances,
+         * instead of the next one with credits.
+         */
+        void partitioner(@NonNull ToIntFunction<Object> partitioner) {
+            this.partitioner = partitioner;
+        }
+
+        Consumer<Object> sink() {
+            return sink;
+        }
+
+        void sink(@NonNull Consumer<Object> sink) {
+            this.sink = sink;
+        }
+    }
+}
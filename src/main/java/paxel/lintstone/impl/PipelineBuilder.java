@@ -0,0 +1,114 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStonePipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collects the stages of a {@link LintStonePipeline} until it is started. The type parameter only changes for the
+ * caller, the stages handle the items as objects.
+ *
+ * @param <T> the type of the items at the end of the pipeline.
+ */
+@SuppressWarnings("unchecked")
+final class PipelineBuilder<T> implements LintStonePipeline<T> {
+
+    private final @NonNull ActorSystem system;
+    private final @NonNull String name;
+    private final int buffer;
+    private final @NonNull List<Pipeline.Spec> specs = new ArrayList<>();
+    private boolean started;
+
+    PipelineBuilder(@NonNull ActorSystem system, @NonNull String name, @NonNull Iterable<?> source, int buffer) {
+        if (buffer <= 0) {
+            throw new IllegalArgumentException("buffer must be positive");
+        }
+        this.system = system;
+        this.name = name;
+        this.buffer = buffer;
+        specs.add(Pipeline.Spec.source(source));
+    }
+
+    @Override
+    public <R> LintStonePipeline<R> map(@NonNull Function<? super T, ? extends R> mapper) {
+        return (LintStonePipeline<R>) fuse((item, next) -> next.accept(mapper.apply((T) item)));
+    }
+
+    @Override
+    public LintStonePipeline<T> filter(@NonNull Predicate<? super T> filter) {
+        return fuse((item, next) -> {
+            if (filter.test((T) item)) {
+                next.accept(item);
+            }
+        });
+    }
+
+    @Override
+    public <R> LintStonePipeline<R> flatMap(@NonNull Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        return (LintStonePipeline<R>) fuse((item, next) -> {
+            for (Object result : mapper.apply((T) item)) {
+                next.accept(result);
+            }
+        });
+    }
+
+    @Override
+    public <R> LintStonePipeline<R> mapAsync(int parallelism, @NonNull Function<? super T, ? extends R> mapper) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        add(Pipeline.Spec.parallel(parallelism));
+        return map(mapper);
+    }
+
+    @Override
+    public <K> Grouped<K, T> groupBy(@NonNull Function<? super T, ? extends K> key) {
+        return new Grouped<>() {
+            @Override
+            public <R> LintStonePipeline<Map.Entry<K, R>> reduce(R identity, @NonNull BiFunction<R, ? super T, R> accumulator) {
+                add(Pipeline.Spec.operator(1, instance -> new GroupReduction(item -> key.apply((T) item), identity,
+                        (result, item) -> accumulator.apply((R) result, (T) item))));
+                return (LintStonePipeline<Map.Entry<K, R>>) (LintStonePipeline<?>) PipelineBuilder.this;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<Void> to(@NonNull Consumer<? super T> sink) {
+        check();
+        Pipeline.Spec last = specs.get(specs.size() - 1);
+        if (last.instances() > 1) {
+            // the sink is called by one actor
+            last = Pipeline.Spec.parallel(1);
+            specs.add(last);
+        }
+        last.sink(item -> sink.accept((T) item));
+        started = true;
+        return new Pipeline(system, name, buffer, List.copyOf(specs)).start();
+    }
+
+    private @NonNull PipelineBuilder<T> fuse(@NonNull Pipeline.Op op) {
+        check();
+        specs.get(specs.size() - 1).ops().add(op);
+        return this;
+    }
+
+    private void add(@NonNull Pipeline.Spec spec) {
+        check();
+        specs.add(spec);
+    }
+
+    private void check() {
+        if (started) {
+            throw new IllegalStateException("The pipeline is already started");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneActor;
+import paxel.lintstone.api.LintStoneMessageEventContext;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * One actor of a pipeline stage. It may send as many items to each actor of the next stage, as that actor granted
+ * credits. It starts with {@code buffer} credits per actor of the next stage and grants credits to the actors of the
+ * previous stage for every half buffer of their items, that it processed. It only processes an item, when the results
+ * of the previous one were sent, so the items wait in the bounded mailboxes and not in the stages.
+ * The results are sent to the next actor with credits, or to the one of their partition.
+ * After the end of the previous stage, or of the source, and all of its items, the end is sent to the next stage.
+ */
+final class PipelineStage implements LintStoneActor {
+
+    static final Start START = new Start();
+    private static final End END = new End();
+
+    private final @NonNull Pipeline pipeline;
+    private final int stage;
+    private final int instance;
+    private final int upstreams;
+    private final int downstreams;
+    private final int batch;
+    private final Iterator<?> source;
+    private final Pipeline.Operator operator;
+    private final ToIntFunction<Object> partitioner;
+    private final @NonNull Consumer<Object> chain;
+    private final @NonNull Consumer<Object> input;
+    private final @NonNull ArrayDeque<Item> inbox = new ArrayDeque<>();
+    private final @NonNull ArrayDeque<Object> outbox = new ArrayDeque<>();
+    // per actor of the next stage
+    private final @NonNull int[] credits;
+    // per actor of the previous stage
+    private final @NonNull int[] consumed;
+    private int next;
+    private int ends;
+    private boolean operatorEnded;
+    private boolean finished;
+
+    PipelineStage(@NonNull Pipeline pipeline, int stage, int instance) {
+        this.pipeline = pipeline;
+        this.stage = stage;
+        this.instance = instance;
+        Pipeline.Spec spec = pipeline.spec(stage);
+        this.upstreams = stage == 0 ? 0 : pipeline.spec(stage - 1).instances();
+        this.downstreams = spec.sink() != null ? 0 : pipeline.spec(stage + 1).instances();
+        this.batch = Math.max(1, pipeline.buffer() / 2);
+        this.source = spec.source() == null ? null : spec.source().iterator();
+        this.credits = new int[downstreams];
+        Arrays.fill(credits, pipeline.buffer());
+        this.consumed = new int[upstreams];
+        Consumer<Object> fused = spec.sink() != null ? spec.sink() : outbox::add;
+        List<Pipeline.Op> ops = spec.ops();
+        for (int i = ops.size() - 1; i >= 0; i--) {
+            Pipeline.Op op = ops.get(i);
+            Consumer<Object> following = fused;
+            fused = item -> op.apply(item, following);
+        }
+        this.chain = fused;
+        this.partitioner = spec.partitioner();
+        this.operator = spec.operator() == null ? null : spec.operator().apply(instance);
+        this.input = operator == null ? chain : item -> operator.accept(item, chain);
+    }
+
+    @Override
+    public void newMessageEvent(LintStoneMessageEventContext mec) {
+        mec.inCase(Item.class, (item, ctx) -> {
+                    inbox.add(item);
+                    resume();
+                })
+                .inCase(Credit.class, (credit, ctx) -> {
+                    credits[credit.from()] += credit.count();
+                    resume();
+                })
+                .inCase(End.class, (end, ctx) -> {
+                    ends++;
+                    resume();
+                })
+                .inCase(Start.class, (start, ctx) -> resume());
+    }
+
+    private void resume() {
+        if (finished || pipeline.isStopped()) {
+            return;
+        }
+        try {
+            process();
+        } catch (RuntimeException e) {
+            pipeline.fail(e);
+        }
+    }
+
+    private void process() {
+        while (flush()) {
+            if (source != null) {
+                if (!source.hasNext()) {
+                    break;
+                }
+                input.accept(source.next());
+            } else {
+                Item item = inbox.poll();
+                if (item == null) {
+                    break;
+                }
+                input.accept(item.value());
+                if (++consumed[item.from()] == batch) {
+                    consumed[item.from()] = 0;
+                    pipeline.actor(stage - 1, item.from()).tryTell(new Credit(instance, batch));
+                }
+            }
+        }
+        if (outbox.isEmpty() && inbox.isEmpty() && (source == null ? ends == upstreams : !source.hasNext())) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (operator != null && !operatorEnded) {
+            operatorEnded = true;
+            operator.end(chain);
+            if (!flush()) {
+                // continues with the next credits
+                return;
+            }
+        }
+        finished = true;
+        if (downstreams == 0) {
+            pipeline.complete();
+        } else {
+            for (int i = 0; i < downstreams; i++) {
+                pipeline.actor(stage + 1, i).tryTell(END);
+            }
+        }
+    }
+
+    /**
+     * Sends the results to the actors of the next stage, that have credits.
+     *
+     * @return {@code true} if all results were sent.
+     */
+    private boolean flush() {
+        while (!outbox.isEmpty()) {
+            int target = partitioner == null ? credited() : Math.floorMod(partitioner.applyAsInt(outbox.peek()), downstreams);
+            if (target < 0 || credits[target] == 0) {
+                return false;
+            }
+            credits[target]--;
+            pipeline.actor(stage + 1, target).tryTell(new Item(instance, outbox.poll()));
+        }
+        return true;
+    }
+
+    private int credited() {
+        for (int i = 0; i < downstreams; i++) {
+            int candidate = (next + i) % downstreams;
+            if (credits[candidate] > 0) {
+                next = candidate + 1;
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts the source.
+     */
+    record Start() {
+    }
+
+    /**
+     * An item from an actor of the previous stage.
+     */
+    record Item(int from, Object value) {
+    }
+
+    /**
+     * Allows an actor of the previous stage to send more items.
+     */
+    record Credit(int from, int count) {
+    }
+
+    /**
+     * The end of the items of an actor of the previous stage.
+     */
+    record End() {
+    }
+}
@@ -0,0 +1,66 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneMessageEventContext;
+
+/**
+ * The primitive message types, that are queued without boxing. The value is stored as the bits of a long.
+ */
+enum PrimitiveKind {
+    INT(Integer.class) {
+        @Override
+        Object box(long bits) {
+            return (int) bits;
+        }
+
+        @Override
+        void handle(@NonNull DecisionTree decisionTree, long bits, @NonNull LintStoneMessageEventContext context) {
+            decisionTree.handleInt((int) bits, context);
+        }
+    },
+    LONG(Long.class) {
+        @Override
+        Object box(long bits) {
+            return bits;
+        }
+
+        @Override
+        void handle(@NonNull DecisionTree decisionTree, long bits, @NonNull LintStoneMessageEventContext context) {
+            decisionTree.handleLong(bits, context);
+        }
+    },
+    DOUBLE(Double.class) {
+        @Override
+        Object box(long bits) {
+            return Double.longBitsToDouble(bits);
+        }
+
+        @Override
+        void handle(@NonNull DecisionTree decisionTree, long bits, @NonNull LintStoneMessageEventContext context) {
+            decisionTree.handleDouble(Double.longBitsToDouble(bits), context);
+        }
+    };
+
+    private final @NonNull Class<?> type;
+
+    PrimitiveKind(@NonNull Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the class of the boxed value.
+     */
+    @NonNull Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Boxes the value, e.g. for the interceptors or the dead letters.
+     */
+    abstract Object box(long bits);
+
+    /**
+     * Hands the value to the decision tree without boxing it.
+     */
+    abstract void handle(@NonNull DecisionTree decisionTree, long bits, @NonNull LintStoneMessageEventContext context);
+}
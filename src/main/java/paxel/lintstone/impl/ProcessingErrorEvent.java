@@ -0,0 +1,44 @@
+package paxel.lintstone.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a message or reply whose processing failed, before the error is given to the
+ * {@link paxel.lintstone.api.ErrorHandler}. Like the other diagnostics, it only records classes and no message or
+ * exception contents.
+ */
+@Name("paxel.lintstone.ProcessingError")
+@Label("Actor Processing Error")
+@Description("An actor failed to process a message or a reply")
+@Category({"LintStone", "Actor"})
+class ProcessingErrorEvent extends jdk.jfr.Event {
+
+    @Label("Actor")
+    String actor;
+
+    @Label("Message Class")
+    Class<?> messageClass;
+
+    @Label("Error")
+    String error;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    /**
+     * Commits an event if it is enabled.
+     */
+    static void emit(String actor, Class<?> messageClass, String error, Exception exception) {
+        ProcessingErrorEvent event = new ProcessingErrorEvent();
+        if (event.shouldCommit()) {
+            event.actor = actor;
+            event.messageClass = messageClass;
+            event.error = error;
+            event.exceptionClass = exception.getClass();
+            event.commit();
+        }
+    }
+}
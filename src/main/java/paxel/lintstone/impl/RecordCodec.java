@@ -0,0 +1,153 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.MessageCodec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * The default codec of records. The components are written in declaration order. Primitive components are read by
+ * exactly typed method handles, so they are not boxed while encoding. Other components are prefixed with a byte
+ * that marks null and are written by the codec of their declared type, which is resolved on first use, so records
+ * may refer to themselves.
+ *
+ * @param <T> the record type.
+ */
+final class RecordCodec<T extends Record> implements MessageCodec<T> {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private final @NonNull Field[] fields;
+    private final @NonNull MethodHandle constructor;
+
+    RecordCodec(@NonNull Class<T> type, @NonNull Codecs codecs) {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        fields = new Field[components.length];
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                if (!types[i].isPrimitive() && !codecs.isSupported(types[i])) {
+                    throw new IllegalArgumentException("No codec for component " + components[i].getName() + " of " + type.getName());
+                }
+                fields[i] = field(lookup.unreflect(components[i].getAccessor()), types[i], codecs);
+            }
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types))
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Can't access " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public void encode(@NonNull T message, @NonNull ByteBuffer target) {
+        try {
+            for (Field field : fields) {
+                field.writer().write(message, target);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public @NonNull T decode(@NonNull ByteBuffer source) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fields[i].reader().apply(source);
+        }
+        try {
+            Object message = (Object) constructor.invokeExact(values);
+            return (T) message;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field field(MethodHandle accessor, Class<?> type, Codecs codecs) {
+        MethodHandle getter = accessor.asType(MethodType.methodType(type, Object.class));
+        if (type == int.class) {
+            return new Field((r, t) -> t.putInt((int) getter.invokeExact(r)), ByteBuffer::getInt);
+        } else if (type == long.class) {
+            return new Field((r, t) -> t.putLong((long) getter.invokeExact(r)), ByteBuffer::getLong);
+        } else if (type == double.class) {
+            return new Field((r, t) -> t.putDouble((double) getter.invokeExact(r)), ByteBuffer::getDouble);
+        } else if (type == float.class) {
+            return new Field((r, t) -> t.putFloat((float) getter.invokeExact(r)), ByteBuffer::getFloat);
+        } else if (type == short.class) {
+            return new Field((r, t) -> t.putShort((short) getter.invokeExact(r)), ByteBuffer::getShort);
+        } else if (type == byte.class) {
+            return new Field((r, t) -> t.put((byte) getter.invokeExact(r)), ByteBuffer::get);
+        } else if (type == char.class) {
+            return new Field((r, t) -> t.putChar((char) getter.invokeExact(r)), ByteBuffer::getChar);
+        } else if (type == boolean.class) {
+            return new Field((r, t) -> t.put((byte) ((boolean) getter.invokeExact(r) ? 1 : 0)), s -> s.get() != 0);
+        }
+        MethodHandle objectGetter = accessor.asType(GETTER);
+        Nested<?> nested = nested(type, codecs);
+        return new Field((r, t) -> {
+            Object value = (Object) objectGetter.invokeExact(r);
+            if (value == null) {
+                t.put((byte) 0);
+            } else {
+                t.put((byte) 1);
+                nested.encode(value, t);
+            }
+        }, s -> s.get() == 0 ? null : nested.decode(s));
+    }
+
+    private static <V> Nested<V> nested(Class<V> type, Codecs codecs) {
+        return new Nested<>(type, codecs);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(Object record, ByteBuffer target) throws Throwable;
+    }
+
+    private record Field(@NonNull Writer writer, @NonNull Function<ByteBuffer, Object> reader) {
+    }
+
+    /**
+     * Resolves the codec of a component on first use. Racing threads resolve the same codec.
+     */
+    private static final class Nested<V> {
+        private final @NonNull Class<V> type;
+        private final @NonNull Codecs codecs;
+        private MessageCodec<V> codec;
+
+        Nested(@NonNull Class<V> type, @NonNull Codecs codecs) {
+            this.type = type;
+            this.codecs = codecs;
+        }
+
+        void encode(Object value, ByteBuffer target) {
+            codec().encode(type.cast(value), target);
+        }
+
+        V decode(ByteBuffer source) {
+            return codec().decode(source);
+        }
+
+        private MessageCodec<V> codec() {
+            MessageCodec<V> result = codec;
+            if (result == null) {
+                result = codecs.codecFor(type);
+                codec = result;
+            }
+            return result;
+        }
+    }
+}
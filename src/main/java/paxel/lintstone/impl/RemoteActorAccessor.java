@@ -0,0 +1,139 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.DeadLetterReason;
+import paxel.lintstone.api.LintStoneActorAccessor;
+import paxel.lintstone.api.NoSenderException;
+import paxel.lintstone.api.ReplyHandler;
+import paxel.lintstone.api.UnregisteredRecipientException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends messages to an actor of another system. The messages are encoded by the {@link Codecs} of this system and
+ * sent over the link to the remote system, a TCP connection or shared memory, which is opened by the first message.
+ * <p>
+ * The sender only knows, if the connection is open, not if the remote actor exists. Tells to a missing remote
+ * actor become dead letters of the remote system, asks fail with an {@link UnregisteredRecipientException}.
+ * The statistics of the remote actor are not available here.
+ */
+public class RemoteActorAccessor implements LintStoneActorAccessor {
+
+    private static final long BACK_PRESSURE_PARK_NANOS = 50_000;
+
+    private final @NonNull RemoteTransport transport;
+    private final @NonNull RemoteAddress address;
+
+    RemoteActorAccessor(@NonNull RemoteTransport transport, @NonNull RemoteAddress address) {
+        this.transport = transport;
+        this.address = address;
+    }
+
+    @Override
+    public void tell(@NonNull Object message) throws UnregisteredRecipientException {
+        try {
+            transport.link(address).send(RemoteTransport.TELL, 0, address.name(), message);
+        } catch (UnregisteredRecipientException e) {
+            transport.system().deadLetters().record(address.toString(), message, DeadLetterReason.UNREGISTERED_RECIPIENT);
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks while the link has {@code blockThreshold} or more frames that are not written to the socket yet.
+     * This limits the memory used by a sender that is faster than the network. A full shared memory ring
+     * blocks every send.
+     */
+    @Override
+    public void tellWithBackPressure(@NonNull Object message, int blockThreshold) throws UnregisteredRecipientException, InterruptedException {
+        Link link = transport.link(address);
+        while (link.queued() >= blockThreshold && !link.isClosed()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(BACK_PRESSURE_PARK_NANOS);
+        }
+        tell(message);
+    }
+
+    /**
+     * @return {@code true} if the link to the remote system is open or can be opened.
+     */
+    @Override
+    public boolean exists() {
+        try {
+            return !transport.link(address).isClosed();
+        } catch (UnregisteredRecipientException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sends the message as ask to the remote actor. There is no local actor that replies, so the reply handler is
+     * processed in the transport thread with a context of the remote actor, that has no sender to reply to.
+     * The handler should not block. A failed ask is not given to the handler.
+     */
+    @Override
+    public void ask(@NonNull Object message, @NonNull ReplyHandler replyHandler) throws UnregisteredRecipientException {
+        this.ask(message).whenComplete((reply, error) -> {
+            if (replyHandler instanceof DirectReplyHandler direct) {
+                // only passes the reply or the failure on
+                if (error != null) {
+                    direct.failed(error);
+                } else {
+                    direct.complete(reply);
+                }
+                return;
+            }
+            if (error != null) {
+                return;
+            }
+            ActorSystem system = transport.system();
+            SelfUpdatingActorAccessor remote = new SelfUpdatingActorAccessor(address.toString(), null, system, null);
+            replyHandler.process(new MessageContextFactory(system, remote).create(reply, (msg, self) -> {
+                throw new NoSenderException("Reply of a remote actor has no sender");
+            }));
+        });
+    }
+
+    /**
+     * Sends the message as ask to the remote actor. The future is completed in the transport thread,
+     * so the callbacks should not block.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <F> @NonNull CompletableFuture<F> ask(@NonNull Object message) throws UnregisteredRecipientException {
+        return (CompletableFuture<F>) transport.link(address).ask(address.name(), message);
+    }
+
+    /**
+     * @return the number of frames to the remote system, that are not written to the socket yet.
+     * Always 0 for shared memory.
+     */
+    @Override
+    public int getQueuedMessagesAndReplies() {
+        Link link = transport.existing(address);
+        return link == null ? 0 : link.queued();
+    }
+
+    @Override
+    public long getProcessedMessages() {
+        return 0;
+    }
+
+    @Override
+    public long getProcessedReplies() {
+        return 0;
+    }
+
+    @Override
+    public String getName() {
+        return address.toString();
+    }
+
+    @Override
+    public String toString() {
+        return address.toString();
+    }
+}
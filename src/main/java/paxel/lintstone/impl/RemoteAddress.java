@@ -0,0 +1,58 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import java.net.InetSocketAddress;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The address {@code system@host:port/name} of an actor in another system, or {@code system@shm[file]/name}
+ * for a system on this host, that is bound to a shared memory file.
+ *
+ * @param system the name of the remote system.
+ * @param host   the host of the remote system or the shared memory file.
+ * @param port   the port of the remote system or 0 for shared memory.
+ * @param name   the name of the actor.
+ */
+record RemoteAddress(@NonNull String system, @NonNull String host, int port, @NonNull String name) {
+
+    private static final Pattern SHARED_MEMORY = Pattern.compile("([^@/]+)@shm\\[([^\\]]+)]/(.+)");
+    private static final Pattern FORMAT = Pattern.compile("([^@/]+)@\\[?([^/\\]]+?)]?:(\\d{1,5})/(.+)");
+
+    static @NonNull RemoteAddress parse(@NonNull String address) {
+        Matcher shm = SHARED_MEMORY.matcher(address);
+        if (shm.matches()) {
+            return new RemoteAddress(shm.group(1), shm.group(2), 0, shm.group(3));
+        }
+        Matcher matcher = FORMAT.matcher(address);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected system@host:port/name or system@shm[file]/name but got " + address);
+        }
+        int port = Integer.parseInt(matcher.group(3));
+        if (port == 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port in " + address);
+        }
+        return new RemoteAddress(matcher.group(1), matcher.group(2), port, matcher.group(4));
+    }
+
+    boolean sharedMemory() {
+        return port == 0;
+    }
+
+    @NonNull InetSocketAddress socketAddress() {
+        return new InetSocketAddress(host, port);
+    }
+
+    /**
+     * The key of the connection, that is shared by all actors of the remote system.
+     */
+    @NonNull String systemAddress() {
+        return sharedMemory() ? system + "@shm[" + host + "]" : system + "@" + host + ":" + port;
+    }
+
+    @Override
+    public String toString() {
+        return systemAddress() + "/" + name;
+    }
+}
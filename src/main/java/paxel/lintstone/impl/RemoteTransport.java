@@ -0,0 +1,352 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.DeadLetterReason;
+import paxel.lintstone.api.LintStoneActorAccessor;
+import paxel.lintstone.api.UnregisteredRecipientException;
+import paxel.lintstone.api.WaitStrategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connects an {@link ActorSystem} with other systems over TCP or shared memory. One thread selects all TCP
+ * connections of the system. It writes the queued frames, reads the incoming frames and hands their messages to the
+ * local actors. Shared memory links poll in their own thread. Asks are correlated by an id per link and their replies
+ * are sent back on the same link.
+ */
+final class RemoteTransport implements Runnable {
+
+    static final int FRAME_SIZE = 64 * 1024;
+    static final byte HELLO = 0;
+    static final byte TELL = 1;
+    static final byte ASK = 2;
+    static final byte REPLY = 3;
+    static final byte FAILURE = 4;
+    static final byte UNREGISTERED = 5;
+
+    private final @NonNull ActorSystem system;
+    private final @NonNull Codecs codecs;
+    private final @NonNull BufferPool pool = new BufferPool(FRAME_SIZE, 256);
+    private final @NonNull Selector selector;
+    private final @NonNull Thread thread;
+    private final @NonNull Map<String, Link> outbound = new ConcurrentHashMap<>();
+    private final @NonNull Set<Link> links = ConcurrentHashMap.newKeySet();
+    private final @NonNull Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final @NonNull AtomicReference<String> systemName = new AtomicReference<>();
+    private volatile ServerSocketChannel server;
+    private volatile boolean running = true;
+
+    RemoteTransport(@NonNull ActorSystem system, @NonNull Codecs codecs) {
+        this.system = system;
+        this.codecs = codecs;
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.thread = new Thread(this, "lintstone-transport");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    @NonNull InetSocketAddress bind(@NonNull String name, @NonNull InetSocketAddress address) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(address);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (server != null) {
+            channel.close();
+            throw new IllegalStateException("The system is already bound to " + server.getLocalAddress());
+        }
+        try {
+            name(name);
+        } catch (IllegalStateException e) {
+            channel.close();
+            throw e;
+        }
+        server = channel;
+        execute(() -> {
+            try {
+                channel.register(selector, SelectionKey.OP_ACCEPT);
+            } catch (IOException e) {
+                running = false;
+            }
+        });
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    void bindSharedMemory(@NonNull String name, @NonNull Path file, int ringSize, @NonNull WaitStrategy waitStrategy) throws IOException {
+        if (!running) {
+            throw new IllegalStateException("The transport is closed");
+        }
+        name(name);
+        SharedMemoryLink link = SharedMemoryLink.bind(this, file, ringSize, waitStrategy);
+        links.add(link);
+        link.start();
+    }
+
+    private void name(@NonNull String name) {
+        if (!systemName.compareAndSet(null, name) && !name.equals(systemName.get())) {
+            throw new IllegalStateException("The system is already bound as " + systemName.get());
+        }
+    }
+
+    /**
+     * Retrieves the link to the system of the address. A missing link is opened in the calling thread.
+     */
+    @NonNull Link link(@NonNull RemoteAddress address) throws UnregisteredRecipientException {
+        Link link = outbound.get(address.systemAddress());
+        if (link != null && !link.isClosed()) {
+            return link;
+        }
+        try {
+            return outbound.compute(address.systemAddress(), (key, existing) -> existing != null && !existing.isClosed() ? existing : open(address));
+        } catch (UncheckedIOException e) {
+            throw new UnregisteredRecipientException("Can't connect to " + address.systemAddress() + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the link to the system of the address, if it is open.
+     */
+    Link existing(@NonNull RemoteAddress address) {
+        return outbound.get(address.systemAddress());
+    }
+
+    private @NonNull Link open(@NonNull RemoteAddress address) {
+        if (!running) {
+            throw new UncheckedIOException(new IOException("The transport is closed"));
+        }
+        if (address.sharedMemory()) {
+            try {
+                SharedMemoryLink link = SharedMemoryLink.attach(this, address.systemAddress(), Path.of(address.host()));
+                links.add(link);
+                link.start();
+                link.send(HELLO, 0, address.system(), null);
+                return link;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        try {
+            SocketChannel channel = SocketChannel.open(address.socketAddress());
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Connection connection = new Connection(this, channel, address.systemAddress());
+            links.add(connection);
+            execute(() -> register(channel, connection));
+            connection.send(HELLO, 0, address.system(), null);
+            return connection;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void register(@NonNull SocketChannel channel, @NonNull Connection connection) {
+        try {
+            connection.register(channel.register(selector, SelectionKey.OP_READ, connection));
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    void execute(@NonNull Runnable task) {
+        tasks.offer(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+                    task.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        if (connection != null) {
+                            connection.close();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            running = false;
+        } finally {
+            links.forEach(Link::close);
+            try {
+                if (server != null) {
+                    server.close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel != null) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Connection connection = new Connection(this, channel, null);
+            links.add(connection);
+            register(channel, connection);
+        }
+    }
+
+    /**
+     * Handles an incoming frame in the transport thread. The buffer is limited to the frame.
+     */
+    void receive(@NonNull Link connection, @NonNull ByteBuffer frame) {
+        byte type = frame.get();
+        long id = frame.getLong();
+        String text = Utf8.get(frame);
+        if (type == HELLO) {
+            if (text.equals(systemName.get())) {
+                connection.verified();
+            } else {
+                connection.close();
+            }
+        } else if (!connection.isVerified()) {
+            connection.close();
+        } else if (type == TELL) {
+            receiveTell(connection, text, frame);
+        } else if (type == ASK) {
+            receiveAsk(connection, id, text, frame);
+        } else {
+            receiveReply(connection, type, id, text, frame);
+        }
+    }
+
+    private void receiveTell(@NonNull Link connection, @NonNull String target, @NonNull ByteBuffer frame) {
+        Object message;
+        try {
+            message = codecs.decode(frame);
+        } catch (RuntimeException e) {
+            system.deadLetters().record(target, e, DeadLetterReason.REJECTED);
+            return;
+        }
+        // the accessor records the dead letter, if the actor doesn't exist
+        connection.cache().computeIfAbsent(target, system::getActor).tryTell(message);
+    }
+
+    private void receiveAsk(@NonNull Link connection, long id, @NonNull String target, @NonNull ByteBuffer frame) {
+        try {
+            Object message = codecs.decode(frame);
+            connection.cache().computeIfAbsent(target, system::getActor).ask(message)
+                    .whenComplete((reply, error) -> reply(connection, id, reply, error));
+        } catch (RuntimeException e) {
+            // undecodable or unregistered. the asking side gets the reason
+            reply(connection, id, null, e);
+        }
+    }
+
+    private void reply(@NonNull Link connection, long id, Object reply, Throwable error) {
+        try {
+            if (error == null) {
+                try {
+                    connection.send(REPLY, id, "", reply);
+                    return;
+                } catch (IllegalArgumentException e) {
+                    error = e;
+                }
+            }
+            byte type = error instanceof UnregisteredRecipientException ? UNREGISTERED : FAILURE;
+            connection.send(type, id, String.valueOf(error.getMessage()), null);
+        } catch (UnregisteredRecipientException e) {
+            // the asking system is gone
+        }
+    }
+
+    private void receiveReply(@NonNull Link connection, byte type, long id, @NonNull String text, @NonNull ByteBuffer frame) {
+        CompletableFuture<Object> future = connection.completion(id);
+        if (future == null) {
+            return;
+        }
+        if (type == REPLY) {
+            try {
+                future.complete(codecs.decode(frame));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        } else if (type == UNREGISTERED) {
+            future.completeExceptionally(new UnregisteredRecipientException(text));
+        } else {
+            future.completeExceptionally(new IllegalStateException(text));
+        }
+    }
+
+    void closed(@NonNull Link link) {
+        links.remove(link);
+        if (link.key() != null) {
+            outbound.remove(link.key(), link);
+        }
+    }
+
+    /**
+     * Closes all links and the server socket. Pending asks fail with an {@link UnregisteredRecipientException}.
+     */
+    void close() {
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @NonNull BufferPool pool() {
+        return pool;
+    }
+
+    @NonNull Codecs codecs() {
+        return codecs;
+    }
+
+    @NonNull ActorSystem system() {
+        return system;
+    }
+}
@@ -0,0 +1,45 @@
+package paxel.lintstone.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of an actor replying to a message. The duration is the time needed to hand the reply to the recipient.
+ */
+@Name("paxel.lintstone.Reply")
+@Label("Actor Reply")
+@Description("An actor replied to a message")
+@Category({"LintStone", "Actor"})
+@Threshold("1 ms")
+@StackTrace(false)
+class ReplyEvent extends jdk.jfr.Event {
+
+    @Label("Actor")
+    String actor;
+
+    @Label("Reply Class")
+    Class<?> replyClass;
+
+    @Label("Recipient")
+    @Description("The actor processing the reply. The replying actor itself for asks from outside the system")
+    String recipient;
+
+    @Label("Ask")
+    @Description("The reply is handled by the reply handler of an ask")
+    boolean ask;
+
+    /**
+     * Fills and commits the event. Only call this if {@link #shouldCommit()} is true.
+     */
+    void emit(String actor, Class<?> replyClass, String recipient, boolean ask) {
+        this.actor = actor;
+        this.replyClass = replyClass;
+        this.recipient = recipient;
+        this.ask = ask;
+        commit();
+    }
+}
@@ -0,0 +1,212 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneActorAccessor;
+import paxel.lintstone.api.LintStoneReplies;
+import paxel.lintstone.api.ReplyHandler;
+import paxel.lintstone.api.Scheduler;
+import paxel.lintstone.api.UnregisteredRecipientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Gathers the replies of one ask to many actors into one preallocated array and completes one future, when all
+ * actors replied or failed, or the deadline passed. The replies of an ask from an actor, its failures and its deadline
+ * are processed by the asking actor, so its future completes in the context of that actor. Otherwise, the asked
+ * actors complete it. The future is completed with an immutable copy, so replies that arrive after the deadline
+ * don't change the result.
+ *
+ * @param <F> the type of the replies.
+ */
+final class ScatterGather<F> {
+
+    // marks an actor that can't reply anymore
+    private static final Object MISSING = new Object();
+
+    private final @NonNull AtomicReferenceArray<Object> replies;
+    private final @NonNull AtomicInteger pending;
+    private final @NonNull CompletableFuture<LintStoneReplies<F>> result = new CompletableFuture<>();
+
+    ScatterGather(int size) {
+        this.replies = new AtomicReferenceArray<>(size);
+        this.pending = new AtomicInteger(size);
+        if (size == 0) {
+            complete();
+        }
+    }
+
+    /**
+     * Asks all actors and gathers their replies.
+     *
+     * @param actors  the actors.
+     * @param message the message.
+     * @param timeout the time to wait for the replies or null to wait until all actors replied.
+     * @param <F>     the type of the replies.
+     * @return the future replies.
+     */
+    static <F> @NonNull CompletableFuture<LintStoneReplies<F>> askAll(@NonNull Collection<? extends LintStoneActorAccessor> actors, @NonNull Object message, Duration timeout) {
+        checkTimeout(timeout);
+        ScatterGather<F> gather = new ScatterGather<>(actors.size());
+        SelfUpdatingActorAccessor local = null;
+        int index = 0;
+        for (LintStoneActorAccessor actor : actors) {
+            int current = index++;
+            if (local == null && actor instanceof SelfUpdatingActorAccessor selfUpdating) {
+                local = selfUpdating;
+            }
+            try {
+                actor.ask(message, gather.handler(current));
+            } catch (UnregisteredRecipientException e) {
+                gather.missing(current);
+            }
+        }
+        if (timeout != null && !gather.result.isDone()) {
+            if (local == null) {
+                // only remote actors, so there is neither a scheduler nor an asking actor
+                CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(gather::expire);
+            } else {
+                gather.expireAfter(timeout, local.system().scheduler(), local.sender());
+            }
+        }
+        return gather.result;
+    }
+
+    static void checkTimeout(Duration timeout) {
+        if (timeout != null && !timeout.isPositive()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+    }
+
+    @NonNull CompletableFuture<LintStoneReplies<F>> result() {
+        return result;
+    }
+
+    /**
+     * Creates the reply handler of an actor.
+     *
+     * @param index the index of the actor.
+     * @return the handler.
+     */
+    @NonNull ReplyHandler handler(int index) {
+        // thread safe, so the replies of an ask from outside are gathered directly by the replying actors
+        return new DirectReplyHandler() {
+            @Override
+            public void complete(@NonNull Object reply) {
+                settle(index, reply);
+            }
+
+            @Override
+            public void failed(@NonNull Throwable error) {
+                missing(index);
+            }
+        };
+    }
+
+    /**
+     * Marks an actor that can't reply.
+     *
+     * @param index the index of the actor.
+     */
+    void missing(int index) {
+        settle(index, MISSING);
+    }
+
+    private void settle(int index, @NonNull Object outcome) {
+        // only the first reply or failure of each actor counts
+        if (!replies.compareAndSet(index, null, outcome)) {
+            // a late leased buffer has no owner anymore
+            if (outcome instanceof LeasedBuffer lease) {
+                lease.tryRelease();
+            }
+            return;
+        }
+        if (pending.decrementAndGet() == 0) {
+            complete();
+        }
+    }
+
+    /**
+     * Completes the result with the replies received until then, in the context of the asking actor, if there is one.
+     *
+     * @param caller the asking actor or null.
+     */
+    void expireAfter(@NonNull Duration timeout, @NonNull Scheduler scheduler, SelfUpdatingActorAccessor caller) {
+        scheduler.runLater(() -> {
+            if (caller == null || !caller.signal(this::expire)) {
+                expire();
+            }
+        }, timeout);
+    }
+
+    private void expire() {
+        complete();
+    }
+
+    private void complete() {
+        if (result.isDone()) {
+            return;
+        }
+        // closes the open slots, so a concurrent reply is either in the copy or late, and never changes the result
+        Object[] copy = new Object[replies.length()];
+        int received = 0;
+        for (int i = 0; i < copy.length; i++) {
+            Object reply = replies.compareAndExchange(i, null, MISSING);
+            if (reply != null && reply != MISSING) {
+                copy[i] = reply;
+                received++;
+            }
+        }
+        result.complete(new Replies<>(copy, received));
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterGather{pending=" + pending.get() + "/" + replies.length() + '}';
+    }
+
+    /**
+     * The immutable replies of a completed scatter-gather ask.
+     *
+     * @param replies  the replies or null, in the order of the asked actors.
+     * @param received the number of replies.
+     * @param <F>      the type of the replies.
+     */
+    private record Replies<F>(Object @NonNull [] replies, int received) implements LintStoneReplies<F> {
+
+        @Override
+        public int size() {
+            return replies.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public F get(int index) {
+            return (F) replies[index];
+        }
+
+        @Override
+        public @NonNull List<F> toList() {
+            List<F> list = new ArrayList<>(received);
+            for (int i = 0; i < replies.length; i++) {
+                F reply = get(i);
+                if (reply != null) {
+                    list.add(reply);
+                }
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        @Override
+        public String toString() {
+            return "Replies{received=" + received + "/" + replies.length + '}';
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package paxel.lintstone.impl;
 
 import lombok.NonNull;
+import paxel.lintstone.api.DeadLetterReason;
+import paxel.lintstone.api.LatencySnapshot;
 import paxel.lintstone.api.LintStoneActorAccessor;
 import paxel.lintstone.api.ReplyHandler;
 import paxel.lintstone.api.UnregisteredRecipientException;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -30,11 +33,31 @@ public class SelfUpdatingActorAccessor implements LintStoneActorAccessor {
         tell(message, sender, null);
     }
 
+    @Override
+    public boolean tryTell(@NonNull Object message) {
+        return tryTell(message, sender, null);
+    }
+
     @Override
     public void tellWithBackPressure(@NonNull Object message, int blockThreshold) throws UnregisteredRecipientException, InterruptedException {
         tell(message, sender, null, blockThreshold);
     }
 
+    @Override
+    public void tellInt(int value) throws UnregisteredRecipientException {
+        tell(PrimitiveKind.INT, value);
+    }
+
+    @Override
+    public void tellLong(long value) throws UnregisteredRecipientException {
+        tell(PrimitiveKind.LONG, value);
+    }
+
+    @Override
+    public void tellDouble(double value) throws UnregisteredRecipientException {
+        tell(PrimitiveKind.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
     /**
      * This is an internal method to delegate Runnables to an actor. Mainly this is used to handle Responses to ask() in the correct thread.
      *
@@ -66,37 +89,98 @@ public class SelfUpdatingActorAccessor implements LintStoneActorAccessor {
         tell(message, sender, null);
     }
 
-    private void tell(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, Integer blockThreshold) throws UnregisteredRecipientException, InterruptedException {
-        if (actor == null) {
-            updateActor();
+    private void tell(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler, int blockThreshold) throws UnregisteredRecipientException, InterruptedException {
+        // the cached actor might have been replaced, so a rejection is retried once with a fresh lookup
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Actor current = currentActor();
+            if (current == null) {
+                break;
+            }
+            if (current.trySend(message, sender, replyHandler, blockThreshold)) {
+                return;
+            }
+            actor = null;
         }
-        try {
-            actor.send(message, sender, replyHandler, blockThreshold);
-        } catch (UnregisteredRecipientException ignoredOnce) {
+        system.deadLetters().record(name, message, DeadLetterReason.UNREGISTERED_RECIPIENT);
+        throw unavailable();
+    }
+
+    private void tell(@NonNull PrimitiveKind kind, long bits) throws UnregisteredRecipientException {
+        // the cached actor might have been replaced, so a rejection is retried once with a fresh lookup
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Actor current = currentActor();
+            if (current == null) {
+                break;
+            }
+            if (current.trySend(kind, bits, sender)) {
+                return;
+            }
             actor = null;
-            updateActor();
-            // second try throws the exception to the outside, in case the actor provided was already unregistered.
-            actor.send(message, sender, replyHandler, blockThreshold);
         }
+        system.deadLetters().record(name, kind.box(bits), DeadLetterReason.UNREGISTERED_RECIPIENT);
+        throw unavailable();
     }
 
     private void tell(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) throws UnregisteredRecipientException {
-        if (actor == null) {
-            updateActor();
+        if (!tryTell(message, sender, replyHandler)) {
+            throw unavailable();
         }
-        try {
-            actor.send(message, sender, replyHandler);
-        } catch (UnregisteredRecipientException ignoredOnce) {
+    }
+
+    private boolean tryTell(@NonNull Object message, SelfUpdatingActorAccessor sender, ReplyHandler replyHandler) {
+        // the cached actor might have been replaced, so a rejection is retried once with a fresh lookup
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Actor current = currentActor();
+            if (current == null) {
+                break;
+            }
+            if (current.trySend(message, sender, replyHandler)) {
+                return true;
+            }
             actor = null;
-            updateActor();
-            // second try throws the exception to the outside, in case the actor provided was already unregistered.
-            actor.send(message, sender, replyHandler);
         }
+        system.deadLetters().record(name, message, DeadLetterReason.UNREGISTERED_RECIPIENT);
+        return false;
+    }
+
+    /**
+     * Runs the action in the sequence of the actor, after the messages queued before.
+     *
+     * @param action the action, that must not throw.
+     * @return {@code false} if the actor is not registered or its queue is full.
+     */
+    boolean signal(@NonNull Runnable action) {
+        Actor current = currentActor();
+        return current != null && current.signal(action);
+    }
+
+    @NonNull ActorSystem system() {
+        return system;
+    }
+
+    /**
+     * @return the actor sending with this accessor or null, if it is used outside the actors.
+     */
+    SelfUpdatingActorAccessor sender() {
+        return sender;
+    }
+
+    private Actor currentActor() {
+        Actor current = actor;
+        if (current == null) {
+            current = system.getOrCreateActor(name).orElse(null);
+            actor = current;
+        }
+        return current;
+    }
+
+    private @NonNull UnregisteredRecipientException unavailable() {
+        return new UnregisteredRecipientException("An actor with the name " + name + " is not available");
     }
 
 
     private void updateActor() throws UnregisteredRecipientException {
-        actor = system.getOptionalActor(name)
+        actor = system.getOrCreateActor(name)
                 .orElseThrow(() -> new UnregisteredRecipientException("An actor with the name " + name + " is not available"));
     }
 
@@ -118,13 +202,13 @@ public class SelfUpdatingActorAccessor implements LintStoneActorAccessor {
     @Override
     public <F> @NonNull CompletableFuture<F> ask(@NonNull Object message) throws UnregisteredRecipientException {
         CompletableFuture<F> result = new CompletableFuture<>();
-        tell(message, sender, mec -> mec.otherwise((reply, resultMec) -> {
+        tell(message, sender, (DirectReplyHandler) reply -> {
             try {
                 result.complete((F) reply);
             } catch (Exception e) {
                 result.completeExceptionally(e);
             }
-        }));
+        });
         return result;
     }
 
@@ -144,6 +228,16 @@ public class SelfUpdatingActorAccessor implements LintStoneActorAccessor {
         return actor.getTotalReplies();
     }
 
+    @Override
+    public Optional<LatencySnapshot> getQueueWaitLatency() {
+        return actor.getQueueWaitLatency();
+    }
+
+    @Override
+    public Optional<LatencySnapshot> getServiceTimeLatency() {
+        return actor.getServiceTimeLatency();
+    }
+
     @Override
     public String getName() {
         return name;
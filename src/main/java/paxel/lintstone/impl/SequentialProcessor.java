@@ -1,5 +1,7 @@
 package paxel.lintstone.impl;
 
+import java.util.function.Predicate;
+
 /**
  * Interface for a sequential task processor.
  */
@@ -8,8 +10,9 @@ public interface SequentialProcessor {
      * Adds a task to the processor.
      *
      * @param runnable the task to add.
+     * @return {@code true} if the task was added, {@code false} if the processor is stopped or passivated.
      */
-    void add(Runnable runnable);
+    boolean add(Runnable runnable);
 
     /**
      * Adds a task to the processor, blocking if the queue size exceeds the threshold.
@@ -21,6 +24,15 @@ public interface SequentialProcessor {
      */
     boolean addWithBackPressure(Runnable runnable, int blockThreshold) throws InterruptedException;
 
+    /**
+     * Removes the next queued task, if it matches the condition. Must only be called by the task being executed,
+     * to continue with the following tasks.
+     *
+     * @param condition the condition.
+     * @return the removed task or null, if the queue is empty, the next task doesn't match or the processor stops.
+     */
+    Runnable pollNextIf(Predicate<Runnable> condition);
+
     /**
      * Gets the number of queued tasks.
      *
@@ -28,6 +40,34 @@ public interface SequentialProcessor {
      */
     int size();
 
+    /**
+     * Closes the queue of an idle processor, so that it can stop. Further tasks are rejected.
+     *
+     * @return {@code true} if the processor was idle and is passivated now.
+     */
+    boolean passivate();
+
+    /**
+     * Retrieve the task that is currently executed. Meant for monitoring, the value might be slightly outdated.
+     *
+     * @return the task or null if the processor is idle.
+     */
+    Runnable currentTask();
+
+    /**
+     * Retrieve the number of started tasks. Meant for monitoring, the value might be slightly outdated.
+     *
+     * @return the started tasks.
+     */
+    long startedTasks();
+
+    /**
+     * Retrieve the thread executing the tasks.
+     *
+     * @return the thread or null if the processor was not started yet or is stopped.
+     */
+    Thread worker();
+
     /**
      * Unregisters the processor gracefully.
      */
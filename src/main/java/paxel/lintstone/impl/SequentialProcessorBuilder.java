@@ -3,7 +3,10 @@ package paxel.lintstone.impl;
 import paxel.lintstone.api.ErrorHandler;
 import paxel.lintstone.api.ErrorHandlerDecision;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Builder for {@link SequentialProcessor}.
@@ -11,6 +14,10 @@ import java.util.concurrent.ExecutorService;
 public class SequentialProcessorBuilder {
     private final ExecutorService executorService;
     private ErrorHandler errorHandler = (err, desc, cause) -> ErrorHandlerDecision.CONTINUE;
+    private Duration idleTimeout = Duration.ZERO;
+    private BooleanSupplier passivationHandler = () -> false;
+    private Consumer<Runnable> discardHandler = r -> {
+    };
 
     /**
      * Creates a new builder with the given executor service.
@@ -31,13 +38,36 @@ public class SequentialProcessorBuilder {
         this.errorHandler = errorHandler;
     }
 
+    /**
+     * Enables the passivation of the processor. After being idle for the given timeout, the processor calls the
+     * handler, which may {@link SequentialProcessor#passivate() passivate} it. If the handler returns {@code true}
+     * the processor stops.
+     *
+     * @param idleTimeout        the idle time before the handler is called.
+     * @param passivationHandler the handler.
+     */
+    public void setPassivation(Duration idleTimeout, BooleanSupplier passivationHandler) {
+        this.idleTimeout = idleTimeout;
+        this.passivationHandler = passivationHandler;
+    }
+
+    /**
+     * Sets the handler for the queued tasks that are dropped, because the error handler gave up or the processor
+     * was shut down immediately.
+     *
+     * @param discardHandler the handler.
+     */
+    public void setDiscardHandler(Consumer<Runnable> discardHandler) {
+        this.discardHandler = discardHandler;
+    }
+
     /**
      * Builds and starts the {@link SequentialProcessor}.
      *
      * @return the sequential processor.
      */
     public SequentialProcessor build() {
-        SequentialProcessorImpl sequentialProcessor = new SequentialProcessorImpl(errorHandler);
+        SequentialProcessorImpl sequentialProcessor = new SequentialProcessorImpl(errorHandler, idleTimeout, passivationHandler, discardHandler);
         executorService.submit(sequentialProcessor.getRunnable());
         return sequentialProcessor;
     }
@@ -5,13 +5,18 @@ import paxel.lintstone.api.ErrorHandler;
 import paxel.lintstone.api.ErrorHandlerDecision;
 import paxel.lintstone.api.LintStoneError;
 
+import java.time.Duration;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static paxel.lintstone.impl.SequentialProcessorImpl.RunStatus.*;
 
@@ -20,17 +25,29 @@ import static paxel.lintstone.impl.SequentialProcessorImpl.RunStatus.*;
  */
 public class SequentialProcessorImpl implements SequentialProcessor {
 
+    /**
+     * The queue size of a passivated processor. No task can be reserved anymore.
+     */
+    private static final int PASSIVATED = Integer.MIN_VALUE;
+
     private final ReentrantLock lock = new ReentrantLock();
     private final Condition empty = lock.newCondition();
     private final Semaphore backPressureSemaphore = new Semaphore(0);
 
     private final @NonNull ErrorHandler errorHandler;
+    private final long idleTimeoutNanos;
+    private final @NonNull BooleanSupplier passivationHandler;
+    private final @NonNull Consumer<Runnable> discardHandler;
 
     private final AtomicReference<RunStatus> status = new AtomicReference<>(ACTIVE);
 
     private final ConcurrentLinkedQueue<Runnable> queuedRunnables = new ConcurrentLinkedQueue<>();
     private final AtomicInteger queueSize = new AtomicInteger(0);
     private final AtomicBoolean endGracefully = new AtomicBoolean();
+    // published for monitoring with release stores, which need no fence on the message path
+    private final AtomicReference<Runnable> currentTask = new AtomicReference<>();
+    private final AtomicLong startedTasks = new AtomicLong();
+    private volatile Thread worker;
 
     /**
      * Creates a new sequential processor implementation with the given error handler.
@@ -38,17 +55,46 @@ public class SequentialProcessorImpl implements SequentialProcessor {
      * @param errorHandler the error handler.
      */
     public SequentialProcessorImpl(@NonNull ErrorHandler errorHandler) {
+        this(errorHandler, Duration.ZERO, () -> false);
+    }
+
+    /**
+     * Creates a new sequential processor implementation that offers its passivation to the handler after being idle.
+     *
+     * @param errorHandler       the error handler.
+     * @param idleTimeout        the idle time before the handler is called. Zero disables the passivation.
+     * @param passivationHandler the handler, that decides about the passivation.
+     */
+    public SequentialProcessorImpl(@NonNull ErrorHandler errorHandler, @NonNull Duration idleTimeout, @NonNull BooleanSupplier passivationHandler) {
+        this(errorHandler, idleTimeout, passivationHandler, r -> {
+        });
+    }
+
+    /**
+     * Creates a new sequential processor implementation that reports the tasks it discards.
+     *
+     * @param errorHandler       the error handler.
+     * @param idleTimeout        the idle time before the handler is called. Zero disables the passivation.
+     * @param passivationHandler the handler, that decides about the passivation.
+     * @param discardHandler     receives the queued tasks that are dropped by an abort or an immediate shutdown.
+     */
+    public SequentialProcessorImpl(@NonNull ErrorHandler errorHandler, @NonNull Duration idleTimeout, @NonNull BooleanSupplier passivationHandler,
+                                   @NonNull Consumer<Runnable> discardHandler) {
         this.errorHandler = errorHandler;
+        this.idleTimeoutNanos = idleTimeout.isPositive() ? idleTimeout.toNanos() : 0;
+        this.passivationHandler = passivationHandler;
+        this.discardHandler = discardHandler;
     }
 
     @Override
-    public void add(@NonNull Runnable runnable) {
+    public boolean add(@NonNull Runnable runnable) {
         if (status.get() != ACTIVE || endGracefully.get()) {
-            return;
+            return false;
         }
 
-        queuedRunnables.add(runnable);
-        queueSize.incrementAndGet();
+        if (!enqueue(runnable)) {
+            return false;
+        }
         try {
             lock.lock();
             // wake up the run() method, in case it was waiting for a job
@@ -56,6 +102,32 @@ public class SequentialProcessorImpl implements SequentialProcessor {
         } finally {
             lock.unlock();
         }
+        return true;
+    }
+
+    private boolean enqueue(@NonNull Runnable runnable) {
+        if (idleTimeoutNanos == 0) {
+            queuedRunnables.add(runnable);
+            queueSize.incrementAndGet();
+            return true;
+        }
+        // a passivating processor has to reserve the slot before the task becomes visible,
+        // so that the processor never passivates with a task in flight.
+        for (; ; ) {
+            int size = queueSize.get();
+            if (size == PASSIVATED) {
+                return false;
+            }
+            if (queueSize.compareAndSet(size, size + 1)) {
+                queuedRunnables.add(runnable);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean passivate() {
+        return queueSize.compareAndSet(0, PASSIVATED);
     }
 
     @Override
@@ -74,8 +146,9 @@ public class SequentialProcessorImpl implements SequentialProcessor {
             return false;
         }
 
-        queuedRunnables.add(runnable);
-        queueSize.incrementAndGet();
+        if (!enqueue(runnable)) {
+            return false;
+        }
         try {
             lock.lock();
             // wake up the run() method, in case it was waiting for a job
@@ -88,7 +161,7 @@ public class SequentialProcessorImpl implements SequentialProcessor {
 
     @Override
     public int size() {
-        return queueSize.get();
+        return Math.max(0, queueSize.get());
     }
 
     @Override
@@ -111,8 +184,7 @@ public class SequentialProcessorImpl implements SequentialProcessor {
         if (now) {
             // abort and remove all jobs
             status.set(STOPPED);
-            queuedRunnables.clear();
-            queueSize.set(0);
+            discardQueued();
         }
         // Wake up potentially blocked threads. 
         // Once endGracefully is true, no new threads will block on this semaphore.
@@ -138,9 +210,11 @@ public class SequentialProcessorImpl implements SequentialProcessor {
     }
 
     private void run() {
+        worker = Thread.currentThread();
         try {
             runMessages();
         } finally {
+            worker = null;
             status.set(STOPPED);
         }
     }
@@ -172,6 +246,25 @@ public class SequentialProcessorImpl implements SequentialProcessor {
         }
     }
 
+    @Override
+    public Runnable pollNextIf(@NonNull Predicate<Runnable> condition) {
+        // only the worker polls, so the head stays the same, unless an abort discards the queue concurrently
+        Runnable next = queuedRunnables.peek();
+        if (next == null || status.get() != ACTIVE || !condition.test(next)) {
+            return null;
+        }
+        Runnable polled = queuedRunnables.poll();
+        if (polled != next) {
+            if (polled != null) {
+                discardHandler.accept(polled);
+            }
+            return null;
+        }
+        queueSize.decrementAndGet();
+        backPressureSemaphore.release();
+        return polled;
+    }
+
     private boolean checkWaiting() {
         if (status.get() == ABORT) {
             return false;
@@ -180,16 +273,21 @@ public class SequentialProcessorImpl implements SequentialProcessor {
             return false;
         }
 
+        boolean idle;
         try {
             lock.lock();
-            if (queuedRunnables.isEmpty()) {
-                if (endGracefully.get()) {
-                    return false;
-                }
+            if (!queuedRunnables.isEmpty()) {
+                return true;
+            }
+            if (endGracefully.get()) {
+                return false;
+            }
+            if (idleTimeoutNanos == 0) {
                 // Set this Thread to inactive until a message is received
                 empty.await();
+                return true;
             }
-            return true;
+            idle = empty.awaitNanos(idleTimeoutNanos) <= 0;
         } catch (InterruptedException e) {
             // Restore interrupted status and end this Thread
             Thread.currentThread().interrupt();
@@ -197,28 +295,55 @@ public class SequentialProcessorImpl implements SequentialProcessor {
         } finally {
             lock.unlock();
         }
+        // the handler is called without holding the lock, as it might take other locks
+        return !idle || !passivationHandler.getAsBoolean();
     }
 
     private void runNextMessage(@NonNull Runnable runnable) {
+        // only this thread writes both
+        startedTasks.setRelease(startedTasks.getPlain() + 1);
+        currentTask.setRelease(runnable);
         try {
             runnable.run();
         } catch (ProcessingException e) {
             if (errorHandler.handleError(e.getError(), e.getDescription(), e.getCause()) != ErrorHandlerDecision.CONTINUE) {
                 // errorhandler says: give up
                 status.set(ABORT);
-                queuedRunnables.clear();
-                queueSize.set(0);
+                discardQueued();
                 backPressureSemaphore.release(65536);
             }
         } catch (Exception e) {
             if (errorHandler.handleError(LintStoneError.UNEXPECTED_ERROR, "Unexpected error in sequential processor", e) != ErrorHandlerDecision.CONTINUE) {
                 // errorhandler says: give up
                 status.set(ABORT);
-                queuedRunnables.clear();
-                queueSize.set(0);
+                discardQueued();
                 backPressureSemaphore.release(65536);
             }
+        } finally {
+            currentTask.setRelease(null);
+        }
+    }
+
+    @Override
+    public Runnable currentTask() {
+        return currentTask.getAcquire();
+    }
+
+    @Override
+    public long startedTasks() {
+        return startedTasks.getAcquire();
+    }
+
+    @Override
+    public Thread worker() {
+        return worker;
+    }
+
+    private void discardQueued() {
+        for (Runnable runnable = queuedRunnables.poll(); runnable != null; runnable = queuedRunnables.poll()) {
+            discardHandler.accept(runnable);
         }
+        queueSize.set(0);
     }
 
 
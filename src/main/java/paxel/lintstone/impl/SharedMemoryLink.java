@@ -0,0 +1,231 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.AutoClosableLock;
+import paxel.lintstone.api.UnregisteredRecipientException;
+import paxel.lintstone.api.WaitStrategy;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A link between two processes on the same host over a memory mapped file with one {@link SharedMemoryRing} per
+ * direction. The bound system creates the file, one other system can attach to it. The senders write their frames
+ * directly into the ring under a lock. A thread per link polls the incoming ring and waits by the
+ * {@link WaitStrategy} of the file. The link ends when either side closes it.
+ */
+final class SharedMemoryLink extends Link implements Runnable {
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int MAGIC = 0x4C53544E;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int STRATEGY_OFFSET = 12;
+    private static final int ATTACHED_OFFSET = 16;
+    private static final int CLOSED_OFFSET = 20;
+    private static final int RINGS_OFFSET = 128;
+    private static final int SPINS = 100;
+    private static final int YIELDS = 200;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final @NonNull Path path;
+    private final @NonNull MappedByteBuffer region;
+    private final @NonNull SharedMemoryRing out;
+    private final @NonNull SharedMemoryRing in;
+    private final @NonNull WaitStrategy waitStrategy;
+    private final int capacity;
+    private final @NonNull ReentrantLock sendLock = new ReentrantLock();
+    private final @NonNull Consumer<ByteBuffer> receiver = frame -> transport.receive(this, frame);
+    private final @NonNull Thread thread;
+    // the frame of the current send, guarded by the sendLock, so the writer doesn't allocate
+    private final @NonNull SharedMemoryRing.Writer writer = this::write;
+    private byte type;
+    private long correlation;
+    private String text;
+    private Object message;
+    private volatile boolean closed;
+
+    private SharedMemoryLink(@NonNull RemoteTransport transport, String key, @NonNull Path path, @NonNull MappedByteBuffer region, boolean bound) {
+        super(transport, key);
+        this.path = path;
+        this.region = region;
+        this.capacity = region.getInt(CAPACITY_OFFSET);
+        this.waitStrategy = WaitStrategy.values()[region.getInt(STRATEGY_OFFSET)];
+        SharedMemoryRing clientToServer = new SharedMemoryRing(region, RINGS_OFFSET, capacity);
+        SharedMemoryRing serverToClient = new SharedMemoryRing(region, RINGS_OFFSET + SharedMemoryRing.HEADER + capacity, capacity);
+        this.out = bound ? serverToClient : clientToServer;
+        this.in = bound ? clientToServer : serverToClient;
+        this.thread = new Thread(this, "lintstone-shm-" + path.getFileName());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates the file and waits for a system to attach. An existing file is only replaced, if it is a link file left
+     * by an earlier bind.
+     *
+     * @throws IOException if the file exists and is not a link file.
+     */
+    static @NonNull SharedMemoryLink bind(@NonNull RemoteTransport transport, @NonNull Path path, int capacity, @NonNull WaitStrategy waitStrategy) throws IOException {
+        if (capacity < 4096 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The ring size must be a power of 2 and at least 4096");
+        }
+        if (Files.exists(path)) {
+            if (!isLinkFile(path)) {
+                throw new IOException(path + " exists and is not a lintstone link");
+            }
+            Files.delete(path);
+        }
+        MappedByteBuffer region;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, 0, RINGS_OFFSET + 2L * (SharedMemoryRing.HEADER + capacity));
+        }
+        region.putInt(VERSION_OFFSET, VERSION);
+        region.putInt(CAPACITY_OFFSET, capacity);
+        region.putInt(STRATEGY_OFFSET, waitStrategy.ordinal());
+        // the magic number tells the other side, that the header is complete
+        INTS.setRelease(region, MAGIC_OFFSET, MAGIC);
+        return new SharedMemoryLink(transport, null, path, region, true);
+    }
+
+    private static boolean isLinkFile(@NonNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.nativeOrder());
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the magic number completely
+            }
+            return !header.hasRemaining() && header.getInt(MAGIC_OFFSET) == MAGIC;
+        }
+    }
+
+    /**
+     * Attaches to the file of a bound system.
+     */
+    static @NonNull SharedMemoryLink attach(@NonNull RemoteTransport transport, @NonNull String key, @NonNull Path path) throws IOException {
+        MappedByteBuffer region;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < RINGS_OFFSET) {
+                throw new IOException(path + " is not a lintstone link");
+            }
+            region = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if ((int) INTS.getAcquire(region, MAGIC_OFFSET) != MAGIC || region.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(path + " is not a lintstone link");
+        }
+        if ((int) INTS.getAcquire(region, CLOSED_OFFSET) != 0 || !INTS.compareAndSet(region, ATTACHED_OFFSET, 0, 1)) {
+            throw new IOException(path + " is already used");
+        }
+        return new SharedMemoryLink(transport, key, path, region, false);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    @Override
+    void send(byte type, long correlation, @NonNull String text, Object message) throws UnregisteredRecipientException {
+        try (AutoClosableLock ignored = new AutoClosableLock(sendLock)) {
+            this.type = type;
+            this.correlation = correlation;
+            this.text = text;
+            this.message = message;
+            try {
+                int idle = 0;
+                while (true) {
+                    if (isClosed()) {
+                        throw closedException();
+                    }
+                    int result = out.offer(writer);
+                    if (result == SharedMemoryRing.OFFERED) {
+                        return;
+                    }
+                    if (result == SharedMemoryRing.TOO_LARGE) {
+                        throw tooLarge(capacity);
+                    }
+                    // the other process is slower
+                    idle = idle(idle);
+                }
+            } finally {
+                this.text = null;
+                this.message = null;
+            }
+        }
+    }
+
+    private boolean write(@NonNull ByteBuffer target) {
+        return encode(target, type, correlation, text, message);
+    }
+
+    /**
+     * The frames in the ring are not counted. A full ring blocks the senders.
+     */
+    @Override
+    int queued() {
+        return 0;
+    }
+
+    @Override
+    boolean isClosed() {
+        return closed || (int) INTS.getAcquire(region, CLOSED_OFFSET) != 0;
+    }
+
+    @Override
+    public void run() {
+        try {
+            int idle = 0;
+            while (!isClosed()) {
+                idle = in.poll(receiver) > 0 ? 0 : idle(idle);
+            }
+        } catch (RuntimeException e) {
+            // a corrupted ring ends the link
+        } finally {
+            close();
+        }
+    }
+
+    private int idle(int idle) {
+        if (waitStrategy == WaitStrategy.BUSY_SPIN || idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(idle - YIELDS, 10)));
+        }
+        return idle + 1;
+    }
+
+    @Override
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        INTS.setRelease(region, CLOSED_OFFSET, 1);
+        transport.closed(this);
+        failPending();
+        if (key() == null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // the file is recreated by the next bind
+            }
+        }
+    }
+
+    @Override
+    @NonNull UnregisteredRecipientException closedException() {
+        return new UnregisteredRecipientException("The shared memory link " + path + " is closed");
+    }
+}
@@ -0,0 +1,133 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * A single producer, single consumer ring of frames in a memory region, that may be shared by two processes.
+ * The producer and the consumer position are counted in bytes and published with release stores in separate
+ * cache lines before the data. A frame is stored as {@code [int length][bytes]} and padded to 8 bytes.
+ * A frame that doesn't fit before the end of the ring is preceded by a wrap marker and written at the start.
+ */
+final class SharedMemoryRing {
+
+    /**
+     * The bytes before the data: the producer position, a cache line later the consumer position.
+     */
+    static final int HEADER = 128;
+    static final int OFFERED = 0;
+    static final int FULL = 1;
+    static final int TOO_LARGE = 2;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int WRAP = -1;
+    private static final int CONSUMER = 64;
+
+    /**
+     * Writes a frame at the position of the target.
+     */
+    @FunctionalInterface
+    interface Writer {
+        /**
+         * @return {@code false} if the frame doesn't fit. The position is unchanged then.
+         */
+        boolean write(@NonNull ByteBuffer target);
+    }
+
+    private final @NonNull ByteBuffer region;
+    private final int offset;
+    private final int capacity;
+    private final int mask;
+    private final @NonNull ByteBuffer producerView;
+    private final @NonNull ByteBuffer consumerView;
+    private long head;
+    private long tail;
+
+    /**
+     * @param region   the shared memory.
+     * @param offset   the start of the ring in the region, aligned to 8 bytes.
+     * @param capacity the size of the data, a power of 2.
+     */
+    SharedMemoryRing(@NonNull ByteBuffer region, int offset, int capacity) {
+        this.region = region;
+        this.offset = offset;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        ByteBuffer data = region.slice(offset + HEADER, capacity);
+        this.producerView = data.duplicate();
+        this.consumerView = data.duplicate();
+        this.head = (long) LONGS.getAcquire(region, offset);
+        this.tail = (long) LONGS.getAcquire(region, offset + CONSUMER);
+    }
+
+    /**
+     * Writes one frame, if there is space. Only one thread at a time may offer.
+     *
+     * @return {@link #OFFERED}, {@link #FULL} or {@link #TOO_LARGE} if the frame doesn't fit into the empty ring.
+     */
+    int offer(@NonNull Writer writer) {
+        while (true) {
+            long free = capacity - (head - (long) LONGS.getAcquire(region, offset + CONSUMER));
+            int position = (int) head & mask;
+            int contiguous = capacity - position;
+            int room = (int) Math.min(free, contiguous);
+            if (room >= Long.BYTES) {
+                producerView.limit(position + room).position(position);
+                if (writer.write(producerView)) {
+                    head += align(producerView.position() - position);
+                    LONGS.setRelease(region, offset, head);
+                    return OFFERED;
+                }
+            }
+            if (room == contiguous && free > contiguous) {
+                // continue at the start of the ring
+                producerView.putInt(position, WRAP);
+                head += contiguous;
+                LONGS.setRelease(region, offset, head);
+            } else {
+                return free == capacity && position == 0 ? TOO_LARGE : FULL;
+            }
+        }
+    }
+
+    /**
+     * Gives all available frames to the handler. The buffer is limited to the frame and only valid during the call.
+     * Only one thread at a time may poll.
+     *
+     * @return the number of frames.
+     * @throws IllegalStateException if the ring is corrupted.
+     */
+    int poll(@NonNull Consumer<ByteBuffer> handler) {
+        long available = (long) LONGS.getAcquire(region, offset);
+        if (tail == available) {
+            return 0;
+        }
+        int count = 0;
+        while (tail < available) {
+            int position = (int) tail & mask;
+            int length = consumerView.clear().getInt(position);
+            if (length == WRAP) {
+                tail += capacity - position;
+                continue;
+            }
+            if (length <= 0 || length > capacity - position - Integer.BYTES) {
+                throw new IllegalStateException("Invalid frame length " + length);
+            }
+            consumerView.limit(position + Integer.BYTES + length).position(position + Integer.BYTES);
+            handler.accept(consumerView);
+            tail += align(Integer.BYTES + length);
+            count++;
+        }
+        LONGS.setRelease(region, offset + CONSUMER, tail);
+        return count;
+    }
+
+    private static int align(int size) {
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
@@ -47,6 +47,11 @@ public class SimpleScheduler implements Scheduler, Runnable {
     }
 
 
+    @Override
+    public int backlog() {
+        return jobs.size();
+    }
+
     @Override
     public void shutDown() {
         lock.lock();
@@ -0,0 +1,19 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.LintStoneStalledActor;
+
+import java.time.Duration;
+
+/**
+ * Implementation of {@link LintStoneStalledActor}.
+ *
+ * @param actorName    the name of the actor.
+ * @param messageClass the class of the processed message.
+ * @param stalledFor   the minimal processing time.
+ * @param stackTrace   the stack of the processing thread.
+ * @param queued       the queue depth.
+ */
+public record StalledActor(@NonNull String actorName, Class<?> messageClass, @NonNull Duration stalledFor,
+                           @NonNull StackTraceElement[] stackTrace, int queued) implements LintStoneStalledActor {
+}
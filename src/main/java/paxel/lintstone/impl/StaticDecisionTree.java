@@ -1,8 +1,14 @@
 package paxel.lintstone.impl;
 
+import paxel.lintstone.api.LintStoneBatchHandler;
+import paxel.lintstone.api.LintStoneDoubleHandler;
 import paxel.lintstone.api.LintStoneEventHandler;
+import paxel.lintstone.api.LintStoneIntHandler;
+import paxel.lintstone.api.LintStoneLongHandler;
 import paxel.lintstone.api.LintStoneMessageEventContext;
 
+import java.util.List;
+
 /**
  * Interface for the message dispatch logic.
  */
@@ -14,23 +20,78 @@ interface DecisionTree {
      * @param context the context to pass to the handler.
      */
     void handle(Object message, LintStoneMessageEventContext context);
+
+    /**
+     * Retrieve the batch handler of the message.
+     *
+     * @param message the message.
+     * @return the batch entry or null, if the message is handled by another handler.
+     */
+    StaticDecisionTree.BatchEntry<?> batchFor(Object message);
+
+    /**
+     * Handle an int message. It is only boxed if it is not handled by an int handler.
+     *
+     * @param value   the value.
+     * @param context the context to pass to the handler.
+     */
+    void handleInt(int value, LintStoneMessageEventContext context);
+
+    /**
+     * Handle a long message. It is only boxed if it is not handled by a long handler.
+     *
+     * @param value   the value.
+     * @param context the context to pass to the handler.
+     */
+    void handleLong(long value, LintStoneMessageEventContext context);
+
+    /**
+     * Handle a double message. It is only boxed if it is not handled by a double handler.
+     *
+     * @param value   the value.
+     * @param context the context to pass to the handler.
+     */
+    void handleDouble(double value, LintStoneMessageEventContext context);
 }
 
 /**
  * Optimized implementation of {@link DecisionTree} using an array of handlers.
  */
 class StaticDecisionTree implements DecisionTree {
-    private final HandlerEntry<?>[] handlers;
+    private final Entry[] handlers;
     private final LintStoneEventHandler<Object> otherwiseHandler;
+    // the first entries matching the boxed primitives, or null
+    private final Entry intEntry;
+    private final Entry longEntry;
+    private final Entry doubleEntry;
+    // most actors have no batch handler and skip the scan for one
+    private final boolean hasBatch;
 
-    StaticDecisionTree(HandlerEntry<?>[] handlers, LintStoneEventHandler<Object> otherwiseHandler) {
+    StaticDecisionTree(Entry[] handlers, LintStoneEventHandler<Object> otherwiseHandler) {
         this.handlers = handlers;
         this.otherwiseHandler = otherwiseHandler;
+        this.intEntry = first(Integer.class);
+        this.longEntry = first(Long.class);
+        this.doubleEntry = first(Double.class);
+        boolean batch = false;
+        for (Entry entry : handlers) {
+            batch |= entry instanceof BatchEntry<?>;
+        }
+        this.hasBatch = batch;
+    }
+
+    private Entry first(Class<?> type) {
+        for (Entry entry : handlers) {
+            if (entry.clazz().isAssignableFrom(type)) {
+                return entry;
+            }
+        }
+        return null;
     }
 
     @Override
     public void handle(Object message, LintStoneMessageEventContext context) {
-        for (HandlerEntry<?> entry : handlers) {
+        for (Entry entry : handlers) {
             if (entry.clazz().isInstance(message)) {
                 entry.handle(message, context);
                 return;
@@ -41,12 +102,122 @@ class StaticDecisionTree implements DecisionTree {
         }
     }
 
+    @Override
+    public BatchEntry<?> batchFor(Object message) {
+        if (!hasBatch) {
+            return null;
+        }
+        for (Entry entry : handlers) {
+            if (entry.clazz().isInstance(message)) {
+                return entry instanceof BatchEntry<?> batch ? batch : null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void handleInt(int value, LintStoneMessageEventContext context) {
+        if (intEntry instanceof IntEntry entry) {
+            entry.handler().handle(value, context);
+        } else {
+            handle(value, context);
+        }
+    }
+
+    @Override
+    public void handleLong(long value, LintStoneMessageEventContext context) {
+        if (longEntry instanceof LongEntry entry) {
+            entry.handler().handle(value, context);
+        } else {
+            handle(value, context);
+        }
+    }
+
+    @Override
+    public void handleDouble(double value, LintStoneMessageEventContext context) {
+        if (doubleEntry instanceof DoubleEntry entry) {
+            entry.handler().handle(value, context);
+        } else {
+            handle(value, context);
+        }
+    }
+
     /**
      * A single entry in the decision tree.
      */
-    record HandlerEntry<T>(Class<T> clazz, LintStoneEventHandler<T> handler) {
-        void handle(Object message, LintStoneMessageEventContext context) {
+    interface Entry {
+        Class<?> clazz();
+
+        void handle(Object message, LintStoneMessageEventContext context);
+    }
+
+    /**
+     * An entry handling one message.
+     */
+    record HandlerEntry<T>(Class<T> clazz, LintStoneEventHandler<T> handler) implements Entry {
+        @Override
+        public void handle(Object message, LintStoneMessageEventContext context) {
             handler.handle(clazz.cast(message), context);
         }
     }
+
+    /**
+     * An entry handling a batch of messages. The actor collects the batch from its queue.
+     */
+    record BatchEntry<T>(Class<T> clazz, int maxBatch, LintStoneBatchHandler<T> handler) implements Entry {
+        @Override
+        public void handle(Object message, LintStoneMessageEventContext context) {
+            handler.handle(List.of(clazz.cast(message)), context);
+        }
+
+        @SuppressWarnings("unchecked")
+        void handleBatch(List<?> batch, LintStoneMessageEventContext context) {
+            handler.handle((List<T>) batch, context);
+        }
+    }
+
+    /**
+     * An entry handling int messages without boxing.
+     */
+    record IntEntry(LintStoneIntHandler handler) implements Entry {
+        @Override
+        public Class<?> clazz() {
+            return Integer.class;
+        }
+
+        @Override
+        public void handle(Object message, LintStoneMessageEventContext context) {
+            handler.handle((Integer) message, context);
+        }
+    }
+
+    /**
+     * An entry handling long messages without boxing.
+     */
+    record LongEntry(LintStoneLongHandler handler) implements Entry {
+        @Override
+        public Class<?> clazz() {
+            return Long.class;
+        }
+
+        @Override
+        public void handle(Object message, LintStoneMessageEventContext context) {
+            handler.handle((Long) message, context);
+        }
+    }
+
+    /**
+     * An entry handling double messages without boxing.
+     */
+    record DoubleEntry(LintStoneDoubleHandler handler) implements Entry {
+        @Override
+        public Class<?> clazz() {
+            return Double.class;
+        }
+
+        @Override
+        public void handle(Object message, LintStoneMessageEventContext context) {
+            handler.handle((Double) message, context);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package paxel.lintstone.impl;
+
+import paxel.lintstone.api.LintStoneStreamEnd;
+
+import java.util.Optional;
+
+/**
+ * The end of a stream.
+ *
+ * @param cause the error or null, if the stream completed.
+ */
+record StreamEnd(Throwable cause) implements LintStoneStreamEnd {
+
+    @Override
+    public Optional<Throwable> error() {
+        return Optional.ofNullable(cause);
+    }
+}
@@ -0,0 +1,52 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.ActorSnapshot;
+import paxel.lintstone.api.SystemSnapshot;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of {@link SystemSnapshot}.
+ *
+ * @param timestamp         the time of the snapshot.
+ * @param actors            the actor statistics.
+ * @param queued            the queued messages and replies.
+ * @param processedMessages the processed messages.
+ * @param processedReplies  the processed replies.
+ * @param errors            the failed messages and replies.
+ */
+public record SystemSnapshotImpl(@NonNull Instant timestamp, @NonNull List<ActorSnapshot> actors, long queued,
+                                 long processedMessages, long processedReplies, long errors) implements SystemSnapshot {
+
+    /**
+     * Creates a snapshot and sums up the totals of the given actors.
+     *
+     * @param timestamp the time of the snapshot.
+     * @param actors    the unmodifiable actor statistics.
+     * @return the snapshot.
+     */
+    static @NonNull SystemSnapshotImpl of(@NonNull Instant timestamp, @NonNull List<ActorSnapshot> actors) {
+        long queued = 0;
+        long messages = 0;
+        long replies = 0;
+        long errors = 0;
+        for (ActorSnapshot actor : actors) {
+            queued += actor.queued();
+            messages += actor.processedMessages();
+            replies += actor.processedReplies();
+            errors += actor.errors();
+        }
+        return new SystemSnapshotImpl(timestamp, actors, queued, messages, replies, errors);
+    }
+
+    @Override
+    public List<ActorSnapshot> topByBacklog(int count) {
+        return actors.stream()
+                .sorted(Comparator.comparingInt(ActorSnapshot::queued).reversed())
+                .limit(Math.max(0, count))
+                .toList();
+    }
+}
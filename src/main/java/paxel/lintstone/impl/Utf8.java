@@ -0,0 +1,56 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes Strings as length prefixed UTF-8 without the allocation of {@link String#getBytes}.
+ * Surrogate pairs are written as two 3 byte sequences, like the JNI modified UTF-8.
+ */
+final class Utf8 {
+
+    private Utf8() {
+    }
+
+    static void put(@NonNull ByteBuffer target, @NonNull String value) {
+        int lengthPosition = target.position();
+        target.putInt(0);
+        int start = target.position();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | c >> 6));
+                target.put((byte) (0x80 | c & 0x3F));
+            } else {
+                target.put((byte) (0xE0 | c >> 12));
+                target.put((byte) (0x80 | c >> 6 & 0x3F));
+                target.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        target.putInt(lengthPosition, target.position() - start);
+    }
+
+    static @NonNull String get(@NonNull ByteBuffer source) {
+        int length = source.getInt();
+        if (length < 0 || length > source.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        char[] chars = new char[length];
+        int count = 0;
+        int end = source.position() + length;
+        while (source.position() < end) {
+            int b = source.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | source.get() & 0x3F);
+            } else {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (source.get() & 0x3F) << 6 | source.get() & 0x3F);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
@@ -0,0 +1,100 @@
+package paxel.lintstone.impl;
+
+import lombok.NonNull;
+import paxel.lintstone.api.StallHandler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Periodically samples the processors of all actors in its own daemon thread. An actor is stalled if it started no
+ * other task since the sample that first saw it running, and that sample is older than the threshold.
+ * The processors only publish their current task and a counter, so the message path needs no clock.
+ * The sampling, the stack traces and the {@link StallHandler} don't run in the {@link paxel.lintstone.api.Scheduler},
+ * so they never delay delayed messages or block the callers of the scheduler. The thread is a platform thread, so it
+ * still samples if the stalled actors occupy all carrier threads.
+ */
+class Watchdog implements Runnable {
+
+    private final @NonNull ActorSystem system;
+    private final long thresholdNanos;
+    private final long intervalNanos;
+    private final @NonNull StallHandler handler;
+    private final @NonNull Thread thread;
+    // only accessed by the watchdog thread
+    private Map<Actor, Observation> observations = new HashMap<>();
+    private volatile boolean running = true;
+
+    Watchdog(@NonNull ActorSystem system, @NonNull Duration threshold, @NonNull Duration interval, @NonNull StallHandler handler) {
+        if (!threshold.isPositive() || !interval.isPositive()) {
+            throw new IllegalArgumentException("threshold and interval must be positive");
+        }
+        this.system = system;
+        this.thresholdNanos = threshold.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.handler = handler;
+        this.thread = Thread.ofPlatform().name("lintstone-watchdog").daemon().unstarted(this);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime() + intervalNanos;
+        while (running) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                // spurious wakeups and stop() just check again
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            sample(System.nanoTime());
+            next += intervalNanos;
+        }
+    }
+
+    private void sample(long now) {
+        Map<Actor, Observation> next = new HashMap<>();
+        for (Actor actor : system.actors()) {
+            Actor.Activity activity = actor.activity();
+            if (activity == null) {
+                continue;
+            }
+            Observation previous = observations.get(actor);
+            Observation observation = previous != null && previous.startedTasks() == activity.startedTasks()
+                    ? previous
+                    : new Observation(activity.startedTasks(), now, false);
+            if (!observation.reported() && now - observation.since() >= thresholdNanos) {
+                report(actor, activity, Duration.ofNanos(now - observation.since()));
+                observation = new Observation(observation.startedTasks(), observation.since(), true);
+            }
+            next.put(actor, observation);
+        }
+        observations = next;
+    }
+
+    private void report(@NonNull Actor actor, @NonNull Actor.Activity activity, @NonNull Duration stalledFor) {
+        Thread worker = activity.worker();
+        StackTraceElement[] stack = worker == null ? new StackTraceElement[0] : worker.getStackTrace();
+        try {
+            handler.stalled(new StalledActor(actor.getName(), activity.messageClass(), stalledFor, stack, actor.getQueued()));
+        } catch (RuntimeException e) {
+            // a failing handler must not stop the watchdog
+        }
+    }
+
+    /**
+     * The first sample that saw an actor at its current task.
+     */
+    private record Observation(long startedTasks, long since, boolean reported) {
+    }
+}
@@ -0,0 +1,146 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ActorFamilyTest {
+
+    @Test
+    void testMemberIsCreatedByFirstMessage() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.registerFamily("user-", id -> () -> new EchoActor(id), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor user = system.getActor("user-12345");
+        assertThat(user.exists()).isFalse();
+
+        String reply = user.<String>ask("who").get();
+
+        assertThat(reply).isEqualTo("12345");
+        assertThat(user.exists()).isTrue();
+        system.shutDownNow();
+    }
+
+    @Test
+    void testConcurrentFirstMessagesCreateOneMember() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger mapped = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        system.registerFamily("user-", id -> {
+            mapped.incrementAndGet();
+            return () -> {
+                created.incrementAndGet();
+                return mec -> mec.otherwise((msg, ctx) -> processed.incrementAndGet());
+            };
+        }, ActorSettings.DEFAULT);
+
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> senders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            senders.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                system.getActor("user-1").tell("hello");
+            }));
+        }
+        start.countDown();
+        for (Thread sender : senders) {
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        long begin = System.currentTimeMillis();
+        while (processed.get() < threads && System.currentTimeMillis() - begin < 5000) {
+            Thread.sleep(10);
+        }
+
+        assertThat(mapped.get()).isEqualTo(1);
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(processed.get()).isEqualTo(threads);
+        assertThat(system.getActor("user-1").getProcessedMessages()).isEqualTo(threads);
+        system.shutDownNow();
+    }
+
+    @Test
+    void testLongestPrefixWinsAndUnknownNamesFail() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.registerFamily("user-", id -> () -> new EchoActor("user:" + id), ActorSettings.DEFAULT);
+        system.registerFamily("user-admin-", id -> () -> new EchoActor("admin:" + id), ActorSettings.DEFAULT);
+        system.registerFamily("order-", id -> id.startsWith("x") ? null : () -> new EchoActor(id), ActorSettings.DEFAULT);
+
+        assertThat(system.getActor("user-admin-7").<String>ask("who").get()).isEqualTo("admin:7");
+        assertThat(system.getActor("user-7").<String>ask("who").get()).isEqualTo("user:7");
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("customer-7").tell("who"));
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("order-x1").tell("who"));
+
+        assertThat(system.unregisterFamily("order-")).isTrue();
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("order-1").tell("who"));
+        system.shutDownNow();
+    }
+
+    @Test
+    void testActorTellsMember() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.registerFamily("user-", id -> () -> new EchoActor(id), ActorSettings.DEFAULT);
+        LintStoneActorAccessor relay = system.registerActor("relay", () -> mec -> mec.inCase(String.class,
+                (name, ctx) -> ctx.<String>ask(name, "who").thenAccept(ctx::reply)), ActorSettings.DEFAULT);
+
+        assertThat(relay.<String>ask("user-42").get()).isEqualTo("42");
+        system.shutDownNow();
+    }
+
+    @Test
+    void testManyFamilies() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        for (int i = 0; i < 1000; i++) {
+            String tenant = "tenant" + i + "-";
+            system.registerFamily(tenant, id -> () -> new EchoActor(tenant + id), ActorSettings.DEFAULT);
+        }
+
+        assertThat(system.getActor("tenant17-a").<String>ask("who").get()).isEqualTo("tenant17-a");
+        assertThat(system.getActor("tenant999-b").<String>ask("who").get()).isEqualTo("tenant999-b");
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("tenant1000-a").tell("who"));
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("tenant17-").tell("who"));
+        system.shutDownNow();
+    }
+
+    @Test
+    void testStoppedSystemCreatesNoMembers() {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger created = new AtomicInteger();
+        system.registerFamily("user-", id -> () -> {
+            created.incrementAndGet();
+            return new EchoActor(id);
+        }, ActorSettings.DEFAULT);
+
+        system.shutDownNow();
+
+        assertThrows(UnregisteredRecipientException.class, () -> system.getActor("user-1").tell("who"));
+        assertThat(created.get()).isZero();
+    }
+
+    private static class EchoActor implements LintStoneActor {
+        private final String id;
+
+        EchoActor(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(String.class, (msg, ctx) -> ctx.reply(id));
+        }
+    }
+}
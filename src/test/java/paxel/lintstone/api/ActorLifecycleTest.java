@@ -2,6 +2,10 @@ package paxel.lintstone.api;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -114,4 +118,123 @@ public class ActorLifecycleTest {
         
         system.shutDownNow();
     }
+
+    @Test
+    void testConcurrentRegistrationExistingActorWins() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger created = new AtomicInteger(0);
+        AtomicInteger processCount = new AtomicInteger(0);
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> registrars = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            registrars.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                LintStoneActorAccessor actor = system.registerActor("actor", () -> {
+                    created.incrementAndGet();
+                    return mec -> mec.otherwise((msg, ctx) -> processCount.incrementAndGet());
+                }, ActorSettings.DEFAULT);
+                actor.tell("msg");
+            }));
+        }
+        start.countDown();
+        for (Thread registrar : registrars) {
+            registrar.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        waitForAtomicInteger(processCount, threads);
+
+        // only one actor was created and all messages reached it
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(processCount.get()).isEqualTo(threads);
+        assertThat(system.getActor("actor").getProcessedMessages()).isEqualTo(threads);
+
+        system.shutDownNow();
+    }
+
+    @Test
+    void testFactoryDoesNotBlockOtherRegistrations() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicBoolean interceptorAdded = new AtomicBoolean();
+        AtomicBoolean childRegistered = new AtomicBoolean();
+
+        system.registerActor("parent", () -> {
+            // adding an interceptor takes all registration locks and registering the child takes its lock.
+            // neither must wait for the registration that is running this factory
+            Thread other = Thread.ofVirtual().start(() -> {
+                system.addInterceptor(new MessageInterceptor() {
+                });
+                interceptorAdded.set(true);
+                system.registerActor("child", () -> mec -> mec.otherwise((msg, ctx) -> {
+                }), ActorSettings.DEFAULT);
+                childRegistered.set(true);
+            });
+            try {
+                other.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mec -> mec.otherwise((msg, ctx) -> {
+            });
+        }, ActorSettings.DEFAULT);
+
+        assertThat(interceptorAdded.get()).isTrue();
+        assertThat(childRegistered.get()).isTrue();
+        assertThat(system.getActor("parent").exists()).isTrue();
+        assertThat(system.getActor("child").exists()).isTrue();
+
+        system.shutDownNow();
+    }
+
+    @Test
+    void testBulkRegistrationAndUnregistrationByPrefix() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger processCount = new AtomicInteger(0);
+        int count = 1000;
+
+        LintStoneActorAccessor other = system.registerActor("other-0", () -> mec -> mec.otherwise((msg, ctx) -> {
+        }), ActorSettings.DEFAULT);
+        List<LintStoneActorAccessor> actors = system.registerActors("worker-", count, () -> mec -> mec.otherwise((msg, ctx) -> processCount.incrementAndGet()), ActorSettings.DEFAULT);
+
+        assertThat(actors).hasSize(count);
+        assertThat(actors.get(17).getName()).isEqualTo("worker-17");
+        actors.forEach(a -> a.tell("msg"));
+        waitForAtomicInteger(processCount, count);
+        assertThat(processCount.get()).isEqualTo(count);
+
+        assertThat(system.unregisterActorsByPrefix("worker-")).isEqualTo(count);
+
+        assertThat(actors).noneMatch(LintStoneActorAccessor::exists);
+        assertThat(other.exists()).isTrue();
+        assertThat(system.unregisterActorsByPrefix("worker-")).isZero();
+
+        system.shutDownNow();
+    }
+
+    @Test
+    void testBulkRegistrationExistingActorWins() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger existingCount = new AtomicInteger(0);
+        AtomicInteger bulkCount = new AtomicInteger(0);
+        int count = 100;
+
+        system.registerActor("worker-5", () -> mec -> mec.otherwise((msg, ctx) -> existingCount.incrementAndGet()), ActorSettings.DEFAULT);
+        List<LintStoneActorAccessor> actors = system.registerActors("worker-", count, () -> mec -> mec.otherwise((msg, ctx) -> bulkCount.incrementAndGet()), ActorSettings.DEFAULT);
+
+        actors.forEach(a -> a.tell("msg"));
+        waitForAtomicInteger(bulkCount, count - 1);
+        waitForAtomicInteger(existingCount, 1);
+
+        assertThat(existingCount.get()).isEqualTo(1);
+        assertThat(bulkCount.get()).isEqualTo(count - 1);
+        assertThat(system.unregisterActorsByPrefix("worker-")).isEqualTo(count);
+
+        system.shutDownNow();
+    }
 }
@@ -0,0 +1,130 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AskAllTest {
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+        // replies with the name, except the silent one
+        for (String name : List.of("a", "b", "c", "silent")) {
+            system.registerActor(name, () -> mec -> mec.inCase(String.class, (s, ctx) -> {
+                if (!ctx.getName().equals("silent")) {
+                    ctx.reply(ctx.getName() + ":" + s);
+                }
+            }), ActorSettings.DEFAULT);
+        }
+        system.registerActor("failing", () -> mec -> mec.inCase(String.class, (s, ctx) -> {
+            throw new IllegalStateException("no reply");
+        }), ActorSettings.DEFAULT);
+        system.registerActor("slow", () -> mec -> mec.inCase(String.class, (s, ctx) -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ctx.reply("slow:" + s);
+        }), ActorSettings.DEFAULT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    private LintStoneActorAccessor gatherer(Duration timeout) {
+        return system.registerActor("gatherer", () -> mec -> mec.inCase(List.class, (names, ctx) -> {
+            @SuppressWarnings("unchecked")
+            List<String> actors = (List<String>) names;
+            (timeout == null ? ctx.<String>askAll(actors, "hi") : ctx.<String>askAll(actors, "hi", timeout))
+                    .thenAccept(ctx::reply);
+        }), ActorSettings.DEFAULT);
+    }
+
+    @Test
+    void testGatherInOrderOfTheActors() throws Exception {
+        LintStoneReplies<String> replies = gatherer(null).<LintStoneReplies<String>>ask(List.of("c", "a", "b")).get(10, TimeUnit.SECONDS);
+
+        assertThat(replies.isComplete()).isTrue();
+        assertThat(replies.toList()).containsExactly("c:hi", "a:hi", "b:hi");
+        assertThat(replies.get(1)).isEqualTo("a:hi");
+    }
+
+    @Test
+    void testDeadlineCompletesWithPartialResults() throws Exception {
+        LintStoneReplies<String> replies = gatherer(Duration.ofMillis(100)).<LintStoneReplies<String>>ask(List.of("a", "silent", "b"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(replies.isComplete()).isFalse();
+        assertThat(replies.size()).isEqualTo(3);
+        assertThat(replies.received()).isEqualTo(2);
+        assertThat(replies.get(1)).isNull();
+        assertThat(replies.toList()).containsExactly("a:hi", "b:hi");
+    }
+
+    @Test
+    void testUnregisteredActorsHaveNoReply() throws Exception {
+        LintStoneReplies<String> replies = gatherer(null).<LintStoneReplies<String>>ask(List.of("a", "missing"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(replies.received()).isEqualTo(1);
+        assertThat(replies.get(1)).isNull();
+        assertThat(system.getDeadLetters(DeadLetterReason.UNREGISTERED_RECIPIENT)).isEqualTo(1);
+    }
+
+    @Test
+    void testAskAllAccessorsFromOutside() throws Exception {
+        List<LintStoneActorAccessor> actors = new ArrayList<>();
+        for (String name : List.of("a", "b", "silent", "c")) {
+            actors.add(system.getActor(name));
+        }
+
+        LintStoneReplies<String> replies = system.<String>askAll(actors, "x", Duration.ofMillis(100))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(replies.toList()).containsExactly("a:x", "b:x", "c:x");
+        assertThat(system.<String>askAll(List.of(), "x").get().isComplete()).isTrue();
+        assertThatThrownBy(() -> system.askAll(actors, "x", Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFailedActorsHaveNoReply() throws Exception {
+        // without a deadline, the failure must not leave the gather waiting
+        LintStoneReplies<String> replies = gatherer(null).<LintStoneReplies<String>>ask(List.of("a", "failing", "b"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(replies.received()).isEqualTo(2);
+        assertThat(replies.get(1)).isNull();
+
+        LintStoneReplies<String> outside = system.<String>askAll(List.of(system.getActor("failing"), system.getActor("c")), "x")
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(outside.toList()).containsExactly("c:x");
+    }
+
+    @Test
+    void testLateRepliesDontChangeTheResult() throws Exception {
+        LintStoneReplies<String> replies = gatherer(Duration.ofMillis(50)).<LintStoneReplies<String>>ask(List.of("a", "slow"))
+                .get(10, TimeUnit.SECONDS);
+        // the slow reply arrives after the deadline
+        Thread.sleep(300);
+
+        assertThat(replies.received()).isEqualTo(1);
+        assertThat(replies.get(1)).isNull();
+        assertThat(replies.toList()).containsExactly("a:hi");
+    }
+}
@@ -0,0 +1,112 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ask round trip from outside the system and between actors. The asked actor forwards the ask through
+ * a chain of {@code hops} actors, the last one replies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AskBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"1", "4"})
+    public int hops;
+
+    @Param({"false", "true"})
+    public boolean latencyTracking;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor first;
+    private LintStoneActorAccessor driver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        ActorSettings settings = ActorSettings.create().setLatencyTracking(latencyTracking).build();
+        for (int i = hops - 1; i >= 0; i--) {
+            String next = i == hops - 1 ? null : "hop" + (i + 1);
+            system.registerActor("hop" + i, () -> new HopActor(next), settings);
+        }
+        first = system.getActor("hop0");
+        driver = system.registerActor("driver", DriverActor::new, settings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownAndWait();
+    }
+
+    @Benchmark
+    public Object externalAsk() throws Exception {
+        return first.ask(1).get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object actorToActorAsk() throws Exception {
+        return driver.ask(BATCH).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(AskBenchmark.class.getSimpleName());
+    }
+
+    /**
+     * Forwards the ask to the next hop and replies its reply, or replies itself if it is the last one.
+     */
+    private static class HopActor implements LintStoneActor {
+        private final String next;
+
+        HopActor(String next) {
+            this.next = next;
+        }
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.otherwise((o, ctx) -> {
+                if (next == null) {
+                    ctx.reply(o);
+                } else {
+                    ctx.ask(next, o, r -> r.otherwise((reply, replyCtx) -> ctx.reply(reply)));
+                }
+            });
+        }
+    }
+
+    /**
+     * Asks the first hop sequentially as often as requested and replies the count.
+     */
+    private static class DriverActor implements LintStoneActor {
+        private int remaining;
+        private LintStoneMessageEventContext requester;
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(Integer.class, (count, ctx) -> {
+                remaining = count;
+                requester = ctx;
+                askNext(ctx);
+            });
+        }
+
+        private void askNext(LintStoneMessageEventContext ctx) {
+            ctx.ask("hop0", remaining, r -> r.otherwise((reply, replyCtx) -> {
+                if (--remaining == 0) {
+                    requester.reply(reply);
+                } else {
+                    askNext(replyCtx);
+                }
+            }));
+        }
+    }
+}
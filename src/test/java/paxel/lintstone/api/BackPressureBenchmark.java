@@ -0,0 +1,46 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LintStoneActorAccessor#tellWithBackPressure(Object, int)} of a single producer at various thresholds.
+ * Low thresholds make the producer block and wake up often.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackPressureBenchmark {
+
+    @Param({"1", "16", "256", "4096"})
+    public int threshold;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor actor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        actor = system.registerActor("counter", () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownNow();
+    }
+
+    @Benchmark
+    public void tellWithBackPressure() throws InterruptedException {
+        actor.tellWithBackPressure(1, threshold);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(BackPressureBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,101 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchHandlerTest {
+
+    private LintStoneSystem system;
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<List<Object>> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    private LintStoneActorAccessor register(int maxBatch) {
+        return system.registerActor("batcher", () -> mec -> mec
+                .inCaseBatch(Integer.class, maxBatch, (batch, ctx) -> {
+                    batches.add(new ArrayList<>(batch));
+                    ctx.reply(batch.size());
+                })
+                .inCase(String.class, (text, ctx) -> {
+                    batches.add(List.of(text));
+                    if (text.equals("block")) {
+                        blocked.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    ctx.reply(text);
+                }), ActorSettings.DEFAULT);
+    }
+
+    @Test
+    void testQueuedMessagesAreBatched() throws Exception {
+        LintStoneActorAccessor actor = register(64);
+        actor.tell("block");
+        blocked.await();
+        for (int i = 0; i < 1_000; i++) {
+            actor.tell(i);
+        }
+        release.countDown();
+        actor.ask("end").get(10, TimeUnit.SECONDS);
+
+        List<List<Object>> integerBatches = batches.subList(1, batches.size() - 1);
+        assertThat(integerBatches).hasSize(16).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(64));
+        assertThat(integerBatches.stream().flatMap(List::stream).toList())
+                .containsExactlyElementsOf(IntStream.range(0, 1_000).boxed().toList());
+        assertThat(actor.getProcessedMessages()).isEqualTo(1_002);
+    }
+
+    @Test
+    void testOtherMessagesEndTheBatch() throws Exception {
+        LintStoneActorAccessor actor = register(64);
+        actor.tell("block");
+        blocked.await();
+        actor.tell(1);
+        actor.tell(2);
+        actor.tell("between");
+        actor.tell(3);
+        release.countDown();
+        actor.ask("end").get(10, TimeUnit.SECONDS);
+
+        assertThat(batches).containsExactly(List.of("block"), List.of(1, 2), List.of("between"), List.of(3), List.of("end"));
+    }
+
+    @Test
+    void testAskIsHandledAlone() throws Exception {
+        LintStoneActorAccessor actor = register(64);
+        actor.tell("block");
+        blocked.await();
+        actor.tell(1);
+        var reply = actor.<Integer>ask(2);
+        actor.tell(3);
+        actor.tell(4);
+        release.countDown();
+
+        assertThat(reply.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        actor.ask("end").get(10, TimeUnit.SECONDS);
+        assertThat(batches).containsExactly(List.of("block"), List.of(1), List.of(2), List.of(3, 4), List.of("end"));
+    }
+}
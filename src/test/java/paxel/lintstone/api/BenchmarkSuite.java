@@ -0,0 +1,35 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all {@code *Benchmark} classes of the project with the GC profiler, so that allocation regressions on the hot
+ * paths are visible next to the throughput. Pass a regular expression as first argument to run a subset.
+ */
+public class BenchmarkSuite {
+
+    private BenchmarkSuite() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(args.length > 0 ? args[0] : "paxel\\.lintstone\\..*Benchmark");
+    }
+
+    /**
+     * Runs the benchmarks matching the expression with the GC profiler.
+     *
+     * @param include the regular expression of the benchmarks.
+     * @throws RunnerException if the benchmarks fail.
+     */
+    public static void run(String include) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
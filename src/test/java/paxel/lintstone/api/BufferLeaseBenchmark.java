@@ -0,0 +1,77 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares byte payloads in new heap arrays with leased direct buffers, that return to the pool after the handler.
+ * Run with {@code -prof gc} to see the allocation per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BufferLeaseBenchmark {
+
+    private static final int MESSAGES = 1_000;
+
+    @Param({"16384"})
+    public int size;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor checksum;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        checksum = system.registerActor("checksum", ChecksumActor::new, ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long heap() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            byte[] bytes = new byte[size];
+            bytes[0] = (byte) i;
+            checksum.tell(ByteBuffer.wrap(bytes));
+        }
+        return checksum.<Long>ask("sum").get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long leased() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            LintStoneBuffer lease = system.leaseBuffer(size);
+            lease.buffer().put(0, (byte) i);
+            checksum.tell(lease);
+        }
+        return checksum.<Long>ask("sum").get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(BufferLeaseBenchmark.class.getSimpleName());
+    }
+
+    private static class ChecksumActor implements LintStoneActor {
+        private long sum;
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(ByteBuffer.class, (buffer, ctx) -> sum += buffer.get(0))
+                    .inCase(LintStoneBuffer.class, (lease, ctx) -> sum += lease.buffer().get(0))
+                    .inCase(String.class, (s, ctx) -> ctx.reply(sum));
+        }
+    }
+}
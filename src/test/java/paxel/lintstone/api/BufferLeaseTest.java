@@ -0,0 +1,146 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import paxel.lintstone.api.actors.Md5Actor;
+import paxel.lintstone.api.messages.EndMessage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BufferLeaseTest {
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testLeasesAreReleasedAfterTheHandler() throws Exception {
+        LintStoneActorAccessor md5 = system.registerActor("md5", Md5Actor::new, ActorSettings.DEFAULT);
+        List<LintStoneBuffer> leases = new ArrayList<>();
+        md5.tell("This is my test string");
+        for (int i = 0; i < 1000; i++) {
+            LintStoneBuffer lease = system.leaseBuffer(Math.max(1, i));
+            lease.buffer().put(new byte[i]).flip();
+            leases.add(lease);
+            md5.tell(lease);
+        }
+        String result = md5.<String>ask(new EndMessage()).get(10, TimeUnit.SECONDS);
+
+        // the same digest as the heap buffers of the ExternalAskTest
+        assertThat(result).isEqualTo("993e7b2144d8c8a5cde9cf36463959e");
+        assertThat(leases).allSatisfy(lease -> assertThatThrownBy(lease::buffer).isInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void testForwardedLeaseIsReleasedByTheLastReceiver() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        List<LintStoneBuffer> kept = new CopyOnWriteArrayList<>();
+        system.registerActor("sink", () -> mec -> mec
+                .inCase(LintStoneBuffer.class, (lease, ctx) -> {
+                    seen.add("sink " + lease.buffer().getInt(0));
+                    kept.add(lease);
+                })
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+        LintStoneActorAccessor forwarder = system.registerActor("forwarder", () -> mec -> mec
+                .inCase(LintStoneBuffer.class, (lease, ctx) -> {
+                    seen.add("forwarder " + lease.buffer().getInt(0));
+                    ctx.tell("sink", lease);
+                })
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        LintStoneBuffer lease = system.leaseBuffer(Integer.BYTES);
+        lease.buffer().putInt(0, 42);
+        forwarder.tell(lease);
+        forwarder.ask("sync").get(10, TimeUnit.SECONDS);
+        system.getActor("sink").ask("sync").get(10, TimeUnit.SECONDS);
+
+        assertThat(seen).containsExactly("forwarder 42", "sink 42");
+        assertThat(kept).singleElement().satisfies(k -> assertThatThrownBy(k::buffer).isInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void testAskForLeasedBuffer() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        List<LintStoneBuffer> kept = new CopyOnWriteArrayList<>();
+        system.registerActor("reader", () -> mec -> mec.otherwise((o, ctx) -> {
+            LintStoneBuffer lease = system.leaseBuffer(Integer.BYTES);
+            lease.buffer().putInt(0, (Integer) o);
+            ctx.reply(lease);
+        }), ActorSettings.DEFAULT);
+        LintStoneActorAccessor asker = system.registerActor("asker", () -> mec -> mec
+                .inCase(String.class, (s, ctx) -> ctx.ask("reader", 7, reply -> reply.inCase(LintStoneBuffer.class, (lease, r) -> {
+                    seen.add("asker " + lease.buffer().getInt(0));
+                    kept.add(lease);
+                })))
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        // the asker from outside owns the reply
+        LintStoneBuffer reply = system.getActor("reader").<LintStoneBuffer>ask(42).get(10, TimeUnit.SECONDS);
+        assertThat(reply.buffer().getInt(0)).isEqualTo(42);
+        reply.release();
+
+        // the reply handler of an actor owns the reply until it returns
+        asker.tell("go");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (kept.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        asker.ask(0).get(10, TimeUnit.SECONDS);
+
+        assertThat(seen).containsExactly("asker 7");
+        assertThat(kept).singleElement().satisfies(k -> assertThatThrownBy(k::buffer).isInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void testSizeClasses() {
+        LintStoneBuffer small = system.leaseBuffer(100);
+        assertThat(small.buffer().isDirect()).isTrue();
+        assertThat(small.buffer().limit()).isEqualTo(100);
+        assertThat(small.buffer().capacity()).isEqualTo(1024);
+        ByteBuffer pooled = small.buffer();
+        small.release();
+        assertThatThrownBy(small::release).isInstanceOf(IllegalStateException.class);
+
+        LintStoneBuffer reused = system.leaseBuffer(1000);
+        assertThat(reused.buffer()).isSameAs(pooled);
+        assertThat(reused.buffer().position()).isZero();
+        assertThat(reused.buffer().limit()).isEqualTo(1000);
+        reused.release();
+
+        assertThat(system.leaseBuffer(5000).buffer().capacity()).isEqualTo(8192);
+        assertThat(system.leaseBuffer(5 << 20).buffer().capacity()).isEqualTo(5 << 20);
+        assertThatThrownBy(() -> system.leaseBuffer(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testLeakDetection() throws Exception {
+        List<Integer> leaked = new CopyOnWriteArrayList<>();
+        system.setBufferLeakHandler((capacity, leasedAt) -> leaked.add(capacity));
+        system.leaseBuffer(1234).release();
+        system.leaseBuffer(2345);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (leaked.isEmpty() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(leaked).containsExactly(2345);
+    }
+}
@@ -0,0 +1,66 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import paxel.lintstone.impl.BufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the default record codec. The GC profiler shows, that encoding doesn't allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    public record Order(long id, int quantity, double price, boolean buy, String symbol) {
+    }
+
+    private final BufferPool pool = new BufferPool(256, 16);
+    private MessageCodec<Order> codec;
+    private CodecRegistry registry;
+    private Order order;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        registry = LintStoneSystemFactory.create().getCodecRegistry();
+        codec = registry.codecFor(Order.class);
+        order = new Order(4711, 100, 99.5, true, "LNTS");
+        encoded = ByteBuffer.allocateDirect(256);
+        codec.encode(order, encoded);
+        encoded.flip();
+    }
+
+    @Benchmark
+    public int encode() {
+        ByteBuffer buffer = pool.acquire();
+        codec.encode(order, buffer);
+        int size = buffer.position();
+        pool.release(buffer);
+        return size;
+    }
+
+    @Benchmark
+    public Order decode() {
+        return codec.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    public int encodeTagged() {
+        ByteBuffer buffer = pool.acquire();
+        registry.encode(order, buffer);
+        int size = buffer.position();
+        pool.release(buffer);
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(CodecBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,117 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+import paxel.lintstone.impl.BufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CodecTest {
+
+    enum Color {RED, GREEN}
+
+    record Point(int x, long y, double z, float f, short s, byte b, char c, boolean flag) {
+    }
+
+    record Node(String name, Color color, Node next, Integer boxed, byte[] data) {
+    }
+
+    record Unsupported(List<String> values) {
+    }
+
+    record Secret(String value) {
+    }
+
+    private final LintStoneSystem system = LintStoneSystemFactory.create();
+    private final BufferPool pool = new BufferPool(4096, 4);
+
+    @Test
+    void testRoundTripPrimitives() {
+        Point point = new Point(-1, Long.MAX_VALUE, 1.5, 2.5f, (short) 7, (byte) -3, 'ä', true);
+
+        assertThat(roundTrip(point)).isEqualTo(point);
+    }
+
+    @Test
+    void testRoundTripNestedRecordsAndNulls() {
+        system.getCodecRegistry().codecFor(Node.class);
+        Node node = new Node("über € 😀", Color.GREEN, new Node(null, null, null, null, null), 42, new byte[]{1, 2, 3});
+
+        Node decoded = (Node) roundTrip(node);
+
+        assertThat(decoded.name()).isEqualTo(node.name());
+        assertThat(decoded.color()).isEqualTo(Color.GREEN);
+        assertThat(decoded.next()).isEqualTo(new Node(null, null, null, null, null));
+        assertThat(decoded.boxed()).isEqualTo(42);
+        assertThat(decoded.data()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void testBasicTypes() {
+        assertThat(roundTrip("text")).isEqualTo("text");
+        assertThat(roundTrip(17L)).isEqualTo(17L);
+        assertThat(roundTrip(Color.RED)).isEqualTo(Color.RED);
+    }
+
+    @Test
+    void testCustomCodecReplacesDefault() {
+        CodecRegistry registry = system.getCodecRegistry();
+        registry.register(Point.class, new MessageCodec<>() {
+            @Override
+            public void encode(Point message, ByteBuffer target) {
+                target.putInt(message.x());
+            }
+
+            @Override
+            public Point decode(ByteBuffer source) {
+                return new Point(source.getInt(), 0, 0, 0, (short) 0, (byte) 0, ' ', false);
+            }
+        });
+
+        ByteBuffer buffer = pool.acquire();
+        registry.codecFor(Point.class).encode(new Point(5, 6, 7, 8, (short) 9, (byte) 10, 'x', true), buffer);
+
+        assertThat(buffer.position()).isEqualTo(Integer.BYTES);
+        assertThat(roundTrip(new Point(5, 6, 7, 8, (short) 9, (byte) 10, 'x', true)).x()).isEqualTo(5);
+    }
+
+    @Test
+    void testUnsupportedTypesAreRejected() {
+        assertThatThrownBy(() -> system.getCodecRegistry().codecFor(Unsupported.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> system.getCodecRegistry().codecFor(Object.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testUnknownTypesAreNotDecoded() {
+        ByteBuffer buffer = pool.acquire();
+        LintStoneSystemFactory.create().getCodecRegistry().encode(new Secret("x"), buffer);
+
+        assertThatThrownBy(() -> system.getCodecRegistry().decode(buffer.flip())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testPoolReusesBuffers() {
+        ByteBuffer buffer = pool.acquire();
+        buffer.putInt(1);
+        pool.release(buffer);
+
+        ByteBuffer again = pool.acquire();
+        assertThat(again).isSameAs(buffer);
+        assertThat(again.position()).isZero();
+        assertThatThrownBy(() -> pool.release(ByteBuffer.allocate(4096))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T roundTrip(T message) {
+        ByteBuffer buffer = pool.acquire();
+        try {
+            system.getCodecRegistry().encode(message, buffer);
+            return (T) system.getCodecRegistry().decode(buffer.flip());
+        } finally {
+            pool.release(buffer);
+        }
+    }
+}
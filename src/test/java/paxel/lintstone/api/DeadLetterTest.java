@@ -0,0 +1,124 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeadLetterTest {
+
+    @Test
+    void testUnregisteredRecipients() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        List<LintStoneDeadLetter> letters = new CopyOnWriteArrayList<>();
+        system.setDeadLetterHandler(letters::add, 1);
+        LintStoneActorAccessor missing = system.getActor("missing");
+
+        assertThat(missing.tryTell("first")).isFalse();
+        assertThatThrownBy(() -> missing.tell("second")).isInstanceOf(UnregisteredRecipientException.class);
+
+        // from inside an actor
+        LintStoneActorAccessor forwarder = system.registerActor("forwarder", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(ctx.tryTell("missing", o))), ActorSettings.DEFAULT);
+        assertThat(forwarder.<Boolean>ask("third").get()).isFalse();
+
+        assertThat(system.getDeadLetters(DeadLetterReason.UNREGISTERED_RECIPIENT)).isEqualTo(3);
+        assertThat(letters).extracting(LintStoneDeadLetter::message).containsExactly("first", "second", "third");
+        assertThat(letters).allSatisfy(l -> {
+            assertThat(l.recipient()).isEqualTo("missing");
+            assertThat(l.reason()).isEqualTo(DeadLetterReason.UNREGISTERED_RECIPIENT);
+        });
+        system.shutDownNow();
+    }
+
+    @Test
+    void testShutdownAndDelayedMessages() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        LintStoneActorAccessor blocked = system.registerActor("blocked", () -> mec -> mec.otherwise((o, ctx) -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), ActorSettings.DEFAULT);
+        CountDownLatch scheduled = new CountDownLatch(1);
+        LintStoneActorAccessor delayer = system.registerActor("delayer", () -> mec -> mec.otherwise((o, ctx) -> {
+            ctx.tell("gone", o, Duration.ofMillis(50));
+            scheduled.countDown();
+        }), ActorSettings.DEFAULT);
+        system.registerActor("gone", () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+
+        delayer.tell("late");
+        // the delayed message is scheduled before the recipient is unregistered
+        scheduled.await();
+        system.unregisterActor("gone");
+        waitFor(() -> system.getDeadLetters(DeadLetterReason.DELAYED_RECIPIENT_GONE) == 1);
+        assertThat(system.getDeadLetters(DeadLetterReason.DELAYED_RECIPIENT_GONE)).isEqualTo(1);
+
+        for (int i = 0; i < 5; i++) {
+            blocked.tell(i);
+        }
+        started.await();
+        system.shutDownNow();
+        blocker.countDown();
+        assertThat(system.getDeadLetters(DeadLetterReason.DISCARDED_ON_SHUTDOWN)).isEqualTo(4);
+    }
+
+    @Test
+    void testAbortedMessages() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        ActorSettings settings = ActorSettings.create().setErrorHandler((error, description, cause) -> ErrorHandlerDecision.ABORT).build();
+        CountDownLatch blocker = new CountDownLatch(1);
+        LintStoneActorAccessor failing = system.registerActor("failing", () -> mec -> mec.otherwise((o, ctx) -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("fail");
+        }), settings);
+        for (int i = 0; i < 3; i++) {
+            failing.tell(i);
+        }
+        blocker.countDown();
+        waitFor(() -> system.getDeadLetters(DeadLetterReason.ABORTED) == 2);
+        assertThat(system.getDeadLetters(DeadLetterReason.ABORTED)).isEqualTo(2);
+        system.shutDownNow();
+    }
+
+    @Test
+    void testSamplingAndReentrancy() {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        List<LintStoneDeadLetter> letters = new CopyOnWriteArrayList<>();
+        system.setDeadLetterHandler(letters::add, 0);
+        LintStoneActorAccessor missing = system.getActor("missing");
+        for (int i = 0; i < 100; i++) {
+            missing.tryTell(i);
+        }
+        assertThat(letters).isEmpty();
+        assertThat(system.getDeadLetters(DeadLetterReason.UNREGISTERED_RECIPIENT)).isEqualTo(100);
+
+        // the dead letter actor doesn't exist either, which must not loop
+        system.setDeadLetterHandler(DeadLetterHandler.forwardTo(system, "deadLetters"), 1);
+        assertThat(missing.tryTell("x")).isFalse();
+        assertThat(system.getDeadLetters(DeadLetterReason.UNREGISTERED_RECIPIENT)).isEqualTo(102);
+        assertThatThrownBy(() -> system.setDeadLetterHandler(letters::add, 2)).isInstanceOf(IllegalArgumentException.class);
+        system.shutDownNow();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (!condition.getAsBoolean() && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures delayed tells through the {@link Scheduler}: an actor schedules a batch of delayed messages to a sink,
+ * and the invocation ends when the sink received all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DelayedTellBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"0", "1", "10"})
+    public int delayMillis;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor scheduler;
+    private volatile CountDownLatch received;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        Duration delay = Duration.ofMillis(delayMillis);
+        system.registerActor("sink", () -> mec -> mec.otherwise((o, ctx) -> received.countDown()), ActorSettings.DEFAULT);
+        scheduler = system.registerActor("scheduler", () -> mec -> mec.inCase(Integer.class, (count, ctx) -> {
+            for (int i = 0; i < count; i++) {
+                ctx.tell("sink", i, delay);
+            }
+        }), ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void delayedTell() throws InterruptedException {
+        received = new CountDownLatch(BATCH);
+        scheduler.tell(BATCH);
+        received.await();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(DelayedTellBenchmark.class.getSimpleName());
+    }
+}
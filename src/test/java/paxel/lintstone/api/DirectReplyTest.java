@@ -0,0 +1,59 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectReplyTest {
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testExternalAskCompletesBeforeTheBacklog() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LintStoneActorAccessor actor = system.registerActor("slow", () -> mec -> mec
+                .inCase(String.class, (s, ctx) -> ctx.reply(s))
+                .inCase(CountDownLatch.class, (latch, ctx) -> {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }), ActorSettings.DEFAULT);
+
+        CompletableFuture<String> reply = actor.ask("fast");
+        // the actor is blocked by the message after the ask, so a queued reply would never be processed
+        actor.tell(release);
+
+        assertThat(reply.get(10, TimeUnit.SECONDS)).isEqualTo("fast");
+        assertThat(actor.getProcessedReplies()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void testReplyHandlersAreStillQueued() throws Exception {
+        LintStoneActorAccessor actor = system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+        CompletableFuture<String> handled = new CompletableFuture<>();
+
+        actor.ask("hi", mec -> mec.inCase(String.class, (s, ctx) -> handled.complete(ctx.getName() + " " + s)));
+
+        assertThat(handled.get(10, TimeUnit.SECONDS)).isEqualTo("echo hi");
+        assertThat(actor.getProcessedReplies()).isEqualTo(1);
+    }
+}
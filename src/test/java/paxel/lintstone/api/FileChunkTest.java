@@ -0,0 +1,120 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileChunkTest {
+
+    @TempDir
+    Path directory;
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testEveryLineIsInExactlyOneChunk() throws IOException {
+        Random random = new Random(7);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // empty lines, short lines and lines longer than a chunk
+            expected.add("x".repeat(random.nextInt(150)) + (i % 10 == 0 ? "" : "ü" + i));
+        }
+        Path file = Files.write(directory.resolve("lines.txt"), expected, StandardCharsets.UTF_8);
+
+        for (int chunkSize : new int[]{1, 7, 64, 100_000}) {
+            List<String> lines = new ArrayList<>();
+            for (FileChunk chunk : FileChunk.split(file, chunkSize)) {
+                chunk.forEachLine(line -> lines.add(line.toString()));
+            }
+            assertThat(lines).as("chunk size " + chunkSize).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void testLastLineWithoutLineBreakAndCrLf() throws IOException {
+        Path file = Files.writeString(directory.resolve("crlf.txt"), "first\r\nsecond\r\n\r\nlast");
+
+        List<String> lines = new ArrayList<>();
+        for (FileChunk chunk : FileChunk.split(file, 4)) {
+            chunk.forEachLine(line -> lines.add(line.toString()));
+        }
+
+        assertThat(lines).containsExactly("first", "second", "", "last");
+    }
+
+    @Test
+    void testBytesAreTheAlignedLines() throws IOException {
+        Path file = Files.writeString(directory.resolve("bytes.txt"), "aaaa\nbb\ncccccc\n");
+
+        List<FileChunk> chunks = FileChunk.split(file, 6);
+
+        assertThat(chunks).extracting(FileChunk::start).containsExactly(0L, 6L, 12L);
+        assertThat(chunks).extracting(chunk -> StandardCharsets.UTF_8.decode(chunk.bytes()).toString())
+                .containsExactly("aaaa\nbb\n", "cccccc\n", "");
+    }
+
+    @Test
+    void testEmptyFileHasNoChunks() throws IOException {
+        assertThat(FileChunk.split(Files.createFile(directory.resolve("empty.txt")), 16)).isEmpty();
+    }
+
+    @Test
+    void testTooLongLine() throws IOException {
+        Path file = Files.writeString(directory.resolve("long.txt"), "x".repeat(100) + "\nshort\n");
+
+        FileChunk first = FileChunk.split(file, 10, 20).get(0);
+
+        assertThatThrownBy(first::bytes).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testChunksAreReadByWorkerActors() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add("line " + i);
+        }
+        Path file = Files.write(directory.resolve("ingest.txt"), expected);
+        AtomicLong lineCount = new AtomicLong();
+        List<Long> chunkLines = new CopyOnWriteArrayList<>();
+
+        system.from("ingest", FileChunk.split(file, 4096))
+                .mapAsync(4, chunk -> {
+                    long[] count = {0};
+                    chunk.forEachLineBytes(line -> count[0]++);
+                    return count[0];
+                })
+                .to(count -> {
+                    chunkLines.add(count);
+                    lineCount.addAndGet(count);
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(lineCount.get()).isEqualTo(10_000);
+        assertThat(chunkLines).hasSize((int) Math.ceil(Files.size(file) / 4096.0));
+    }
+}
@@ -0,0 +1,87 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares reading a 64 MiB file line by line with a {@link BufferedReader} in one thread with mapped
+ * {@link FileChunk}s, whose lines are counted by worker actors without decoding them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileSourceBenchmark {
+
+    private static final long FILE_SIZE = 64L << 20;
+
+    @Param({"1048576"})
+    public int chunkSize;
+
+    private final int workers = Runtime.getRuntime().availableProcessors();
+    private LintStoneSystem system;
+    private Path file;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        system = LintStoneSystemFactory.create();
+        file = Files.createTempFile("lintstone-ingest", ".txt");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            long written = 0;
+            while (written < FILE_SIZE) {
+                String line = "id=" + random.nextInt() + ";value=" + "v".repeat(random.nextInt(100));
+                writer.write(line);
+                writer.newLine();
+                written += line.length() + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        system.shutDownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedReader() throws IOException {
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    @Benchmark
+    public long chunks() throws Exception {
+        AtomicLong lines = new AtomicLong();
+        system.from("ingest" + run++, FileChunk.split(file, chunkSize))
+                .mapAsync(workers, chunk -> {
+                    long[] count = {0};
+                    chunk.forEachLineBytes(line -> count[0]++);
+                    return count[0];
+                })
+                .to(lines::addAndGet)
+                .get();
+        return lines.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(FileSourceBenchmark.class.getSimpleName());
+    }
+}
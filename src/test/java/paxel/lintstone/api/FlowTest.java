@@ -0,0 +1,167 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlowTest {
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testSubscriberKeepsTheMailboxBounded() throws Exception {
+        int capacity = 16;
+        AtomicInteger maxQueued = new AtomicInteger();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CompletableFuture<LintStoneStreamEnd> end = new CompletableFuture<>();
+        system.registerActor("slow", () -> mec -> mec
+                .inCase(Integer.class, (i, ctx) -> {
+                    maxQueued.accumulateAndGet(system.getActor("slow").getQueuedMessagesAndReplies(), Math::max);
+                    received.add(i);
+                    if (i % 100 == 0) {
+                        Thread.yield();
+                    }
+                })
+                .inCase(LintStoneStreamEnd.class, (e, ctx) -> end.complete(e)), ActorSettings.DEFAULT);
+
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(system.subscriber("slow", capacity));
+            for (int i = 0; i < 2_000; i++) {
+                publisher.submit(i);
+            }
+        }
+
+        assertThat(end.get(10, TimeUnit.SECONDS).error()).isEmpty();
+        assertThat(received).containsExactlyElementsOf(IntStream.range(0, 2_000).boxed().toList());
+        // the queue contains the items and a signal after each half of them
+        assertThat(maxQueued.get()).isLessThanOrEqualTo(capacity + 2);
+    }
+
+    @Test
+    void testPublisherOnlySendsTheRequestedItems() throws Exception {
+        LintStonePublisher<Integer> publisher = system.publisher("source");
+        AtomicInteger next = new AtomicInteger();
+        system.registerActor("source", () -> mec -> mec.inCase(LintStoneDemand.class, (d, ctx) -> {
+            while (publisher.demand() > 0 && next.get() < 100) {
+                publisher.offer(next.getAndIncrement());
+            }
+            if (next.get() == 100) {
+                publisher.complete();
+            }
+        }), ActorSettings.DEFAULT);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicInteger unrequested = new AtomicInteger();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                outstanding.addAndGet(7);
+                subscription.request(7);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received.add(item);
+                if (outstanding.get() == 0) {
+                    unrequested.incrementAndGet();
+                }
+                if (outstanding.decrementAndGet() == 0) {
+                    outstanding.addAndGet(7);
+                    subscription.request(7);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+
+        completed.get(10, TimeUnit.SECONDS);
+        assertThat(received).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(unrequested.get()).isZero();
+    }
+
+    @Test
+    void testInvalidRequestFailsTheSubscriber() throws Exception {
+        LintStonePublisher<String> publisher = system.publisher("source");
+        system.registerActor("source", () -> mec -> mec.inCase(LintStoneDemand.class, (d, ctx) -> publisher.demand()), ActorSettings.DEFAULT);
+
+        CompletableFuture<Throwable> error = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            public void onNext(String item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertThat(error.get(10, TimeUnit.SECONDS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testActorsChainedByFlow() throws Exception {
+        LintStonePublisher<Integer> publisher = system.publisher("source");
+        AtomicInteger next = new AtomicInteger();
+        system.registerActor("source", () -> mec -> mec.inCase(LintStoneDemand.class, (d, ctx) -> {
+            while (next.get() < 1_000 && publisher.offer(next.get())) {
+                next.incrementAndGet();
+            }
+            if (next.get() == 1_000) {
+                publisher.complete();
+            }
+        }), ActorSettings.DEFAULT);
+        AtomicInteger sum = new AtomicInteger();
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        system.registerActor("sink", () -> mec -> mec
+                .inCase(Integer.class, (i, ctx) -> sum.addAndGet(i))
+                .inCase(LintStoneStreamEnd.class, (e, ctx) -> result.complete(sum.get())), ActorSettings.DEFAULT);
+
+        publisher.subscribe(system.subscriber("sink", 32));
+
+        assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(999 * 1_000 / 2);
+    }
+}
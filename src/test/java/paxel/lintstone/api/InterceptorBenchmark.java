@@ -0,0 +1,99 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import paxel.lintstone.impl.ActorSettingsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the {@link MessageInterceptor} chain with 0, 1 and 3 interceptors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    @Param({"0", "1", "3"})
+    public int interceptors;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor actor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        ActorSettingsBuilder settings = ActorSettings.create();
+        // different classes, so the chain is not monomorphic
+        MessageInterceptor[] available = {new SendCounter(), new ProcessCounter(), new ErrorCounter()};
+        for (int i = 0; i < interceptors; i++) {
+            settings.addInterceptor(available[i]);
+        }
+        actor = system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), settings.build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownAndWait();
+    }
+
+    @Benchmark
+    public void ask(Blackhole bh) throws Exception {
+        CompletableFuture<Integer> future = actor.ask(1);
+        bh.consume(future.get());
+    }
+
+    @Benchmark
+    public void tell() throws InterruptedException {
+        actor.tellWithBackPressure(1, 1000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InterceptorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    // each counter is only written by one thread
+    private static class SendCounter implements MessageInterceptor {
+        private long sent;
+
+        @Override
+        public void onSend(String actor, Object message) {
+            sent++;
+        }
+    }
+
+    private static class ProcessCounter implements MessageInterceptor {
+        private long processed;
+
+        @Override
+        public void afterProcess(String actor, Object message) {
+            processed++;
+        }
+    }
+
+    private static class ErrorCounter implements MessageInterceptor {
+        private long started;
+        private long failed;
+
+        @Override
+        public void beforeProcess(String actor, Object message) {
+            started++;
+        }
+
+        @Override
+        public void onError(String actor, Object message, Exception error) {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InterceptorTest {
+
+    @Test
+    void testSystemInterceptorsRunBeforeActorInterceptors() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.addInterceptor(new RecordingInterceptor("system", calls));
+        ActorSettings settings = ActorSettings.create().addInterceptor(new RecordingInterceptor("actor", calls)).build();
+        LintStoneActorAccessor echo = system.registerActor("echo", () -> mec -> mec.inCase(String.class, (s, ctx) -> ctx.reply(s))
+                .inCase(Integer.class, (i, ctx) -> {
+                    throw new IllegalArgumentException("no ints");
+                }), settings);
+
+        assertThat(echo.<String>ask("hello").get()).isEqualTo("hello");
+        assertThat(calls).containsExactly(
+                "system onSend echo hello", "actor onSend echo hello",
+                "system beforeProcess echo hello", "actor beforeProcess echo hello",
+                "system afterProcess echo hello", "actor afterProcess echo hello");
+
+        calls.clear();
+        echo.tell(1);
+        echo.ask("sync").get();
+        assertThat(calls).contains("system onError echo 1", "actor onError echo 1")
+                .doesNotContain("system afterProcess echo 1");
+        system.shutDownNow();
+    }
+
+    @Test
+    void testInterceptorsCanBeChangedAtRuntime() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        LintStoneActorAccessor echo = system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+        echo.ask("before").get();
+        assertThat(calls).isEmpty();
+
+        MessageInterceptor interceptor = new RecordingInterceptor("system", calls);
+        system.addInterceptor(interceptor);
+        echo.ask("during").get();
+        // registered later
+        system.registerActor("late", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT).ask("late").get();
+        assertThat(calls).contains("system afterProcess echo during", "system afterProcess late late");
+
+        assertThat(system.removeInterceptor(interceptor)).isTrue();
+        assertThat(system.removeInterceptor(interceptor)).isFalse();
+        calls.clear();
+        echo.ask("after").get();
+        assertThat(calls).isEmpty();
+        system.shutDownNow();
+    }
+
+    @Test
+    void testOnSendCanRejectMessages() {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.addInterceptor(new MessageInterceptor() {
+            @Override
+            public void onSend(String actor, Object message) {
+                if (message instanceof String s && s.startsWith("forbidden")) {
+                    throw new SecurityException("rejected " + s);
+                }
+            }
+        });
+        LintStoneActorAccessor echo = system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        assertThatThrownBy(() -> echo.tell("forbidden fruit")).isInstanceOf(SecurityException.class);
+        assertThat(echo.getProcessedMessages()).isZero();
+        system.shutDownNow();
+    }
+
+    private record RecordingInterceptor(String id, List<String> calls) implements MessageInterceptor {
+
+        @Override
+        public void onSend(String actor, Object message) {
+            calls.add(id + " onSend " + actor + " " + message);
+        }
+
+        @Override
+        public void beforeProcess(String actor, Object message) {
+            calls.add(id + " beforeProcess " + actor + " " + message);
+        }
+
+        @Override
+        public void afterProcess(String actor, Object message) {
+            calls.add(id + " afterProcess " + actor + " " + message);
+        }
+
+        @Override
+        public void onError(String actor, Object message, Exception error) {
+            calls.add(id + " onError " + actor + " " + message);
+        }
+    }
+}
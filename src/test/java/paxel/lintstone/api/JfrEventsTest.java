@@ -0,0 +1,69 @@
+package paxel.lintstone.api;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrEventsTest {
+
+    @Test
+    void testActorEventsAreRecorded() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        LintStoneActorAccessor echo = system.registerActor("echo", () -> mec -> mec.inCase(String.class, (s, ctx) -> ctx.reply(s))
+                .inCase(Integer.class, (i, ctx) -> {
+                    throw new IllegalArgumentException("no ints");
+                })
+                .inCase(Long.class, (l, ctx) -> ctx.reply(l)), ActorSettings.DEFAULT);
+
+        Path file = Files.createTempFile("lintstone", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("paxel.lintstone.MessageEnqueue").withThreshold(Duration.ZERO);
+            recording.enable("paxel.lintstone.MessageProcess").withThreshold(Duration.ZERO);
+            recording.enable("paxel.lintstone.Reply").withThreshold(Duration.ZERO);
+            recording.enable("paxel.lintstone.ProcessingError");
+            recording.start();
+
+            echo.ask("hello").get();
+            echo.tell(1);
+            // the failure is processed after this
+            echo.ask("bye").get();
+            // the ask completes while "bye" is processed. the next message starts after its event was committed
+            echo.ask(0L).get();
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            system.shutDownNow();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("paxel.lintstone.MessageEnqueue"))
+                .extracting(e -> e.getString("actor"))
+                .contains("echo");
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("paxel.lintstone.MessageProcess"))
+                .filteredOn(e -> !e.getBoolean("reply"))
+                .filteredOn(e -> !e.getClass("messageClass").getName().equals(Long.class.getName()))
+                .extracting(e -> e.getClass("messageClass").getName())
+                .containsExactly(String.class.getName(), Integer.class.getName(), String.class.getName());
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("paxel.lintstone.Reply"))
+                .filteredOn(e -> !e.getClass("replyClass").getName().equals(Long.class.getName()))
+                .hasSize(2)
+                .allSatisfy(e -> assertThat(e.getBoolean("ask")).isTrue());
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("paxel.lintstone.ProcessingError"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getString("actor")).isEqualTo("echo");
+                    assertThat(e.getString("error")).isEqualTo("MESSAGE_PROCESSING_FAILED");
+                    assertThat(e.getClass("exceptionClass").getName()).isEqualTo(IllegalArgumentException.class.getName());
+                });
+    }
+}
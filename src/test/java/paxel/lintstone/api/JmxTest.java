@@ -0,0 +1,59 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JmxTest {
+
+    @Test
+    void testSystemAndActorBeans() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.registerMBeans("jmxTest", 1);
+        LintStoneActorAccessor first = system.registerActor("first", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+        LintStoneActorAccessor failing = system.registerActor("failing", () -> mec -> mec.otherwise((o, ctx) -> {
+            throw new IllegalStateException("fail");
+        }), ActorSettings.DEFAULT);
+
+        first.ask("hello").get();
+        failing.tell("boom");
+        ObjectName systemName = new ObjectName("paxel.lintstone:type=LintStoneSystem,name=\"jmxTest\"");
+        waitForErrors(server, systemName);
+
+        assertThat(server.getAttribute(systemName, "ActorCount")).isEqualTo(2);
+        assertThat((Long) server.getAttribute(systemName, "TotalMessages")).isEqualTo(2);
+        assertThat((Long) server.getAttribute(systemName, "TotalErrors")).isEqualTo(1);
+        assertThat((CompositeData[]) server.getAttribute(systemName, "Actors")).hasSize(2);
+
+        // the limit only allows the bean of the first actor
+        ObjectName firstName = new ObjectName("paxel.lintstone:type=Actor,system=\"jmxTest\",name=\"first\"");
+        assertThat(server.isRegistered(firstName)).isTrue();
+        assertThat(server.isRegistered(new ObjectName("paxel.lintstone:type=Actor,system=\"jmxTest\",name=\"failing\""))).isFalse();
+        CompositeData info = (CompositeData) server.getAttribute(firstName, "Info");
+        assertThat(info.get("processedMessages")).isEqualTo(1L);
+
+        CompositeData single = (CompositeData) server.invoke(systemName, "actor", new Object[]{"failing"}, new String[]{String.class.getName()});
+        assertThat(single.get("errors")).isEqualTo(1L);
+
+        // the totals survive the unregistration
+        system.unregisterActor("first");
+        assertThat(server.isRegistered(firstName)).isFalse();
+        assertThat((Long) server.getAttribute(systemName, "TotalMessages")).isEqualTo(2);
+
+        system.shutDownNow();
+        assertThat(server.isRegistered(systemName)).isFalse();
+    }
+
+    private static void waitForErrors(MBeanServer server, ObjectName name) throws Exception {
+        long start = System.currentTimeMillis();
+        while ((Long) server.getAttribute(name, "TotalErrors") < 1 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package paxel.lintstone.api;
+
+import lombok.NonNull;
+import paxel.lintstone.impl.ActorSystem;
+import paxel.lintstone.impl.GroupingExecutor;
+import paxel.lintstone.impl.LatencyHistogram;
+import paxel.lintstone.impl.SequentialProcessorBuilder;
+import paxel.lintstone.impl.SimpleScheduler;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a {@link LintStoneSystem} at a fixed arrival rate and measures the end-to-end latency of tells
+ * (send to handle) and asks (send to completed future).
+ * <p>
+ * The latency is measured from the time a message was <em>intended</em> to be sent by the schedule, not from the
+ * time it actually was sent. If the system stalls the producer, the messages that should have been sent in the
+ * meantime are charged with the stall, so the distribution is corrected for coordinated omission. The uncorrected
+ * distribution is reported as well, to show the difference.
+ * <p>
+ * Run {@link #main(String[])} to compare the {@link GroupingExecutor} with a platform thread {@link ProcessorFactory}.
+ */
+public class LatencyHarness {
+
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final double[] PERCENTILES = {50, 75, 90, 99, 99.9, 99.99};
+
+    /**
+     * What is measured.
+     */
+    public enum Mode {
+        /**
+         * From the intended send time until the handler starts.
+         */
+        TELL,
+        /**
+         * From the intended send time until the future of the ask completes.
+         */
+        ASK
+    }
+
+    /**
+     * The measured distributions.
+     *
+     * @param name        the name of the run.
+     * @param corrected   the latencies from the intended send time.
+     * @param uncorrected the latencies from the actual send time.
+     * @param sent        the number of sent messages, including the warmup.
+     * @param late        the number of messages sent later than the schedule by more than the spin time.
+     */
+    public record Result(@NonNull String name, @NonNull LatencySnapshot corrected, @NonNull LatencySnapshot uncorrected,
+                         long sent, long late) {
+    }
+
+    /**
+     * A probe carries its intended and actual send time.
+     */
+    private record Probe(long intended, long sent, boolean measured) {
+    }
+
+    private final @NonNull String name;
+    private final @NonNull Supplier<ProcessorFactory> processorFactory;
+    private final int ratePerSecond;
+    private final @NonNull Duration warmup;
+    private final @NonNull Duration duration;
+    private final int actors;
+    private final long serviceNanos;
+
+    /**
+     * Creates a harness.
+     *
+     * @param name             the name of the processor factory for the output.
+     * @param processorFactory creates the processor factory of each run.
+     * @param ratePerSecond    the fixed arrival rate.
+     * @param warmup           the time before the measurement starts.
+     * @param duration         the time of the measurement.
+     * @param actors           the number of actors, the messages are distributed round-robin.
+     * @param serviceTime      the time each message keeps its actor busy.
+     */
+    public LatencyHarness(@NonNull String name, @NonNull Supplier<ProcessorFactory> processorFactory, int ratePerSecond,
+                          @NonNull Duration warmup, @NonNull Duration duration, int actors, @NonNull Duration serviceTime) {
+        this.name = name;
+        this.processorFactory = processorFactory;
+        this.ratePerSecond = ratePerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.actors = actors;
+        this.serviceNanos = serviceTime.toNanos();
+    }
+
+    /**
+     * Runs the load on a new system and shuts it down afterward.
+     *
+     * @param mode what to measure.
+     * @return the distributions.
+     * @throws InterruptedException if interrupted while waiting for the last messages.
+     */
+    public @NonNull Result run(@NonNull Mode mode) throws InterruptedException {
+        LatencyHistogram corrected = new LatencyHistogram();
+        LatencyHistogram uncorrected = new LatencyHistogram();
+        AtomicLong completed = new AtomicLong();
+        LintStoneSystem system = new ActorSystem(processorFactory.get(), new SimpleScheduler());
+        try {
+            List<LintStoneActorAccessor> targets = new ArrayList<>(actors);
+            for (int i = 0; i < actors; i++) {
+                targets.add(system.registerActor("target" + i, () -> mec -> mec.inCase(Probe.class, (probe, ctx) -> {
+                    if (mode == Mode.TELL) {
+                        record(probe, System.nanoTime(), corrected, uncorrected);
+                        completed.incrementAndGet();
+                    }
+                    busy(serviceNanos);
+                    if (mode == Mode.ASK) {
+                        ctx.reply(probe);
+                    }
+                }), ActorSettings.DEFAULT));
+            }
+
+            long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long start = System.nanoTime();
+            long measureStart = start + warmup.toNanos();
+            long end = measureStart + duration.toNanos();
+            long sent = 0;
+            long late = 0;
+            for (long intended = start; intended < end; intended += interval) {
+                late += waitUntil(intended) ? 0 : 1;
+                Probe probe = new Probe(intended, System.nanoTime(), intended >= measureStart);
+                LintStoneActorAccessor target = targets.get((int) (sent++ % actors));
+                if (mode == Mode.TELL) {
+                    target.tell(probe);
+                } else {
+                    target.<Probe>ask(probe).thenAccept(reply -> {
+                        record(reply, System.nanoTime(), corrected, uncorrected);
+                        completed.incrementAndGet();
+                    });
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (completed.get() < sent && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return new Result(name + " " + mode, corrected.snapshot(), uncorrected.snapshot(), sent, late);
+        } finally {
+            system.shutDownNow();
+        }
+    }
+
+    private static void record(Probe probe, long now, LatencyHistogram corrected, LatencyHistogram uncorrected) {
+        if (probe.measured()) {
+            corrected.record(now - probe.intended());
+            uncorrected.record(now - probe.sent());
+        }
+    }
+
+    /**
+     * Waits until the intended time.
+     *
+     * @return {@code false} if the time was already missed by more than the spin time.
+     */
+    private static boolean waitUntil(long intended) {
+        long remaining = intended - System.nanoTime();
+        if (remaining < -SPIN_NANOS) {
+            return false;
+        }
+        while (remaining > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = intended - System.nanoTime();
+        }
+        return true;
+    }
+
+    private static void busy(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Prints the percentile distribution in microseconds.
+     *
+     * @param result the result.
+     * @param out    the target.
+     */
+    public static void print(@NonNull Result result, @NonNull PrintStream out) {
+        out.printf("%s: %d sent, %d late, %d measured%n", result.name(), result.sent(), result.late(), result.corrected().count());
+        out.printf("%12s %14s %14s%n", "percentile", "corrected us", "uncorrected us");
+        for (double percentile : PERCENTILES) {
+            out.printf("%12s %14.1f %14.1f%n", percentile, result.corrected().percentileNanos(percentile) / 1000.0,
+                    result.uncorrected().percentileNanos(percentile) / 1000.0);
+        }
+        out.printf("%12s %14.1f %14.1f%n%n", "max", result.corrected().maxNanos() / 1000.0, result.uncorrected().maxNanos() / 1000.0);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        Duration warmup = Duration.ofSeconds(5);
+        Duration duration = Duration.ofSeconds(20);
+        List<LatencyHarness> harnesses = List.of(
+                new LatencyHarness("GroupingExecutor", GroupingExecutor::new, rate, warmup, duration, 16, Duration.ofNanos(5_000)),
+                new LatencyHarness("PlatformThreads", PlatformThreadProcessorFactory::new, rate, warmup, duration, 16, Duration.ofNanos(5_000)));
+        for (LatencyHarness harness : harnesses) {
+            for (Mode mode : Mode.values()) {
+                print(harness.run(mode), System.out);
+            }
+        }
+    }
+
+    /**
+     * An alternative {@link ProcessorFactory}, that runs each processor on its own platform thread.
+     */
+    static class PlatformThreadProcessorFactory implements ProcessorFactory {
+        private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+        @Override
+        public SequentialProcessorBuilder create() {
+            return new SequentialProcessorBuilder(executorService);
+        }
+
+        @Override
+        public void shutdown() {
+            executorService.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executorService.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executorService.isShutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executorService.awaitTermination(timeout, unit);
+        }
+    }
+}
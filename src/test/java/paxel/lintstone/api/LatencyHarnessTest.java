@@ -0,0 +1,29 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+import paxel.lintstone.impl.GroupingExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHarnessTest {
+
+    @Test
+    void testAllMeasuredMessagesAreRecorded() throws InterruptedException {
+        LatencyHarness harness = new LatencyHarness("test", GroupingExecutor::new, 2000, Duration.ofMillis(100), Duration.ofMillis(400), 4, Duration.ZERO);
+        for (LatencyHarness.Mode mode : LatencyHarness.Mode.values()) {
+            LatencyHarness.Result result = harness.run(mode);
+            // 1000 per 500ms, 800 of them after the warmup
+            assertThat(result.sent()).isBetween(990L, 1010L);
+            assertThat(result.corrected().count()).isBetween(790L, 810L);
+            assertThat(result.corrected().percentileNanos(99)).isGreaterThanOrEqualTo(result.uncorrected().percentileNanos(50));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            LatencyHarness.print(result, new PrintStream(out));
+            assertThat(out.toString()).contains("test " + mode, "99.9", "max");
+        }
+    }
+}
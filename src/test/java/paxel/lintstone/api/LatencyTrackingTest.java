@@ -0,0 +1,54 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyTrackingTest {
+
+    @Test
+    void testLatenciesAreRecordedIfEnabled() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        ActorSettings settings = ActorSettings.create().setLatencyTracking(true).build();
+        LintStoneActorAccessor sleeper = system.registerActor("sleeper", () -> mec -> mec.inCase(Integer.class, (millis, ctx) -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).inCase(String.class, (s, ctx) -> ctx.reply(s)), settings);
+        LintStoneActorAccessor untracked = system.registerActor("untracked", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        for (int i = 0; i < 10; i++) {
+            sleeper.tell(5);
+        }
+        sleeper.ask("done").get();
+        untracked.ask("done").get();
+
+        // 10 sleeps and the ask. The reply of the external ask completes the future directly, so it is no task.
+        // The ask itself is recorded after its handler completed the future
+        long start = System.currentTimeMillis();
+        while (sleeper.getServiceTimeLatency().orElseThrow().count() < 11 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        LatencySnapshot serviceTime = sleeper.getServiceTimeLatency().orElseThrow();
+        LatencySnapshot queueWait = sleeper.getQueueWaitLatency().orElseThrow();
+        assertThat(serviceTime.count()).isEqualTo(11);
+        assertThat(serviceTime.maxNanos()).isGreaterThanOrEqualTo(5_000_000);
+        // the last sleep waited for the 9 before
+        assertThat(queueWait.maxNanos()).isGreaterThanOrEqualTo(40_000_000);
+        assertThat(untracked.getServiceTimeLatency()).isEmpty();
+
+        SystemSnapshot snapshot = system.snapshot();
+        assertThat(snapshot.actors()).extracting(ActorSnapshot::name).containsExactlyInAnyOrder("sleeper", "untracked");
+        assertThat(snapshot.actors()).filteredOn(a -> a.name().equals("sleeper"))
+                .singleElement()
+                .satisfies(a -> {
+                    assertThat(a.processedMessages()).isEqualTo(11);
+                    assertThat(a.serviceTime()).isPresent();
+                });
+        system.shutDownNow();
+    }
+}
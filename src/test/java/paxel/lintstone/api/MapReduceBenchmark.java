@@ -0,0 +1,86 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import paxel.lintstone.api.example.mapreduce.WordCountAggregator;
+import paxel.lintstone.api.example.mapreduce.WordCountMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map-reduce engine with the hand wired word count of the demo, which sends a map per line to a single
+ * aggregator and waits until all queues are empty, on a generated input of 200k lines and 5k distinct words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapReduceBenchmark {
+
+    @Param({"200000"})
+    public int lineCount;
+
+    private final int workers = Runtime.getRuntime().availableProcessors();
+    private LintStoneSystem system;
+    private List<String> lines;
+    private MapReduceJob<String, String, Long> job;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        Random random = new Random(42);
+        lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int w = random.nextInt(10); w >= 0; w--) {
+                line.append("Word").append(random.nextInt(5_000)).append(' ');
+            }
+            lines.add(line.toString());
+        }
+        job = MapReduceJob.<String, String, Long>create((line, emitter) -> {
+            for (String word : line.toLowerCase().split("\\W+")) {
+                if (!word.isEmpty()) {
+                    emitter.accept(word, 1L);
+                }
+            }
+        }, Long::sum).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Benchmark
+    public int engine() throws Exception {
+        return system.mapReduce("wordcount" + run++, lines, job).get().size();
+    }
+
+    @Benchmark
+    public int demo() throws Exception {
+        LintStoneActorAccessor aggregator = system.registerActor("aggregator", WordCountAggregator::new, ActorSettings.DEFAULT);
+        List<LintStoneActorAccessor> mappers = system.registerActors("mapper-", workers, WordCountMapper::new, ActorSettings.DEFAULT);
+        int count = 0;
+        for (String line : lines) {
+            mappers.get(count++ % workers).tellWithBackPressure(line, 1000);
+        }
+        while (mappers.stream().anyMatch(m -> m.getQueuedMessagesAndReplies() > 0) || aggregator.getQueuedMessagesAndReplies() > 0) {
+            Thread.yield();
+        }
+        Map<String, Long> result = aggregator.<Map<String, Long>>ask("GET_RESULT").get();
+        system.unregisterActorsByPrefix("mapper-");
+        system.unregisterActor("aggregator");
+        return result.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(MapReduceBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,99 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MapReduceTest {
+
+    private static final MapReduceJob.Mapper<String, String, Long> WORDS = (line, emitter) -> {
+        for (String word : line.split(" ")) {
+            emitter.accept(word, 1L);
+        }
+    };
+
+    private LintStoneSystem system;
+    private List<String> lines;
+    private Map<String, Long> expected;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+        lines = IntStream.range(0, 5_000)
+                .mapToObj(i -> "w" + (i % 97) + " w" + (i % 13) + " common")
+                .toList();
+        expected = lines.stream()
+                .flatMap(line -> Arrays.stream(line.split(" ")))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testDefaultJob() throws Exception {
+        Map<String, Long> result = system.mapReduce("count", lines, MapReduceJob.create(WORDS, Long::sum).build())
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(expected);
+        assertThat(system.getActor("count.1.0").exists()).isFalse();
+    }
+
+    @Test
+    void testFrequentFlushesThroughAMergeTree() throws Exception {
+        // 5 reducers merged by 3 levels with a fan in of 2
+        MapReduceJob<String, String, Long> job = MapReduceJob.create(WORDS, Long::sum)
+                .setMappers(3)
+                .setReducers(5)
+                .setFlushThreshold(2)
+                .setMergeFanIn(2)
+                .build();
+
+        Map<String, Long> result = system.mapReduce("tree", lines, job).get(10, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void testSingleReducer() throws Exception {
+        MapReduceJob<String, String, Long> job = MapReduceJob.create(WORDS, Long::sum)
+                .setMappers(1)
+                .setReducers(1)
+                .build();
+
+        assertThat(system.mapReduce("single", lines, job).get(10, TimeUnit.SECONDS)).isEqualTo(expected);
+    }
+
+    @Test
+    void testMapperErrorFailsTheJob() {
+        MapReduceJob<String, String, Long> job = MapReduceJob.<String, String, Long>create((line, emitter) -> {
+            throw new IllegalStateException("broken " + line);
+        }, Long::sum).build();
+
+        assertThatThrownBy(() -> system.mapReduce("broken", lines, job).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testInvalidSettings() {
+        assertThatThrownBy(() -> MapReduceJob.create(WORDS, Long::sum).setReducers(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MapReduceJob.create(WORDS, Long::sum).setMergeFanIn(1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PassivationTest {
+
+    private static final ActorSettings PASSIVATING = ActorSettings.create().setPassivationTimeout(Duration.ofMillis(50)).build();
+
+    private void waitForAtomicInteger(AtomicInteger atomic, int expected) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (atomic.get() < expected && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testIdleActorIsRecreatedWithState() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger created = new AtomicInteger(0);
+        AtomicInteger passivated = new AtomicInteger(0);
+
+        LintStoneActorAccessor actor = system.registerActor("summer", () -> {
+            created.incrementAndGet();
+            return new SummingActor(passivated);
+        }, PASSIVATING);
+
+        actor.tell(1);
+        actor.tell(2);
+        waitForAtomicInteger(passivated, 1);
+        assertThat(passivated.get()).isEqualTo(1);
+        assertThat(created.get()).isEqualTo(1);
+
+        // the next message recreates the actor with the snapshot of the old one
+        actor.tell(3);
+        Integer sum = actor.<Integer>ask("sum").get();
+
+        assertThat(sum).isEqualTo(6);
+        assertThat(created.get()).isEqualTo(2);
+        assertThat(actor.getProcessedMessages()).isEqualTo(4);
+        system.shutDownNow();
+    }
+
+    @Test
+    void testNoMessageIsLostWhilePassivating() throws InterruptedException, ExecutionException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger passivated = new AtomicInteger(0);
+        LintStoneActorAccessor actor = system.registerActor("summer", () -> new SummingActor(passivated), PASSIVATING);
+
+        int expected = 0;
+        for (int burst = 0; burst < 10; burst++) {
+            for (int i = 0; i < 100; i++) {
+                actor.tell(1);
+                expected++;
+            }
+            // sleep around the passivation timeout, to hit the passivation with the next burst
+            Thread.sleep(40 + burst * 2);
+        }
+        Integer sum = actor.<Integer>ask("sum").get();
+
+        assertThat(sum).isEqualTo(expected);
+        assertThat(passivated.get()).isGreaterThan(0);
+        system.shutDownNow();
+    }
+
+    @Test
+    void testUnregisteredPassivatedActorIsNotRecreated() throws InterruptedException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        AtomicInteger created = new AtomicInteger(0);
+        AtomicInteger passivated = new AtomicInteger(0);
+        LintStoneActorAccessor actor = system.registerActor("summer", () -> {
+            created.incrementAndGet();
+            return new SummingActor(passivated);
+        }, PASSIVATING);
+
+        actor.tell(1);
+        waitForAtomicInteger(passivated, 1);
+        system.unregisterActor("summer");
+
+        assertThat(actor.exists()).isFalse();
+        assertThat(created.get()).isEqualTo(1);
+        system.shutDownNow();
+    }
+
+    private static class SummingActor implements LintStonePassivatableActor {
+        private final AtomicInteger passivated;
+        private int sum;
+
+        SummingActor(AtomicInteger passivated) {
+            this.passivated = passivated;
+        }
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(Integer.class, (i, ctx) -> sum += i)
+                    .inCase(String.class, (s, ctx) -> ctx.reply(sum));
+        }
+
+        @Override
+        public Object snapshot() {
+            passivated.incrementAndGet();
+            return sum;
+        }
+
+        @Override
+        public void restore(Object snapshot) {
+            sum = (Integer) snapshot;
+        }
+    }
+}
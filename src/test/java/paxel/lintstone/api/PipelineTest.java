@@ -0,0 +1,138 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PipelineTest {
+
+    private LintStoneSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testFusedStagesKeepTheOrder() throws Exception {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+
+        system.from("fused", IntStream.range(0, 1_000).boxed().toList())
+                .filter(i -> i % 2 == 0)
+                .map(i -> i * 3)
+                .flatMap(i -> List.of(i, i + 1))
+                .to(received::add)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(received).containsExactlyElementsOf(IntStream.range(0, 500)
+                .flatMap(i -> IntStream.of(i * 6, i * 6 + 1)).boxed().toList());
+        // the pipeline runs in the source actor and is removed after the end
+        assertThat(system.getActor("fused.0.0").exists()).isFalse();
+        assertThat(system.getActor("fused.1.0").exists()).isFalse();
+    }
+
+    @Test
+    void testWordCount() throws Exception {
+        List<String> lines = IntStream.range(0, 10_000).mapToObj(i -> "apple banana " + (i % 3 == 0 ? "cherry" : "apple")).toList();
+        Map<String, Long> counts = new java.util.concurrent.ConcurrentHashMap<>();
+
+        system.from("words", lines)
+                .mapAsync(4, line -> Arrays.asList(line.split(" ")))
+                .flatMap(words -> words)
+                .groupBy(word -> word)
+                .reduce(0L, (count, word) -> count + 1)
+                .to(entry -> counts.put(entry.getKey(), entry.getValue()))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(counts).containsOnly(Map.entry("apple", 16_666L), Map.entry("banana", 10_000L), Map.entry("cherry", 3_334L));
+    }
+
+    @Test
+    void testBuffersAreBounded() throws Exception {
+        int buffer = 8;
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger sunk = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Iterable<Integer> source = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < 2_000;
+            }
+
+            @Override
+            public Integer next() {
+                maxInFlight.accumulateAndGet(pulled.get() - sunk.get(), Math::max);
+                return pulled.getAndIncrement();
+            }
+        };
+
+        system.from("bounded", source, buffer)
+                .mapAsync(2, i -> i)
+                .mapAsync(3, i -> i)
+                .to(i -> {
+                    sunk.incrementAndGet();
+                    if (i % 50 == 0) {
+                        Thread.yield();
+                    }
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(sunk.get()).isEqualTo(2_000);
+        // each of the 2 + 6 + 3 links holds at most one buffer and each of the 6 actors one item in process
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(buffer * 11 + 6);
+    }
+
+    @Test
+    void testErrorFailsTheFuture() {
+        CompletableFuture<Void> result = system.from("failing", List.of(1, 2, 0, 4))
+                .mapAsync(2, i -> 12 / i)
+                .to(i -> {
+                });
+
+        assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testEmptySource() throws Exception {
+        List<Map.Entry<Integer, Integer>> received = new CopyOnWriteArrayList<>();
+
+        system.<Integer>from("empty", List.of())
+                .mapAsync(2, i -> i)
+                .groupBy(i -> i % 2)
+                .reduce(0, Integer::sum)
+                .to(received::add)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void testNamesMustBeFree() {
+        system.registerActor("taken.0.0", () -> mec -> {
+        }, ActorSettings.DEFAULT);
+
+        assertThatThrownBy(() -> system.from("taken", List.of(1)).to(i -> {
+        })).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,161 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrimitiveMessageTest {
+
+    private LintStoneSystem system;
+    private final List<Object> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        system = LintStoneSystemFactory.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.shutDownNow();
+    }
+
+    @Test
+    void testPrimitivesReachTheirHandlers() throws Exception {
+        LintStoneActorAccessor actor = system.registerActor("numbers", () -> mec -> mec
+                .inCaseInt((value, ctx) -> received.add("int " + value))
+                .inCaseLong((value, ctx) -> received.add("long " + value))
+                .inCaseDouble((value, ctx) -> received.add("double " + value))
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        actor.tellInt(Integer.MIN_VALUE);
+        actor.tellLong(Long.MAX_VALUE);
+        actor.tellDouble(-0.5);
+        actor.tellInt(-1);
+        // boxed values are handled by the primitive handlers as well
+        actor.tell(7);
+        actor.tell(8L);
+        actor.ask("sync").get(10, TimeUnit.SECONDS);
+
+        assertThat(received).containsExactly("int " + Integer.MIN_VALUE, "long " + Long.MAX_VALUE, "double -0.5",
+                "int -1", "int 7", "long 8");
+        assertThat(actor.getProcessedMessages()).isEqualTo(7);
+    }
+
+    @Test
+    void testPrimitivesAreBoxedForOtherHandlers() throws Exception {
+        LintStoneActorAccessor actor = system.registerActor("boxes", () -> mec -> mec
+                .inCase(Number.class, (number, ctx) -> received.add(number))
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+
+        actor.tellInt(1);
+        actor.tellLong(2);
+        actor.tellDouble(3.5);
+        actor.ask("sync").get(10, TimeUnit.SECONDS);
+
+        assertThat(received).containsExactly(1, 2L, 3.5);
+    }
+
+    @Test
+    void testRepliesGoToTheSendingActor() throws Exception {
+        system.registerActor("doubler", () -> mec -> mec.inCaseInt((value, ctx) -> ctx.reply(value * 2)), ActorSettings.DEFAULT);
+        LintStoneActorAccessor sender = system.registerActor("sender", () -> mec -> mec
+                .inCase(String.class, (s, ctx) -> {
+                    LintStoneActorAccessor doubler = ctx.getActor("doubler");
+                    for (int i = 0; i < 1_000; i++) {
+                        doubler.tellInt(i);
+                    }
+                })
+                .inCase(Integer.class, (i, ctx) -> received.add(i)), ActorSettings.DEFAULT);
+
+        sender.tell("go");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < 1_000 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+
+        assertThat(received).hasSize(1_000).startsWith(0, 2, 4).endsWith(1_998);
+    }
+
+    @Test
+    void testContextStaysValidInReplyHandlers() throws Exception {
+        List<Object> fromA = new CopyOnWriteArrayList<>();
+        List<Object> fromB = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ctx.reply(o);
+        }), ActorSettings.DEFAULT);
+        LintStoneActorAccessor relay = system.registerActor("relay", () -> mec -> mec
+                .inCaseInt((value, ctx) -> ctx.ask("echo", "ping", reply -> reply.otherwise((o, r) -> ctx.reply(value)))), ActorSettings.DEFAULT);
+        LintStoneActorAccessor a = system.registerActor("a", () -> mec -> mec
+                .inCase(String.class, (s, ctx) -> ctx.getActor("relay").tellInt(Integer.parseInt(s)))
+                .inCase(Integer.class, (i, ctx) -> fromA.add(i)), ActorSettings.DEFAULT);
+        LintStoneActorAccessor b = system.registerActor("b", () -> mec -> mec
+                .inCase(String.class, (s, ctx) -> ctx.getActor("relay").tellInt(Integer.parseInt(s)))
+                .inCase(Integer.class, (i, ctx) -> fromB.add(i)), ActorSettings.DEFAULT);
+
+        // the second value is queued after the first was processed, while the reply to the first is still pending
+        a.tell("1");
+        waitForProcessed(relay, 1);
+        b.tell("1000");
+        waitForProcessed(relay, 2);
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (fromA.size() + fromB.size() < 2 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+
+        assertThat(fromA).containsExactly(1);
+        assertThat(fromB).containsExactly(1000);
+    }
+
+    private static void waitForProcessed(LintStoneActorAccessor actor, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (actor.getProcessedMessages() < expected && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+    }
+
+    @Test
+    void testInterceptorsSeeTheBoxedValue() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        MessageInterceptor interceptor = new MessageInterceptor() {
+            @Override
+            public void onSend(String actorName, Object message) {
+                calls.add("send " + message);
+            }
+
+            @Override
+            public void beforeProcess(String actorName, Object message) {
+                calls.add("before " + message);
+            }
+        };
+        LintStoneActorAccessor actor = system.registerActor("intercepted", () -> mec -> mec
+                .inCaseLong((value, ctx) -> received.add(value))
+                .otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.create().addInterceptor(interceptor).build());
+
+        actor.tellLong(42);
+        actor.ask("sync").get(10, TimeUnit.SECONDS);
+
+        assertThat(calls).contains("send 42", "before 42");
+        assertThat(received).containsExactly(42L);
+    }
+
+    @Test
+    void testUnknownActor() {
+        assertThatThrownBy(() -> system.getActor("missing").tellInt(1))
+                .isInstanceOf(UnregisteredRecipientException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares boxed int tells with the primitive tell path. The values are outside the Integer cache, so each boxed
+ * tell allocates. Run with {@code -prof gc} to see the allocation per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveTellBenchmark {
+
+    private static final int MESSAGES = 100_000;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        counter = system.registerActor("counter", CountingActor::new, ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long boxed() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            counter.tell(1_000 + i);
+        }
+        return counter.<Long>ask("sum").get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long primitive() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            counter.tellInt(1_000 + i);
+        }
+        return counter.<Long>ask("sum").get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(PrimitiveTellBenchmark.class.getSimpleName());
+    }
+
+    private static class CountingActor implements LintStoneActor {
+        private long sum;
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCaseInt((i, ctx) -> sum += i)
+                    .inCase(String.class, (s, ctx) -> ctx.reply(sum));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the registration and unregistration of request scoped actors, as the {@link paxel.lintstone.api.actors.SortNodeActor} does.
+ * Run {@link #main(String[])} to execute it with 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationChurnBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    /**
+     * The number of actors that stay registered in the background.
+     */
+    @Param({"1", "10000"})
+    public int population;
+
+    private LintStoneSystem system;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        system.registerActor("shared", NoopActor::new, ActorSettings.DEFAULT);
+        system.registerActors("population", population - 1, NoopActor::new, ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownAndWait();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private String prefix;
+        private long sequence;
+
+        @Setup(Level.Trial)
+        public void setup(RegistrationChurnBenchmark benchmark) {
+            prefix = "request-" + benchmark.threadIds.incrementAndGet() + "-";
+        }
+
+        String nextName() {
+            return prefix + sequence++;
+        }
+    }
+
+    @Benchmark
+    public boolean registerAndUnregister(ThreadState state) {
+        String name = state.nextName();
+        system.registerActor(name, NoopActor::new, ActorSettings.DEFAULT);
+        return system.unregisterActor(name);
+    }
+
+    @Benchmark
+    public LintStoneActorAccessor registerExisting() {
+        // the existing actor wins, so this only measures the lookup
+        return system.registerActor("shared", NoopActor::new, ActorSettings.DEFAULT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options opt = new OptionsBuilder()
+                    .include(RegistrationChurnBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+
+    private static class NoopActor implements LintStoneActor {
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.otherwise((msg, ctx) -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RemoteActorTest {
+
+    public record Sequence(int value) {
+    }
+
+    public record Add(int a, int b) {
+    }
+
+    private LintStoneSystem client;
+    private LintStoneSystem server;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = LintStoneSystemFactory.create();
+        server = LintStoneSystemFactory.create();
+        server.getCodecRegistry().codecFor(Sequence.class);
+        server.getCodecRegistry().codecFor(Add.class);
+        InetSocketAddress address = server.bind("server", new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        prefix = "server@127.0.0.1:" + address.getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutDownNow();
+        server.shutDownNow();
+    }
+
+    @Test
+    void testTellsKeepTheirOrder() throws InterruptedException {
+        int count = 10_000;
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        server.registerActor("sink", () -> mec -> mec.inCase(Sequence.class, (s, ctx) -> {
+            received.add(s.value());
+            done.countDown();
+        }), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor sink = client.getRemoteActor(prefix + "sink");
+        for (int i = 0; i < count; i++) {
+            sink.tell(new Sequence(i));
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).isSorted().hasSize(count);
+    }
+
+    @Test
+    void testAskWithReplyHandler() throws Exception {
+        server.registerActor("adder", () -> mec -> mec.inCase(Add.class, (add, ctx) -> ctx.reply(add.a() + add.b())), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor adder = client.getRemoteActor(prefix + "adder");
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        adder.ask(new Add(20, 22), mec -> mec.inCase(Integer.class, (sum, ctx) -> result.complete(sum)));
+
+        assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(42);
+    }
+
+    @Test
+    void testAskAllRemoteActors() throws Exception {
+        server.registerActor("adder", () -> mec -> mec.inCase(Add.class, (add, ctx) -> ctx.reply(add.a() + add.b())), ActorSettings.DEFAULT);
+        server.registerActor("failing", () -> mec -> mec.inCase(Add.class, (add, ctx) -> {
+            throw new IllegalStateException("no sum");
+        }), ActorSettings.DEFAULT);
+        client.registerActor("local", () -> mec -> mec.inCase(Add.class, (add, ctx) -> ctx.reply(-1)), ActorSettings.DEFAULT);
+
+        List<LintStoneActorAccessor> actors = List.of(client.getRemoteActor(prefix + "adder"), client.getActor("local"),
+                client.getRemoteActor(prefix + "missing"));
+        LintStoneReplies<Integer> replies = client.<Integer>askAll(actors, new Add(1, 2))
+                .get(10, TimeUnit.SECONDS);
+
+        // the missing remote actor fails its ask
+        assertThat(replies.toList()).containsExactly(3, -1);
+
+        // only remote actors and a deadline
+        LintStoneReplies<Integer> partial = client.<Integer>askAll(List.of(client.getRemoteActor(prefix + "adder"),
+                client.getRemoteActor(prefix + "failing")), new Add(2, 3), Duration.ofMillis(200)).get(10, TimeUnit.SECONDS);
+
+        assertThat(partial.get(0)).isEqualTo(5);
+        assertThat(partial.received()).isEqualTo(1);
+    }
+
+    @Test
+    void testAskRepliesAreCorrelated() throws Exception {
+        server.registerActor("adder", () -> mec -> mec.inCase(Add.class, (add, ctx) -> ctx.reply(add.a() + add.b())), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor adder = client.getRemoteActor(prefix + "adder");
+        List<CompletableFuture<Integer>> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(adder.ask(new Add(i, i)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(2 * i);
+        }
+    }
+
+    @Test
+    void testAskToMissingActorFails() {
+        CompletableFuture<Object> result = client.getRemoteActor(prefix + "missing").ask(new Add(1, 2));
+
+        assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UnregisteredRecipientException.class);
+    }
+
+    @Test
+    void testUnknownTypesAreNotDelivered() throws InterruptedException {
+        CountDownLatch rejected = new CountDownLatch(1);
+        server.setDeadLetterHandler(letter -> rejected.countDown(), 1);
+        server.registerActor("sink", () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+
+        client.getRemoteActor(prefix + "sink").tell(new UnknownType("secret"));
+
+        assertThat(rejected.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(server.getDeadLetters(DeadLetterReason.REJECTED)).isEqualTo(1);
+    }
+
+    @Test
+    void testWrongSystemNameClosesTheConnection() {
+        String wrong = prefix.replace("server@", "other@");
+        LintStoneActorAccessor adder = client.getRemoteActor(wrong + "adder");
+
+        // the ask fails in the future or, if the connection is already closed, directly
+        assertThatThrownBy(() -> adder.ask(new Add(1, 2)).get(10, TimeUnit.SECONDS))
+                .satisfiesAnyOf(e -> assertThat(e).isInstanceOf(UnregisteredRecipientException.class),
+                        e -> assertThat(e).hasCauseInstanceOf(UnregisteredRecipientException.class));
+    }
+
+    @Test
+    void testUnreachableSystemIsADeadLetter() {
+        server.shutDownNow();
+
+        assertThat(client.getRemoteActor(prefix + "sink").tryTell(new Sequence(1))).isFalse();
+        assertThat(client.getDeadLetters(DeadLetterReason.UNREGISTERED_RECIPIENT)).isEqualTo(1);
+        assertThatThrownBy(() -> client.getRemoteActor("no address")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    public record UnknownType(String value) {
+    }
+}
@@ -0,0 +1,76 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures tells and asks between two systems in this JVM over loopback TCP.
+ * The tells are sent in batches and the batch waits until the remote actor processed all of them,
+ * so the throughput includes the write batching of the connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RemoteBenchmark {
+
+    private static final int BATCH = 1000;
+
+    public record Quote(long id, double price, int size) {
+    }
+
+    private LintStoneSystem client;
+    private LintStoneSystem server;
+    private LintStoneActorAccessor sink;
+    private LintStoneActorAccessor echo;
+    private final AtomicLong received = new AtomicLong();
+    private long sent;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        client = LintStoneSystemFactory.create();
+        server = LintStoneSystemFactory.create();
+        server.getCodecRegistry().codecFor(Quote.class);
+        server.registerActor("sink", () -> mec -> mec.inCase(Quote.class, (quote, ctx) -> received.incrementAndGet()), ActorSettings.DEFAULT);
+        server.registerActor("echo", () -> mec -> mec.inCase(Quote.class, (quote, ctx) -> ctx.reply(quote.id())), ActorSettings.DEFAULT);
+        InetSocketAddress address = server.bind("server", new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        sink = client.getRemoteActor("server@127.0.0.1:" + address.getPort() + "/sink");
+        echo = client.getRemoteActor("server@127.0.0.1:" + address.getPort() + "/echo");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutDownNow();
+        server.shutDownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void tell() {
+        for (int i = 0; i < BATCH; i++) {
+            sink.tell(new Quote(++sent, 99.5, 100));
+        }
+        while (received.get() < sent) {
+            // yield, so the transport and the actor get the CPU on small machines
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    public Long ask() throws ExecutionException, InterruptedException {
+        return echo.<Long>ask(new Quote(++sent, 99.5, 100)).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(RemoteBenchmark.class.getSimpleName());
+    }
+}
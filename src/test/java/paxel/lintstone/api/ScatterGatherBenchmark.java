@@ -0,0 +1,81 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an actor gathering the replies of {@code workers} actors, either with a chain of asks, one after the
+ * reply of the other, or with one askAll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScatterGatherBenchmark {
+
+    @Param({"4", "16"})
+    public int workers;
+
+    private LintStoneSystem system;
+    private LintStoneActorAccessor driver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            names.add("worker" + i);
+            system.registerActor("worker" + i, () -> mec -> mec.inCase(Integer.class, (i1, ctx) -> ctx.reply(i1 + 1)), ActorSettings.DEFAULT);
+        }
+        driver = system.registerActor("driver", () -> new DriverActor(names), ActorSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownAndWait();
+    }
+
+    @Benchmark
+    public Object chained() throws Exception {
+        return driver.ask("chained").get();
+    }
+
+    @Benchmark
+    public Object askAll() throws Exception {
+        return driver.ask("all").get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(ScatterGatherBenchmark.class.getSimpleName());
+    }
+
+    private static class DriverActor implements LintStoneActor {
+        private final List<String> names;
+
+        DriverActor(List<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(String.class, (mode, ctx) -> {
+                if (mode.equals("all")) {
+                    ctx.<Integer>askAll(names, 1).thenAccept(replies -> ctx.reply(replies.received()));
+                } else {
+                    CompletableFuture<Integer> chain = CompletableFuture.completedFuture(0);
+                    for (String name : names) {
+                        chain = chain.thenCompose(sum -> ctx.<Integer>ask(name, 1).thenApply(reply -> sum + reply));
+                    }
+                    chain.thenAccept(ctx::reply);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package paxel.lintstone.api;
+
+import paxel.lintstone.impl.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the one-way tell latency between two JVMs on this host, over shared memory and over TCP loopback.
+ * The benchmark starts a second JVM with the same classpath, that binds both transports. On Linux
+ * {@link System#nanoTime()} is the same monotonic clock in all processes, so the receiving handler measures the
+ * time since the tell directly. The tells are paced, so the result is latency and not queueing.
+ * <p>
+ * Arguments: {@code [BUSY_SPIN|PARK] [messages] [intervalMicros]}. Use BUSY_SPIN only with at least two free cores.
+ */
+public class SharedMemoryBenchmark {
+
+    public record Stamp(long sentNanos) {
+    }
+
+    public record Report() {
+    }
+
+    public record Summary(long count, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child(Path.of(args[1]), WaitStrategy.valueOf(args[2]));
+            return;
+        }
+        WaitStrategy waitStrategy = args.length > 0 ? WaitStrategy.valueOf(args[0]) : WaitStrategy.BUSY_SPIN;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        long interval = TimeUnit.MICROSECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        Path shm = Path.of("/dev/shm");
+        Path file = Files.isDirectory(shm) ? shm.resolve("lintstone-benchmark.ring") : Files.createTempFile("lintstone", ".ring");
+
+        Process child = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), SharedMemoryBenchmark.class.getName(),
+                "child", file.toString(), waitStrategy.name())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()));
+            int port = Integer.parseInt(reader.readLine().substring("READY ".length()));
+            system.getCodecRegistry().codecFor(Summary.class);
+
+            run("shared memory " + waitStrategy, system.getRemoteActor("bench@shm[" + file + "]/sink"), messages, interval);
+            run("tcp loopback", system.getRemoteActor("bench@127.0.0.1:" + port + "/sink"), messages, interval);
+        } finally {
+            system.shutDownNow();
+            // the child ends with its stdin
+            child.getOutputStream().close();
+            child.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void run(String name, LintStoneActorAccessor sink, int messages, long interval) throws ExecutionException, InterruptedException {
+        // warmup, the report resets the histogram
+        send(sink, messages / 4, interval);
+        sink.<Summary>ask(new Report()).get();
+        send(sink, messages, interval);
+        Summary summary = sink.<Summary>ask(new Report()).get();
+        System.out.printf("%-24s %8d tells   p50 %8.2f us   p90 %8.2f us   p99 %8.2f us   p99.9 %8.2f us   max %8.2f us%n",
+                name, summary.count(), summary.p50() / 1000.0, summary.p90() / 1000.0, summary.p99() / 1000.0,
+                summary.p999() / 1000.0, summary.max() / 1000.0);
+    }
+
+    private static void send(LintStoneActorAccessor sink, int messages, long interval) {
+        long next = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            while (System.nanoTime() < next) {
+                if (next - System.nanoTime() > 50_000) {
+                    LockSupport.parkNanos(next - System.nanoTime() - 50_000);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            sink.tell(new Stamp(System.nanoTime()));
+            next += interval;
+        }
+    }
+
+    private static void child(Path file, WaitStrategy waitStrategy) throws IOException {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        system.getCodecRegistry().codecFor(Stamp.class);
+        system.getCodecRegistry().codecFor(Report.class);
+        system.registerActor("sink", Sink::new, ActorSettings.DEFAULT);
+        system.bindSharedMemory("bench", file, 1 << 20, waitStrategy);
+        InetSocketAddress address = system.bind("bench", new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        System.out.println("READY " + address.getPort());
+        System.out.flush();
+        while (System.in.read() >= 0) {
+            // wait for the parent to close the stream
+        }
+        system.shutDownNow();
+    }
+
+    private static class Sink implements LintStoneActor {
+        private LatencyHistogram histogram = new LatencyHistogram();
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(Stamp.class, (stamp, ctx) -> histogram.record(System.nanoTime() - stamp.sentNanos()))
+                    .inCase(Report.class, (report, ctx) -> {
+                        LatencySnapshot snapshot = histogram.snapshot();
+                        histogram = new LatencyHistogram();
+                        ctx.reply(new Summary(snapshot.count(), snapshot.percentileNanos(50), snapshot.percentileNanos(90),
+                                snapshot.percentileNanos(99), snapshot.percentileNanos(99.9), snapshot.maxNanos()));
+                    });
+        }
+    }
+}
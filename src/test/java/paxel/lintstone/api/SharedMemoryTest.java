@@ -0,0 +1,125 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SharedMemoryTest {
+
+    public record Sequence(int value, String padding) {
+    }
+
+    @TempDir
+    Path directory;
+
+    private LintStoneSystem client;
+    private LintStoneSystem server;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = LintStoneSystemFactory.create();
+        server = LintStoneSystemFactory.create();
+        server.getCodecRegistry().codecFor(Sequence.class);
+        file = directory.resolve("sidecar.ring");
+        // a small ring, so the messages wrap around many times
+        server.bindSharedMemory("sidecar", file, 4096, WaitStrategy.PARK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutDownNow();
+        server.shutDownNow();
+    }
+
+    @Test
+    void testTellsKeepTheirOrderAcrossWraps() throws InterruptedException {
+        int count = 20_000;
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        server.registerActor("sink", () -> mec -> mec.inCase(Sequence.class, (s, ctx) -> {
+            received.add(s.value());
+            done.countDown();
+        }), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor sink = client.getRemoteActor("sidecar@shm[" + file + "]/sink");
+        for (int i = 0; i < count; i++) {
+            sink.tell(new Sequence(i, "x".repeat(i % 100)));
+        }
+
+        assertThat(done.await(20, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).isSorted().hasSize(count);
+    }
+
+    @Test
+    void testAskReplies() throws Exception {
+        server.registerActor("length", () -> mec -> mec.inCase(Sequence.class, (s, ctx) -> ctx.reply(s.padding().length())), ActorSettings.DEFAULT);
+
+        LintStoneActorAccessor length = client.getRemoteActor("sidecar@shm[" + file + "]/length");
+        CompletableFuture<Integer> reply = length.ask(new Sequence(1, "four"));
+
+        assertThat(reply.get(10, TimeUnit.SECONDS)).isEqualTo(4);
+    }
+
+    @Test
+    void testTooLargeMessagesAreRejected() {
+        LintStoneActorAccessor sink = client.getRemoteActor("sidecar@shm[" + file + "]/sink");
+
+        assertThatThrownBy(() -> sink.tell(new Sequence(1, "x".repeat(5000)))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testOnlyOneSystemCanAttach() {
+        LintStoneSystem other = LintStoneSystemFactory.create();
+        try {
+            assertThat(client.getRemoteActor("sidecar@shm[" + file + "]/sink").exists()).isTrue();
+            assertThat(other.getRemoteActor("sidecar@shm[" + file + "]/sink").tryTell(new Sequence(1, ""))).isFalse();
+        } finally {
+            other.shutDownNow();
+        }
+    }
+
+    @Test
+    void testShutdownEndsTheLink() throws Exception {
+        LintStoneActorAccessor sink = client.getRemoteActor("sidecar@shm[" + file + "]/sink");
+        assertThat(sink.exists()).isTrue();
+
+        server.shutDownNow();
+
+        assertThat(Files.exists(file)).isFalse();
+        assertThatThrownBy(() -> sink.tell(new Sequence(1, ""))).isInstanceOf(UnregisteredRecipientException.class);
+    }
+
+    @Test
+    void testBindOnlyReplacesLinkFiles() throws Exception {
+        LintStoneSystem other = LintStoneSystemFactory.create();
+        try {
+            Path foreign = directory.resolve("foreign.dat");
+            Files.writeString(foreign, "important data");
+            assertThatThrownBy(() -> other.bindSharedMemory("other", foreign, 4096, WaitStrategy.PARK))
+                    .isInstanceOf(IOException.class);
+            assertThat(Files.readString(foreign)).isEqualTo("important data");
+
+            // the file of a crashed system is a link file
+            Path stale = directory.resolve("stale.ring");
+            Files.copy(file, stale);
+            other.bindSharedMemory("other", stale, 4096, WaitStrategy.PARK);
+            assertThat(Files.size(stale)).isGreaterThan(4096);
+        } finally {
+            other.shutDownNow();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the shutdown of a system with many idle actors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ShutdownBenchmark {
+
+    @Param({"1000", "50000"})
+    public int actors;
+
+    @Param({"false", "true"})
+    public boolean now;
+
+    private LintStoneSystem system;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        system.registerActors("idle", actors, () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+    }
+
+    @Benchmark
+    public boolean shutDown() throws InterruptedException {
+        if (now) {
+            system.shutDownNow();
+            return true;
+        }
+        return system.shutDownAndWait(Duration.ofMinutes(1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(ShutdownBenchmark.class.getSimpleName());
+    }
+}
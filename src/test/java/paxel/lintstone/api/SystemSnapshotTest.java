@@ -0,0 +1,57 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SystemSnapshotTest {
+
+    @Test
+    void testSnapshotContainsTotalsAndBacklog() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Instant before = Instant.now();
+        LintStoneActorAccessor blocked = system.registerActor("blocked", () -> mec -> mec.otherwise((o, ctx) -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), ActorSettings.DEFAULT);
+        LintStoneActorAccessor echo = system.registerActor("echo", () -> mec -> mec.otherwise((o, ctx) -> ctx.reply(o)), ActorSettings.DEFAULT);
+        system.registerActor("idle", () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+
+        for (int i = 0; i < 5; i++) {
+            blocked.tell(i);
+        }
+        echo.ask("hello").get();
+        started.await();
+
+        SystemSnapshot snapshot = system.snapshot();
+        blocker.countDown();
+
+        assertThat(snapshot.timestamp()).isAfterOrEqualTo(before);
+        assertThat(snapshot.actors()).hasSize(3);
+        // the first message is being processed
+        assertThat(snapshot.queued()).isEqualTo(4);
+        assertThat(snapshot.processedMessages()).isEqualTo(6);
+        assertThat(snapshot.errors()).isZero();
+        assertThat(snapshot.topByBacklog(1)).extracting(ActorSnapshot::name).containsExactly("blocked");
+        assertThat(snapshot.topByBacklog(10)).hasSize(3);
+        assertThatThrownBy(() -> snapshot.actors().clear()).isInstanceOf(UnsupportedOperationException.class);
+
+        ActorSnapshot idle = snapshot.actors().stream().filter(a -> a.name().equals("idle")).findFirst().orElseThrow();
+        assertThat(idle.registrationTime()).isAfterOrEqualTo(before.minusMillis(1));
+        assertThat(idle.lastActivity()).isEqualTo(idle.registrationTime());
+        ActorSnapshot echoSnapshot = snapshot.actors().stream().filter(a -> a.name().equals("echo")).findFirst().orElseThrow();
+        assertThat(echoSnapshot.lastActivity()).isAfterOrEqualTo(echoSnapshot.registrationTime());
+        system.shutDownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package paxel.lintstone.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fire and forget tells of several producer threads to a shared set of actors.
+ * The queue limit keeps the mailboxes bounded, so the producers can't outrun the actors forever.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TellContentionBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int actors;
+
+    private LintStoneSystem system;
+    private final List<LintStoneActorAccessor> accessors = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        system = LintStoneSystemFactory.create();
+        ActorSettings settings = ActorSettings.create().setQueueLimit(100_000).build();
+        for (int i = 0; i < actors; i++) {
+            accessors.add(system.registerActor("counter" + i, CountingActor::new, settings));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        system.shutDownNow();
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        private int next;
+    }
+
+    @Benchmark
+    public void tell(Producer producer) {
+        // each producer has its own round robin, so all producers contend on all actors
+        accessors.get(producer.next++ % actors).tell(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(TellContentionBenchmark.class.getSimpleName());
+    }
+
+    private static class CountingActor implements LintStoneActor {
+        private long sum;
+
+        @Override
+        public void newMessageEvent(LintStoneMessageEventContext mec) {
+            mec.inCase(Integer.class, (i, ctx) -> sum += i);
+        }
+    }
+}
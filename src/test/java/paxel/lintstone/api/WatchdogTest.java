@@ -0,0 +1,97 @@
+package paxel.lintstone.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WatchdogTest {
+
+    @Test
+    void testBlockedActorIsReportedOnce() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        List<LintStoneStalledActor> stalls = new CopyOnWriteArrayList<>();
+        CountDownLatch reported = new CountDownLatch(1);
+        system.startWatchdog(Duration.ofMillis(100), Duration.ofMillis(20), stall -> {
+            stalls.add(stall);
+            reported.countDown();
+        });
+        assertThatThrownBy(() -> system.startWatchdog(Duration.ofMillis(100), Duration.ofMillis(20), stall -> {
+        })).isInstanceOf(IllegalStateException.class);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        LintStoneActorAccessor blocked = system.registerActor("blocked", () -> mec -> mec.inCase(String.class, (s, ctx) -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), ActorSettings.DEFAULT);
+        LintStoneActorAccessor busy = system.registerActor("busy", () -> mec -> mec.otherwise((o, ctx) -> {
+        }), ActorSettings.DEFAULT);
+
+        blocked.tell("block");
+        blocked.tell("behind");
+        for (int i = 0; i < 10_000; i++) {
+            busy.tell(i);
+        }
+        assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue();
+        // give it a few more samples
+        Thread.sleep(200);
+        blocker.countDown();
+
+        assertThat(stalls).singleElement().satisfies(stall -> {
+            assertThat(stall.actorName()).isEqualTo("blocked");
+            assertThat(stall.messageClass()).isEqualTo(String.class);
+            assertThat(stall.stalledFor()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+            assertThat(stall.queued()).isEqualTo(1);
+            assertThat(Arrays.stream(stall.stackTrace()).map(StackTraceElement::getClassName))
+                    .contains(CountDownLatch.class.getName());
+        });
+        system.shutDownNow();
+    }
+
+    @Test
+    void testSlowHandlerDoesNotDelayScheduler() throws Exception {
+        LintStoneSystem system = LintStoneSystemFactory.create();
+        CountDownLatch handlerRunning = new CountDownLatch(1);
+        CountDownLatch releaseHandler = new CountDownLatch(1);
+        system.startWatchdog(Duration.ofMillis(50), Duration.ofMillis(10), stall -> {
+            handlerRunning.countDown();
+            try {
+                releaseHandler.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CountDownLatch blocker = new CountDownLatch(1);
+        LintStoneActorAccessor blocked = system.registerActor("blocked", () -> mec -> mec.inCase(String.class, (s, ctx) -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), ActorSettings.DEFAULT);
+        CountDownLatch delivered = new CountDownLatch(1);
+        system.registerActor("delayed", () -> mec -> mec.otherwise((o, ctx) -> delivered.countDown()), ActorSettings.DEFAULT);
+        LintStoneActorAccessor sender = system.registerActor("sender", () -> mec -> mec.otherwise((o, ctx) ->
+                ctx.tell("delayed", o, Duration.ofMillis(10))), ActorSettings.DEFAULT);
+
+        blocked.tell("block");
+        assertThat(handlerRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        // the handler blocks, but the scheduler still delivers delayed messages
+        sender.tell("go");
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        releaseHandler.countDown();
+        blocker.countDown();
+        system.shutDownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package paxel.lintstone.api.actors;
 
 import paxel.lintstone.api.LintStoneActor;
+import paxel.lintstone.api.LintStoneBuffer;
 import paxel.lintstone.api.LintStoneMessageEventContext;
 import paxel.lintstone.api.messages.EndMessage;
 
@@ -18,6 +19,7 @@ public class Md5Actor implements LintStoneActor {
         mec
                 .inCase(String.class, this::handleString)
                 .inCase(ByteBuffer.class, this::handleByteBuffer)
+                .inCase(LintStoneBuffer.class, this::handleLease)
                 .inCase(EndMessage.class, this::handleEnd);
     }
 
@@ -32,6 +34,10 @@ public class Md5Actor implements LintStoneActor {
     }
 
     private void add(byte[] bytes) {
+        add(ByteBuffer.wrap(bytes));
+    }
+
+    private void add(ByteBuffer bytes) {
         if (md5 == null) {
             try {
                 md5 = MessageDigest.getInstance("MD5");
@@ -51,6 +57,11 @@ public class Md5Actor implements LintStoneActor {
             add(byteBuffer.array());
     }
 
+    private void handleLease(LintStoneBuffer lease, LintStoneMessageEventContext m) {
+        // the lease is released after this handler
+        add(lease.buffer());
+    }
+
     private void handleEnd(EndMessage dmg, LintStoneMessageEventContext m) {
         m.reply(getMd5String());
 // let's die
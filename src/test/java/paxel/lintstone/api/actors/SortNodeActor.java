@@ -9,7 +9,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 public class SortNodeActor implements LintStoneActor {
     private final String name;
@@ -33,23 +32,19 @@ public class SortNodeActor implements LintStoneActor {
     }
 
     private void get(String ignore, LintStoneMessageEventContext lintStoneMessageEventContext) {
-        Optional.ofNullable(left)
-                // ask left side for values, if exists
-                .map(a -> a.<List<Long>>ask(ignore))
-                .orElse(CompletableFuture.completedFuture(Collections.emptyList()))
-                .thenCompose(leftValues ->
-                        Optional.ofNullable(right)
-                                // ask right side for values, if exists
-                                .map(b -> b.<List<Long>>ask(ignore))
-                                .orElse(CompletableFuture.completedFuture(Collections.emptyList()))
-                                .thenApply(rightValues -> {
-                                    // create sorted list of values under this actor
-                                    List<Long> longs = sumList(leftValues, value, rightValues);
-                                    lintStoneMessageEventContext.reply(longs);
-                                    // kill self
-                                    lintStoneMessageEventContext.unregister();
-                                    return longs;
-                                }));
+        List<String> children = new ArrayList<>(2);
+        Optional.ofNullable(left).map(LintStoneActorAccessor::getName).ifPresent(children::add);
+        Optional.ofNullable(right).map(LintStoneActorAccessor::getName).ifPresent(children::add);
+        // ask both sides at once. the replies are gathered in this actor
+        lintStoneMessageEventContext.<List<Long>>askAll(children, ignore)
+                .thenAccept(replies -> {
+                    List<Long> leftValues = left == null ? Collections.emptyList() : replies.get(0);
+                    List<Long> rightValues = right == null ? Collections.emptyList() : replies.get(replies.size() - 1);
+                    // create sorted list of values under this actor
+                    lintStoneMessageEventContext.reply(sumList(leftValues, value, rightValues));
+                    // kill self
+                    lintStoneMessageEventContext.unregister();
+                });
     }
 
     private List<Long> sumList(List<Long> leftValues, Long value, List<Long> rightValues) {
@@ -2,14 +2,10 @@ package paxel.lintstone.api.example.mapreduce;
 
 import paxel.lintstone.api.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,42 +23,21 @@ public class MapReduceDemo {
         LintStoneSystem system = LintStoneSystemFactory.create();
 
         try {
-            // 2. Register Aggregator
-            LintStoneActorAccessor aggregator = system.registerActor("aggregator", 
-                WordCountAggregator::new, ActorSettings.DEFAULT);
-
-            // 3. Register a pool of Mappers
-            int numMappers = Runtime.getRuntime().availableProcessors();
-            List<LintStoneActorAccessor> mappers = new ArrayList<>();
-            for (int i = 0; i < numMappers; i++) {
-                mappers.add(system.registerActor("mapper-" + i, WordCountMapper::new, ActorSettings.DEFAULT));
-            }
-
             long start = System.currentTimeMillis();
 
-            // 4. Read file and distribute lines to mappers (using tellWithBackPressure)
-            try (BufferedReader reader = Files.newBufferedReader(tempFile)) {
-                String line;
-                int count = 0;
-                while ((line = reader.readLine()) != null) {
-                    mappers.get(count % numMappers).tellWithBackPressure(line, 1000);
-                    count++;
-                }
-            }
-
-            System.out.println("Finished reading and enqueuing lines. Waiting for processing...");
-
-            // 5. Query result (using ask)
-            // We need to wait a bit or ensure mappers are done. 
-            // In a real system, we might have a completion signal.
-            // For this demo, we'll just check if the queues are empty.
-            while (mappers.stream().anyMatch(m -> m.getQueuedMessagesAndReplies() > 0) || 
-                   aggregator.getQueuedMessagesAndReplies() > 0) {
-                Thread.sleep(100);
-            }
-
-            CompletableFuture<Map<String, Long>> resultFuture = aggregator.ask("GET_RESULT");
-            Map<String, Long> results = resultFuture.get(5, TimeUnit.SECONDS);
+            // 2. Split the file into chunks of whole lines, that the mappers read memory mapped and in parallel.
+            // The mappers combine their counts per word and send them to the reducer of the word,
+            // and the future completes with the merged result of all reducers.
+            MapReduceJob<FileChunk, String, Long> job = MapReduceJob.<FileChunk, String, Long>create((chunk, emitter) ->
+                    chunk.forEachLine(line -> {
+                        for (String word : line.toString().toLowerCase().split("\\W+")) {
+                            if (!word.isEmpty()) {
+                                emitter.accept(word, 1L);
+                            }
+                        }
+                    }), Long::sum).build();
+            Map<String, Long> results = system.mapReduce("wordcount", FileChunk.split(tempFile, 256 * 1024), job)
+                    .get(1, TimeUnit.MINUTES);
 
             long end = System.currentTimeMillis();
 
@@ -0,0 +1,156 @@
+package paxel.lintstone.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import paxel.lintstone.api.BenchmarkSuite;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the dispatch of {@link StaticDecisionTree} for actors with {@code width} message types.
+ * The first message type is the best case, the last one the worst case of the linear search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchWidthBenchmark {
+
+    private static final Class<?>[] TYPES = {M0.class, M1.class, M2.class, M3.class, M4.class, M5.class, M6.class, M7.class, M8.class, M9.class, M10.class, M11.class, M12.class, M13.class, M14.class, M15.class, M16.class, M17.class, M18.class, M19.class, M20.class, M21.class, M22.class, M23.class, M24.class, M25.class, M26.class, M27.class, M28.class, M29.class, M30.class, M31.class};
+    private static final IntFunction<?>[] CONSTRUCTORS = {M0::new, M1::new, M2::new, M3::new, M4::new, M5::new, M6::new, M7::new, M8::new, M9::new, M10::new, M11::new, M12::new, M13::new, M14::new, M15::new, M16::new, M17::new, M18::new, M19::new, M20::new, M21::new, M22::new, M23::new, M24::new, M25::new, M26::new, M27::new, M28::new, M29::new, M30::new, M31::new};
+
+    @Param({"1", "8", "32"})
+    public int width;
+
+    private DecisionTree tree;
+    private Object first;
+    private Object last;
+    private long handled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DecisionTreeBuilder builder = new DecisionTreeBuilder();
+        for (int i = 0; i < width; i++) {
+            builder.inCase(TYPES[i], (m, ctx) -> handled++);
+        }
+        builder.otherwise((m, ctx) -> handled--);
+        tree = builder.build();
+        first = CONSTRUCTORS[0].apply(1);
+        last = CONSTRUCTORS[width - 1].apply(1);
+    }
+
+    @Benchmark
+    public long firstType() {
+        tree.handle(first, null);
+        return handled;
+    }
+
+    @Benchmark
+    public long lastType() {
+        tree.handle(last, null);
+        return handled;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(DispatchWidthBenchmark.class.getSimpleName());
+    }
+
+    record M0(int value) {
+    }
+
+    record M1(int value) {
+    }
+
+    record M2(int value) {
+    }
+
+    record M3(int value) {
+    }
+
+    record M4(int value) {
+    }
+
+    record M5(int value) {
+    }
+
+    record M6(int value) {
+    }
+
+    record M7(int value) {
+    }
+
+    record M8(int value) {
+    }
+
+    record M9(int value) {
+    }
+
+    record M10(int value) {
+    }
+
+    record M11(int value) {
+    }
+
+    record M12(int value) {
+    }
+
+    record M13(int value) {
+    }
+
+    record M14(int value) {
+    }
+
+    record M15(int value) {
+    }
+
+    record M16(int value) {
+    }
+
+    record M17(int value) {
+    }
+
+    record M18(int value) {
+    }
+
+    record M19(int value) {
+    }
+
+    record M20(int value) {
+    }
+
+    record M21(int value) {
+    }
+
+    record M22(int value) {
+    }
+
+    record M23(int value) {
+    }
+
+    record M24(int value) {
+    }
+
+    record M25(int value) {
+    }
+
+    record M26(int value) {
+    }
+
+    record M27(int value) {
+    }
+
+    record M28(int value) {
+    }
+
+    record M29(int value) {
+    }
+
+    record M30(int value) {
+    }
+
+    record M31(int value) {
+    }
+}
@@ -0,0 +1,64 @@
+package paxel.lintstone.impl;
+
+import org.junit.jupiter.api.Test;
+import paxel.lintstone.api.LatencySnapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverTheirValues() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, 1L << 40}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.lowestValueOf(index)).isLessThanOrEqualTo(value);
+            assertThat(LatencyHistogram.highestValueOf(index)).isGreaterThanOrEqualTo(value);
+            // precise to about 6%
+            assertThat((double) LatencyHistogram.highestValueOf(index)).isCloseTo(value, within(value / 15.0 + 1));
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat((double) snapshot.percentileNanos(50)).isCloseTo(500_000, within(35_000.0));
+        assertThat((double) snapshot.percentileNanos(99)).isCloseTo(990_000, within(65_000.0));
+        assertThat((double) snapshot.maxNanos()).isCloseTo(1_000_000, within(65_000.0));
+        assertThat(snapshot.minNanos()).isLessThanOrEqualTo(1000);
+        assertThat(snapshot.meanNanos()).isCloseTo(500_500, within(35_000.0));
+    }
+
+    @Test
+    void testSnapshotIsTakenImmediately() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(2000);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        histogram.record(10);
+        histogram.record(3000);
+
+        // the later values are neither in the range nor in the count
+        assertThat(snapshot.count()).isEqualTo(2);
+        assertThat(snapshot.minNanos()).isGreaterThan(900);
+        assertThat(snapshot.maxNanos()).isLessThan(3000);
+        assertThat(snapshot.percentileNanos(50)).isBetween(1000L, 1100L);
+    }
+
+    @Test
+    void testEmpty() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertThat(snapshot.count()).isZero();
+        assertThat(snapshot.percentileNanos(99.9)).isZero();
+        assertThat(snapshot.maxNanos()).isZero();
+    }
+}